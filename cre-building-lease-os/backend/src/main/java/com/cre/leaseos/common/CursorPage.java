@@ -0,0 +1,26 @@
+package com.cre.leaseos.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import java.util.function.Function;
+
+/** One keyset page. {@code total} is omitted unless the caller asked for a count. */
+public record CursorPage<T>(
+    List<T> items,
+    int size,
+    String nextCursor,
+    boolean hasNext,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long total) {
+
+  public static <T> CursorPage<T> of(List<T> items, int size, String nextCursor) {
+    return of(items, size, nextCursor, null);
+  }
+
+  public static <T> CursorPage<T> of(List<T> items, int size, String nextCursor, Long total) {
+    return new CursorPage<>(items, size, nextCursor, nextCursor != null, total);
+  }
+
+  public <R> CursorPage<R> map(Function<List<T>, List<R>> mapper) {
+    return new CursorPage<>(mapper.apply(items), size, nextCursor, hasNext, total);
+  }
+}
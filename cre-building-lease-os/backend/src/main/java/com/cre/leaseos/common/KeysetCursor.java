@@ -0,0 +1,54 @@
+package com.cre.leaseos.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Opaque keyset position shared by every seek-paged listing, encoded as URL-safe base64 of {@code
+ * sort|id|value}: the sort it was issued for (empty where the listing has one fixed order), the
+ * last row's id, and that row's sort key (empty when ordered by id alone). The value goes last so
+ * it may itself contain the separator.
+ */
+public record KeysetCursor(String sort, UUID id, String value) {
+
+  /** Position in a listing with a fixed (date, id) order. */
+  public static KeysetCursor of(LocalDate date, UUID id) {
+    return new KeysetCursor("", id, date == null ? "" : date.toString());
+  }
+
+  /** Position in a listing ordered by id alone. */
+  public static KeysetCursor of(UUID id) {
+    return new KeysetCursor("", id, "");
+  }
+
+  public LocalDate date() {
+    try {
+      return LocalDate.parse(value);
+    } catch (RuntimeException e) {
+      throw invalid();
+    }
+  }
+
+  public String encode() {
+    String raw = sort + "|" + id + "|" + value;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static KeysetCursor decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) return null;
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\|", 3);
+      return new KeysetCursor(parts[0], UUID.fromString(parts[1]), parts[2]);
+    } catch (RuntimeException e) {
+      throw invalid();
+    }
+  }
+
+  static ApiException invalid() {
+    return new ApiException("INVALID_CURSOR", "無效的分頁游標", HttpStatus.BAD_REQUEST);
+  }
+}
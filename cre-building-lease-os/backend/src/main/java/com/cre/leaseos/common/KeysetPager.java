@@ -0,0 +1,105 @@
+package com.cre.leaseos.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Sort allowlist of one listing, for offset pages and for keyset (seek) pages. Every allowed field
+ * is non-null and has a {@code (building_id, field, id)} index, and {@code id} is always the tie
+ * breaker. A seek page is then one range scan on that index however deep it is. Its {@link
+ * KeysetCursor} carries the sort it was issued for plus the last row's (field, id), and the total
+ * is counted only on request.
+ */
+public final class KeysetPager {
+  public static final int MAX_SIZE = 100;
+
+  private final String defaultField;
+  private final Map<String, Function<String, Object>> fields;
+
+  private KeysetPager(String defaultField, Map<String, Function<String, Object>> fields) {
+    this.defaultField = defaultField;
+    this.fields = fields;
+  }
+
+  /** {@code fields} maps each sortable property to the parser of its cursor value. */
+  public static KeysetPager sortableBy(
+      String defaultField, Map<String, Function<String, Object>> fields) {
+    return new KeysetPager(defaultField, Map.copyOf(fields));
+  }
+
+  /** Parses {@code field[,asc|desc]} (default: the default field, descending) against the list. */
+  public Sort sort(String raw) {
+    String spec = raw == null || raw.isBlank() ? defaultField + ",desc" : raw;
+    String[] parts = spec.split(",");
+    String field = parts[0].trim();
+    if (!fields.containsKey(field)) {
+      throw new ApiException(
+          "INVALID_SORT",
+          "不支援的排序欄位：" + field,
+          HttpStatus.BAD_REQUEST,
+          Map.of("allowed", fields.keySet().stream().sorted().toList()));
+    }
+    Sort.Direction direction =
+        parts.length > 1 && "asc".equalsIgnoreCase(parts[1].trim())
+            ? Sort.Direction.ASC
+            : Sort.Direction.DESC;
+    return Sort.by(direction, field).and(Sort.by(direction, "id"));
+  }
+
+  public <T> CursorPage<T> page(
+      JpaSpecificationExecutor<T> repo,
+      Specification<T> spec,
+      String sort,
+      String cursor,
+      Integer size,
+      boolean withTotal) {
+    int limit = Math.max(1, Math.min(size == null ? 20 : size, MAX_SIZE));
+    KeysetCursor position = KeysetCursor.decode(cursor);
+    if (position != null && position.sort().isEmpty()) throw KeysetCursor.invalid();
+    Sort order = sort(position == null ? sort : position.sort());
+    if (position != null && sort != null && !sort(sort).equals(order)) {
+      throw new ApiException("INVALID_CURSOR", "分頁游標與排序條件不符", HttpStatus.BAD_REQUEST);
+    }
+    Sort.Order primary = order.iterator().next();
+
+    ScrollPosition scroll =
+        position == null
+            ? ScrollPosition.keyset()
+            : ScrollPosition.forward(keys(primary.getProperty(), position));
+
+    Window<T> window = repo.findBy(spec, q -> q.sortBy(order).limit(limit).scroll(scroll));
+    String next = null;
+    if (window.hasNext() && !window.isEmpty()) {
+      Map<String, ?> keys =
+          ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+      next =
+          new KeysetCursor(
+                  primary.getProperty() + "," + primary.getDirection().name().toLowerCase(),
+                  (UUID) keys.get("id"),
+                  String.valueOf(keys.get(primary.getProperty())))
+              .encode();
+    }
+    Long total = withTotal ? repo.count(spec) : null;
+    return CursorPage.of(window.getContent(), limit, next, total);
+  }
+
+  private Map<String, Object> keys(String field, KeysetCursor position) {
+    Map<String, Object> keys = new LinkedHashMap<>();
+    try {
+      keys.put(field, fields.get(field).apply(position.value()));
+    } catch (RuntimeException e) {
+      throw KeysetCursor.invalid();
+    }
+    keys.put("id", position.id());
+    return keys;
+  }
+}
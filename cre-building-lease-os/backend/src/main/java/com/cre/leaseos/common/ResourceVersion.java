@@ -0,0 +1,50 @@
+package com.cre.leaseos.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Row count and newest {@code updatedAt} of the rows behind a response. Any insert, update or
+ * delete moves one of the two, so the pair serves as a strong validator for conditional GETs.
+ */
+public record ResourceVersion(Long count, OffsetDateTime lastModified) {
+
+  public static final ResourceVersion EMPTY = new ResourceVersion(0L, null);
+
+  public boolean isEmpty() {
+    return count == null || count == 0;
+  }
+
+  /** True when both pairs describe the same rows; caches stamped with a version compare this way. */
+  public boolean sameAs(ResourceVersion other) {
+    if (other == null || safeCount() != other.safeCount()) return false;
+    if (lastModified == null || other.lastModified == null) {
+      return lastModified == other.lastModified;
+    }
+    return lastModified.isEqual(other.lastModified);
+  }
+
+  public ResourceVersion and(ResourceVersion other) {
+    OffsetDateTime latest = lastModified;
+    if (latest == null || (other.lastModified != null && other.lastModified.isAfter(latest))) {
+      latest = other.lastModified;
+    }
+    return new ResourceVersion(safeCount() + other.safeCount(), latest);
+  }
+
+  public String etag() {
+    String raw =
+        safeCount() + ":" + (lastModified == null ? "-" : lastModified.toInstant().toString());
+    return "\"" + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8)) + "\"";
+  }
+
+  /** Epoch millis for {@code Last-Modified}, or -1 when there are no rows. */
+  public long lastModifiedMillis() {
+    return lastModified == null ? -1 : lastModified.toInstant().toEpochMilli();
+  }
+
+  private long safeCount() {
+    return count == null ? 0 : count;
+  }
+}
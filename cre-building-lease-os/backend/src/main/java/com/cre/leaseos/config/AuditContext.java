@@ -17,4 +17,17 @@ public class AuditContext {
   public static void clear() {
     CURRENT_USER.remove();
   }
+
+  /** The actor as set, or null when none is; pair with {@link #restore}. */
+  static String snapshot() {
+    return CURRENT_USER.get();
+  }
+
+  static void restore(String previous) {
+    if (previous == null) {
+      CURRENT_USER.remove();
+    } else {
+      CURRENT_USER.set(previous);
+    }
+  }
 }
@@ -0,0 +1,24 @@
+package com.cre.leaseos.config;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Runs a task under the actor of the thread that submitted it, then puts back whatever the running
+ * thread had before, so a task that ends up on its submitter's thread leaves that actor intact.
+ */
+public class AuditContextTaskDecorator implements TaskDecorator {
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    String actor = AuditContext.getCurrentUser();
+    return () -> {
+      String previous = AuditContext.snapshot();
+      AuditContext.setUser(actor);
+      try {
+        runnable.run();
+      } finally {
+        AuditContext.restore(previous);
+      }
+    };
+  }
+}
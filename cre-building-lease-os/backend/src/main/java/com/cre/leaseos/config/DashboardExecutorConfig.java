@@ -0,0 +1,35 @@
+package com.cre.leaseos.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class DashboardExecutorConfig {
+
+  /**
+   * Bounded pool for dashboard fan-out queries. Every thread holds a connection while its query
+   * runs, so the pool is capped at half of Hikari's {@code maximumPoolSize} and dashboards can
+   * never take the connections the rest of the API needs. When the pool and queue are full a
+   * submission is rejected and the dashboard answers 503, rather than running the query on the
+   * request thread outside the dashboard timeout.
+   */
+  @Bean(name = "dashboardExecutor")
+  public ThreadPoolTaskExecutor dashboardExecutor(
+      @Value("${leaseos.dashboard.pool-size:4}") int poolSize,
+      @Value("${leaseos.dashboard.queue-capacity:20}") int queueCapacity,
+      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+    int threads = Math.max(1, Math.min(poolSize, connectionPoolSize / 2));
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("dashboard-");
+    executor.setTaskDecorator(new AuditContextTaskDecorator());
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    return executor;
+  }
+}
@@ -0,0 +1,10 @@
+package com.cre.leaseos.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "leaseos.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {}
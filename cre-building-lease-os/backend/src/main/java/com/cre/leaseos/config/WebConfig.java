@@ -17,7 +17,8 @@ public class WebConfig implements WebMvcConfigurer {
         .addMapping("/api/**")
         .allowedOrigins("http://localhost:3000")
         .allowedMethods("*")
-        .allowedHeaders("*");
+        .allowedHeaders("*")
+        .exposedHeaders("ETag", "Last-Modified");
   }
 
   @Override
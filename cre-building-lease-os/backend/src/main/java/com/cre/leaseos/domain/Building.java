@@ -23,4 +23,17 @@ public class Building extends BaseEntity {
 
   @Column(precision = 12, scale = 2)
   private BigDecimal managementFee;
+
+  // Same rollup columns as Floor, likewise never written by an entity save.
+  @Column(nullable = false, updatable = false)
+  private Integer unitCount = 0;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal totalGrossArea = BigDecimal.ZERO;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal totalNetArea = BigDecimal.ZERO;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal totalBalconyArea = BigDecimal.ZERO;
 }
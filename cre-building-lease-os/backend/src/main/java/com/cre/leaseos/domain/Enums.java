@@ -1,5 +1,7 @@
 package com.cre.leaseos.domain;
 
+import java.util.Set;
+
 public class Enums {
   public enum LeaseStatus { DRAFT, ACTIVE, TERMINATED }
 
@@ -7,7 +9,18 @@ public class Enums {
 
   public enum RepairScopeType { FLOOR, COMMON_AREA }
 
-  public enum RepairStatus { DRAFT, QUOTED, APPROVED, IN_PROGRESS, COMPLETED, ACCEPTED, REJECTED }
+  public enum RepairStatus {
+    DRAFT, QUOTED, APPROVED, IN_PROGRESS, COMPLETED, ACCEPTED, REJECTED;
+
+    /** Statuses after which a repair no longer counts as open. */
+    public static final Set<RepairStatus> CLOSED = Set.of(COMPLETED, ACCEPTED, REJECTED);
+  }
 
   public enum AcceptanceResult { PASS, FAIL, CONDITIONAL }
+
+  public enum RepairCostDimension { BUILDING, FLOOR, COMMON_AREA, VENDOR }
+
+  public enum OutboxEventType { LEASE_ACTIVATED, LEASE_TERMINATED, UNIT_SPLIT, UNIT_MERGED }
+
+  public enum OutboxStatus { PENDING, DONE, FAILED }
 }
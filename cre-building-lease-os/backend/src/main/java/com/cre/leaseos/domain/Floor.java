@@ -3,6 +3,7 @@ package com.cre.leaseos.domain;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import java.math.BigDecimal;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.Setter;
@@ -21,4 +22,18 @@ public class Floor extends BaseEntity {
 
   @Column(nullable = false)
   private Integer sortIndex;
+
+  // Rollup columns are written only through AreaRollups/AreaRollupVerifier update queries, so an
+  // entity save elsewhere can never put stale totals back.
+  @Column(nullable = false, updatable = false)
+  private Integer unitCount = 0;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal totalGrossArea = BigDecimal.ZERO;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal totalNetArea = BigDecimal.ZERO;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal totalBalconyArea = BigDecimal.ZERO;
 }
@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -15,7 +16,15 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "leases")
+@Table(
+    name = "leases",
+    indexes = {
+      @Index(name = "idx_leases_building_status_end", columnList = "buildingId,status,endDate,id"),
+      @Index(name = "idx_leases_status_end", columnList = "status,endDate,id"),
+      @Index(name = "idx_leases_building_created_id", columnList = "buildingId,createdAt,id"),
+      @Index(name = "idx_leases_building_start_id", columnList = "buildingId,startDate,id"),
+      @Index(name = "idx_leases_building_end_id", columnList = "buildingId,endDate,id")
+    })
 public class Lease extends BaseEntity {
 
   @Column(nullable = false)
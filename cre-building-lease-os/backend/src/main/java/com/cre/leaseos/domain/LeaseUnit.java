@@ -2,7 +2,9 @@ package com.cre.leaseos.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import java.time.LocalDate;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,7 +12,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "lease_units")
+@Table(name = "lease_units", indexes = @Index(name = "idx_lease_units_unit_id", columnList = "unitId"))
 public class LeaseUnit extends BaseEntity {
 
   @Column(nullable = false)
@@ -18,4 +20,9 @@ public class LeaseUnit extends BaseEntity {
 
   @Column(nullable = false)
   private UUID unitId;
+
+  /** Copy of the lease term while the lease is ACTIVE, guarded by an exclusion constraint. */
+  private LocalDate activeStartDate;
+
+  private LocalDate activeEndDate;
 }
@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
 import java.util.UUID;
@@ -14,7 +15,12 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "occupancies")
+@Table(
+    name = "occupancies",
+    indexes = {
+      @Index(name = "idx_occupancies_lease_id", columnList = "leaseId"),
+      @Index(name = "idx_occupancies_building_start", columnList = "buildingId,startDate")
+    })
 public class Occupancy extends BaseEntity {
 
   @Column(nullable = false)
@@ -0,0 +1,52 @@
+package com.cre.leaseos.domain;
+
+import com.cre.leaseos.domain.Enums.OutboxEventType;
+import com.cre.leaseos.domain.Enums.OutboxStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(
+    name = "outbox_events",
+    indexes = {
+      @Index(name = "idx_outbox_events_status_available", columnList = "status,availableAt"),
+      @Index(name = "idx_outbox_events_status_processed", columnList = "status,processedAt")
+    })
+public class OutboxEvent extends BaseEntity {
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private OutboxEventType eventType;
+
+  @Column(nullable = false)
+  private UUID aggregateId;
+
+  @Column(nullable = false, columnDefinition = "text")
+  private String payload;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private OutboxStatus status;
+
+  @Column(nullable = false)
+  private Integer attempts = 0;
+
+  /** Not picked up before this instant; pushed forward while claimed and on retry backoff. */
+  @Column(nullable = false)
+  private OffsetDateTime availableAt;
+
+  private OffsetDateTime processedAt;
+
+  @Column(length = 1000)
+  private String lastError;
+}
@@ -0,0 +1,67 @@
+package com.cre.leaseos.domain;
+
+import com.cre.leaseos.domain.Enums.RepairCostDimension;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Repair amounts of one building, summed per dimension key (the building itself, a floor, a common
+ * area or a vendor) and per month of {@code reportedAt}. The settled columns only cover repairs
+ * with both an approved and a final amount, and the approved-quote column only those with an
+ * approved amount, so the ratios compare like with like.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+    name = "repair_cost_rollups",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uq_repair_cost_rollups_key",
+            columnNames = {"buildingId", "dimension", "dimensionId", "monthStart"}))
+public class RepairCostRollup extends BaseEntity {
+
+  @Column(nullable = false)
+  private UUID buildingId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private RepairCostDimension dimension;
+
+  @Column(nullable = false)
+  private UUID dimensionId;
+
+  @Column(nullable = false)
+  private LocalDate monthStart;
+
+  // Totals are inserted with the row, then changed only by RepairCostRollups update queries.
+  @Column(nullable = false, updatable = false)
+  private Long repairCount = 0L;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal quoteAmount = BigDecimal.ZERO;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal approvedAmount = BigDecimal.ZERO;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal finalAmount = BigDecimal.ZERO;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal approvedQuoteAmount = BigDecimal.ZERO;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal settledApprovedAmount = BigDecimal.ZERO;
+
+  @Column(nullable = false, updatable = false, precision = 14, scale = 2)
+  private BigDecimal settledFinalAmount = BigDecimal.ZERO;
+}
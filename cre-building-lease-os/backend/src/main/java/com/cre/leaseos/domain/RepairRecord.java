@@ -7,6 +7,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -18,7 +19,23 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "repair_records")
+@Table(
+    name = "repair_records",
+    indexes = {
+      @Index(
+          name = "idx_repair_records_building_created_id",
+          columnList = "buildingId,createdAt,id"),
+      @Index(
+          name = "idx_repair_records_building_reported_id",
+          columnList = "buildingId,reportedAt,id"),
+      @Index(
+          name = "idx_repair_records_building_status_created",
+          columnList = "buildingId,status,createdAt"),
+      @Index(name = "idx_repair_records_building_floor", columnList = "buildingId,floorId"),
+      @Index(
+          name = "idx_repair_records_building_common_area",
+          columnList = "buildingId,commonAreaId")
+    })
 public class RepairRecord extends BaseEntity {
 
   @Column(nullable = false)
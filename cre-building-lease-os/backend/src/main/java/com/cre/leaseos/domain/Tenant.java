@@ -2,6 +2,7 @@ package com.cre.leaseos.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.util.UUID;
 import lombok.Getter;
@@ -10,7 +11,12 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "tenants")
+@Table(
+    name = "tenants",
+    indexes = {
+      @Index(name = "idx_tenants_building_created_id", columnList = "buildingId,createdAt,id"),
+      @Index(name = "idx_tenants_building_name_id", columnList = "buildingId,name,id")
+    })
 public class Tenant extends BaseEntity {
 
   @Column(nullable = false)
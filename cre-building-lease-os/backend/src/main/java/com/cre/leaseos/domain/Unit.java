@@ -2,6 +2,7 @@ package com.cre.leaseos.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -12,7 +13,12 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "units")
+@Table(
+    name = "units",
+    indexes = {
+      @Index(name = "idx_units_floor_created", columnList = "floorId,createdAt"),
+      @Index(name = "idx_units_building_created", columnList = "buildingId,createdAt")
+    })
 public class Unit extends BaseEntity {
 
   @Column(nullable = false)
@@ -0,0 +1,33 @@
+package com.cre.leaseos.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+/** Closure row: {@code ancestorId} is {@code depth} split/merge steps before {@code descendantId}. */
+@Getter
+@Setter
+@Entity
+@Table(
+    name = "unit_lineage",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uq_unit_lineage_ancestor_descendant",
+            columnNames = {"ancestorId", "descendantId"}),
+    indexes = @Index(name = "idx_unit_lineage_descendant", columnList = "descendantId,depth"))
+public class UnitLineage extends BaseEntity {
+
+  @Column(nullable = false)
+  private UUID ancestorId;
+
+  @Column(nullable = false)
+  private UUID descendantId;
+
+  @Column(nullable = false)
+  private Integer depth;
+}
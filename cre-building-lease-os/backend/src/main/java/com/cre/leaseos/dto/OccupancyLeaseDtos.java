@@ -47,4 +47,10 @@ public class OccupancyLeaseDtos {
       BigDecimal managementFee,
       BigDecimal rent,
       BigDecimal deposit) {}
+
+  public record LeaseBatchItemResult(
+      int index, boolean created, UUID leaseId, String code, String message) {}
+
+  public record LeaseBatchResult(
+      int total, int created, int rejected, List<LeaseBatchItemResult> items) {}
 }
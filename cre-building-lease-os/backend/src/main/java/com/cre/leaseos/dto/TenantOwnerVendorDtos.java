@@ -1,11 +1,14 @@
 package com.cre.leaseos.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public class TenantOwnerVendorDtos {
@@ -32,4 +35,8 @@ public class TenantOwnerVendorDtos {
       OffsetDateTime startDate,
       OffsetDateTime endDate,
       String notes) {}
+
+  public record TenantResolveReq(@NotEmpty List<@Valid PartyReq> tenants, Boolean create) {}
+
+  public record TenantMergeReq(@NotEmpty List<UUID> duplicateIds) {}
 }
@@ -26,4 +26,14 @@ public class UnitDtos {
       BigDecimal grossArea,
       BigDecimal netArea,
       BigDecimal balconyArea) {}
+
+  /** One row of a bulk import; {@code floorLabel} is required only for building-level imports. */
+  public record UnitBulkRow(
+      String floorLabel,
+      String code,
+      BigDecimal grossArea,
+      BigDecimal netArea,
+      BigDecimal balconyArea) {}
+
+  public record UnitBulkError(int index, String code, String reasonCode, String message) {}
 }
@@ -0,0 +1,8 @@
+package com.cre.leaseos.repo;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** Count and area sums of the current units grouped under one id (a floor or a building). */
+public record AreaTotals(
+    UUID id, Long unitCount, BigDecimal grossArea, BigDecimal netArea, BigDecimal balconyArea) {}
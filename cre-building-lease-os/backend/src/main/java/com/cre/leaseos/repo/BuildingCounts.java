@@ -0,0 +1,4 @@
+package com.cre.leaseos.repo;
+
+/** Row counts of a building's floors, tenants, vendors and common areas, read in one query. */
+public record BuildingCounts(Long floors, Long tenants, Long vendors, Long commonAreas) {}
@@ -0,0 +1,7 @@
+package com.cre.leaseos.repo;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** A per-building count with an optional summed amount, from a {@code group by buildingId}. */
+public record BuildingMetric(UUID buildingId, Long count, BigDecimal amount) {}
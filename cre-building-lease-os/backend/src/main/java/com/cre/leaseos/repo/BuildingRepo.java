@@ -1,10 +1,82 @@
 package com.cre.leaseos.repo;
 
+import com.cre.leaseos.common.ResourceVersion;
 import com.cre.leaseos.domain.Building;
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 public interface BuildingRepo extends JpaRepository<Building, UUID> {
   List<Building> findAllByOrderByCreatedAtDesc();
+
+  @Query("select b.id from Building b")
+  List<UUID> findAllIds();
+
+  @Query("select b from Building b where b.id > :afterId order by b.id")
+  List<Building> findPage(UUID afterId, Limit limit);
+
+  @Query(
+      "select new com.cre.leaseos.repo.PortfolioTotals(count(b), sum(b.unitCount), "
+          + "sum(b.totalGrossArea), sum(b.totalNetArea), sum(b.totalBalconyArea)) from Building b")
+  PortfolioTotals sumTotals();
+
+  @Query(
+      "select new com.cre.leaseos.repo.BuildingCounts("
+          + "(select count(f) from Floor f where f.buildingId = b.id), "
+          + "(select count(t) from Tenant t where t.buildingId = b.id), "
+          + "(select count(v) from Vendor v where v.buildingId = b.id), "
+          + "(select count(c) from CommonArea c where c.buildingId = b.id)) "
+          + "from Building b where b.id = :id")
+  BuildingCounts countSections(UUID id);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select b from Building b where b.id = :id")
+  Optional<Building> lockById(UUID id);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(b), max(b.updatedAt)) from Building b")
+  ResourceVersion versionOfAll();
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(b), max(b.updatedAt)) "
+          + "from Building b where b.id = :id")
+  ResourceVersion versionOf(UUID id);
+
+  @Modifying
+  @Query(
+      "update Building b set b.unitCount = b.unitCount + :units, "
+          + "b.totalGrossArea = b.totalGrossArea + :grossArea, "
+          + "b.totalNetArea = b.totalNetArea + :netArea, "
+          + "b.totalBalconyArea = b.totalBalconyArea + :balconyArea, "
+          + "b.updatedAt = :now where b.id = :id")
+  int addAreas(
+      UUID id,
+      int units,
+      BigDecimal grossArea,
+      BigDecimal netArea,
+      BigDecimal balconyArea,
+      OffsetDateTime now);
+
+  /** Sets the rollup only if the row is still at {@code seenUpdatedAt}; returns 0 otherwise. */
+  @Modifying
+  @Query(
+      "update Building b set b.unitCount = :units, b.totalGrossArea = :grossArea, "
+          + "b.totalNetArea = :netArea, b.totalBalconyArea = :balconyArea, "
+          + "b.updatedAt = :now where b.id = :id and b.updatedAt = :seenUpdatedAt")
+  int setAreasIfUnchanged(
+      UUID id,
+      OffsetDateTime seenUpdatedAt,
+      int units,
+      BigDecimal grossArea,
+      BigDecimal netArea,
+      BigDecimal balconyArea,
+      OffsetDateTime now);
 }
@@ -1,12 +1,21 @@
 package com.cre.leaseos.repo;
 
+import com.cre.leaseos.common.ResourceVersion;
 import com.cre.leaseos.domain.CommonArea;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface CommonAreaRepo extends JpaRepository<CommonArea, UUID> {
   List<CommonArea> findByBuildingIdOrderByCreatedAtDesc(UUID buildingId);
 
   List<CommonArea> findByBuildingIdOrderByNameAsc(UUID buildingId);
+
+  long countByBuildingId(UUID buildingId);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(c), max(c.updatedAt)) "
+          + "from CommonArea c where c.buildingId = :buildingId")
+  ResourceVersion versionOfBuilding(UUID buildingId);
 }
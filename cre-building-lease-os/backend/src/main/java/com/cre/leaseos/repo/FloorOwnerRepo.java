@@ -1,10 +1,36 @@
 package com.cre.leaseos.repo;
 
+import com.cre.leaseos.common.ResourceVersion;
 import com.cre.leaseos.domain.FloorOwner;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface FloorOwnerRepo extends JpaRepository<FloorOwner, UUID> {
   List<FloorOwner> findByFloorIdOrderByStartDateDesc(UUID floorId);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(fo), max(fo.updatedAt)) "
+          + "from FloorOwner fo where fo.floorId = :floorId")
+  ResourceVersion versionOfFloor(UUID floorId);
+
+  /**
+   * Every floor of the building, left-joined to the assignments holding a share in {@code [from,
+   * to)}; an assignment holds through its endDate inclusive.
+   * Floors without a share in the window come back once with a null owner.
+   */
+  @Query(
+      """
+      select new com.cre.leaseos.repo.OwnershipCell(
+          f.id, f.label, f.sortIndex, fo.ownerId, fo.sharePercent, fo.startDate, fo.endDate)
+      from Floor f
+      left join FloorOwner fo on fo.floorId = f.id
+          and fo.startDate < :to
+          and (fo.endDate is null or fo.endDate >= :from)
+      where f.buildingId = :buildingId
+      order by f.sortIndex, f.id
+      """)
+  List<OwnershipCell> findOwnershipCells(UUID buildingId, OffsetDateTime from, OffsetDateTime to);
 }
@@ -1,12 +1,82 @@
 package com.cre.leaseos.repo;
 
+import com.cre.leaseos.common.ResourceVersion;
 import com.cre.leaseos.domain.Floor;
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 public interface FloorRepo extends JpaRepository<Floor, UUID> {
   List<Floor> findByBuildingIdOrderBySortIndexAsc(UUID buildingId);
 
-  void deleteByBuildingId(UUID buildingId);
+  long countByBuildingId(UUID buildingId);
+
+  /**
+   * Floors that something points at: unit rows and floor owners would be cascade-deleted with the
+   * floor, common areas and repairs would silently lose it.
+   */
+  @Query(
+      "select f.label from Floor f where f.id in :ids "
+          + "and (exists (select 1 from Unit u where u.floorId = f.id) "
+          + "or exists (select 1 from FloorOwner fo where fo.floorId = f.id) "
+          + "or exists (select 1 from CommonArea c where c.floorId = f.id) "
+          + "or exists (select 1 from RepairRecord r where r.floorId = f.id)) "
+          + "order by f.sortIndex")
+  List<String> findLabelsInUse(Collection<UUID> ids);
+
+  @Modifying
+  @Query("delete from Floor f where f.id in :ids")
+  int deleteByIds(Collection<UUID> ids);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select f from Floor f where f.id = :id")
+  Optional<Floor> lockById(UUID id);
+
+  @Modifying
+  @Query(
+      "update Floor f set f.unitCount = f.unitCount + :units, "
+          + "f.totalGrossArea = f.totalGrossArea + :grossArea, "
+          + "f.totalNetArea = f.totalNetArea + :netArea, "
+          + "f.totalBalconyArea = f.totalBalconyArea + :balconyArea, "
+          + "f.updatedAt = :now where f.id = :id")
+  int addAreas(
+      UUID id,
+      int units,
+      BigDecimal grossArea,
+      BigDecimal netArea,
+      BigDecimal balconyArea,
+      OffsetDateTime now);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(f), max(f.updatedAt)) "
+          + "from Floor f where f.id = :id")
+  ResourceVersion versionOf(UUID id);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(f), max(f.updatedAt)) "
+          + "from Floor f where f.buildingId = :buildingId")
+  ResourceVersion versionOfBuilding(UUID buildingId);
+
+  /** Sets the rollup only if the row is still at {@code seenUpdatedAt}; returns 0 otherwise. */
+  @Modifying
+  @Query(
+      "update Floor f set f.unitCount = :units, f.totalGrossArea = :grossArea, "
+          + "f.totalNetArea = :netArea, f.totalBalconyArea = :balconyArea, "
+          + "f.updatedAt = :now where f.id = :id and f.updatedAt = :seenUpdatedAt")
+  int setAreasIfUnchanged(
+      UUID id,
+      OffsetDateTime seenUpdatedAt,
+      int units,
+      BigDecimal grossArea,
+      BigDecimal netArea,
+      BigDecimal balconyArea,
+      OffsetDateTime now);
 }
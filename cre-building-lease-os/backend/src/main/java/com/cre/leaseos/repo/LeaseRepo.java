@@ -1,17 +1,87 @@
 package com.cre.leaseos.repo;
 
+import com.cre.leaseos.common.ResourceVersion;
 import com.cre.leaseos.domain.Lease;
 import com.cre.leaseos.domain.Enums.LeaseStatus;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
-public interface LeaseRepo extends JpaRepository<Lease, UUID> {
+public interface LeaseRepo extends JpaRepository<Lease, UUID>, JpaSpecificationExecutor<Lease> {
   List<Lease> findByBuildingIdOrderByCreatedAtDesc(UUID buildingId);
 
   Page<Lease> findByBuildingId(UUID buildingId, Pageable pageable);
 
   List<Lease> findByBuildingIdAndStatus(UUID buildingId, LeaseStatus status);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(l), max(l.updatedAt)) "
+          + "from Lease l where l.buildingId = :buildingId")
+  ResourceVersion versionOfBuilding(UUID buildingId);
+
+  long countByBuildingIdAndStatusAndEndDateBetween(
+      UUID buildingId, LeaseStatus status, LocalDate endFrom, LocalDate endTo);
+
+  @Query(
+      "select new com.cre.leaseos.repo.StatusCount(l.status, count(l)) from Lease l "
+          + "where l.buildingId = :buildingId group by l.status")
+  List<StatusCount> countByStatus(UUID buildingId);
+
+  @Query(
+      "select new com.cre.leaseos.repo.BuildingMetric(l.buildingId, count(l), sum(l.rent)) "
+          + "from Lease l where l.status = :status and l.startDate <= :asOf and l.endDate >= :asOf "
+          + "group by l.buildingId")
+  List<BuildingMetric> sumInForceByBuilding(LeaseStatus status, LocalDate asOf);
+
+  @Query(
+      "select new com.cre.leaseos.repo.BuildingMetric(l.buildingId, count(l), sum(l.rent)) "
+          + "from Lease l where l.status = :status and l.startDate <= :asOf and l.endDate >= :asOf "
+          + "and l.buildingId in :buildingIds group by l.buildingId")
+  List<BuildingMetric> sumInForceByBuilding(
+      LeaseStatus status, LocalDate asOf, Collection<UUID> buildingIds);
+
+  /** Leases on the unit itself or on any unit it was split or merged from. */
+  @Query(
+      "select distinct l from Lease l join LeaseUnit lu on lu.leaseId = l.id"
+          + " join UnitLineage ul on ul.ancestorId = lu.unitId"
+          + " where ul.descendantId = :unitId order by l.startDate asc")
+  List<Lease> findByUnitLineage(UUID unitId);
+
+  List<Lease> findByBuildingIdAndStatusAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+      UUID buildingId, LeaseStatus status, LocalDate startOnOrBefore, LocalDate endOnOrAfter);
+
+  @Query(
+      "select l from Lease l where l.buildingId = :buildingId and l.status = :status"
+          + " and l.endDate <= :until"
+          + " and (l.endDate > :afterEnd or (l.endDate = :afterEnd and l.id > :afterId))"
+          + " order by l.endDate asc, l.id asc")
+  List<Lease> findExpiringInBuilding(
+      UUID buildingId,
+      LeaseStatus status,
+      LocalDate afterEnd,
+      UUID afterId,
+      LocalDate until,
+      Limit limit);
+
+  @Query(
+      "select l from Lease l where l.status = :status and l.endDate <= :until"
+          + " and (l.endDate > :afterEnd or (l.endDate = :afterEnd and l.id > :afterId))"
+          + " order by l.endDate asc, l.id asc")
+  List<Lease> findExpiring(
+      LeaseStatus status, LocalDate afterEnd, UUID afterId, LocalDate until, Limit limit);
+
+  @Modifying
+  @Query(
+      "update Lease l set l.tenantId = :tenantId, l.updatedAt = :now "
+          + "where l.tenantId in :fromTenantIds")
+  int reassignTenant(Collection<UUID> fromTenantIds, UUID tenantId, OffsetDateTime now);
 }
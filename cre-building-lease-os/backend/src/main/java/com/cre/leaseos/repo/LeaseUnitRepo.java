@@ -1,8 +1,8 @@
 package com.cre.leaseos.repo;
 
-import com.cre.leaseos.domain.Lease;
+import com.cre.leaseos.common.ResourceVersion;
 import com.cre.leaseos.domain.LeaseUnit;
-import com.cre.leaseos.domain.Enums.LeaseStatus;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,9 +11,25 @@ import org.springframework.data.jpa.repository.Query;
 public interface LeaseUnitRepo extends JpaRepository<LeaseUnit, UUID> {
   List<LeaseUnit> findByLeaseId(UUID leaseId);
 
-  void deleteByLeaseId(UUID leaseId);
+  List<LeaseUnit> findByLeaseIdIn(Collection<UUID> leaseIds);
+
+  @Query("select lu from LeaseUnit lu join Lease l on l.id = lu.leaseId where l.buildingId = :buildingId")
+  List<LeaseUnit> findByBuildingId(UUID buildingId);
+
+  @Query(
+      "select lu from LeaseUnit lu join Lease l on l.id = lu.leaseId"
+          + " where l.buildingId = :buildingId and lu.activeStartDate is not null")
+  List<LeaseUnit> findActiveByBuildingId(UUID buildingId);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(lu), max(lu.updatedAt)) "
+          + "from LeaseUnit lu join Lease l on l.id = lu.leaseId where l.buildingId = :buildingId")
+  ResourceVersion versionOfBuilding(UUID buildingId);
+
+  List<LeaseUnit> findByUnitIdInAndActiveStartDateIsNotNull(Collection<UUID> unitIds);
 
   @Query(
-      "select l from Lease l join LeaseUnit lu on l.id = lu.leaseId where lu.unitId in :unitIds and l.status = :status")
-  List<Lease> findLeasesByUnitIdsAndStatus(List<UUID> unitIds, LeaseStatus status);
+      "select new com.cre.leaseos.repo.UnitSpanVersion(lu.unitId, count(lu), max(lu.updatedAt))"
+          + " from LeaseUnit lu where lu.unitId in :unitIds group by lu.unitId")
+  List<UnitSpanVersion> versionsOfUnits(Collection<UUID> unitIds);
 }
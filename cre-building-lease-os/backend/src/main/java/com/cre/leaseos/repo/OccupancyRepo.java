@@ -2,17 +2,46 @@ package com.cre.leaseos.repo;
 
 import com.cre.leaseos.domain.Occupancy;
 import com.cre.leaseos.domain.Enums.OccupancyStatus;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 public interface OccupancyRepo extends JpaRepository<Occupancy, UUID> {
   List<Occupancy> findByBuildingIdAndStatus(UUID buildingId, OccupancyStatus status);
 
   List<Occupancy> findByBuildingIdOrderByCreatedAtDesc(UUID buildingId);
 
+  @Query(
+      "select new com.cre.leaseos.repo.StatusCount(o.status, count(o)) from Occupancy o "
+          + "where o.buildingId = :buildingId group by o.status")
+  List<StatusCount> countByStatus(UUID buildingId);
+
   List<Occupancy> findByUnitIdOrderByCreatedAtDesc(UUID unitId);
 
-  Occupancy findFirstByUnitIdAndTenantIdAndStatusOrderByCreatedAtDesc(
-      UUID unitId, UUID tenantId, OccupancyStatus status);
+  List<Occupancy> findByLeaseIdOrderByCreatedAtDesc(UUID leaseId);
+
+  List<Occupancy> findByLeaseIdIn(Collection<UUID> leaseIds);
+
+  List<Occupancy> findByLeaseIdInAndStatus(Collection<UUID> leaseIds, OccupancyStatus status);
+
+  List<Occupancy> findByUnitIdInAndStatusOrderByCreatedAtDesc(
+      Collection<UUID> unitIds, OccupancyStatus status);
+
+  @Query(
+      "select o from Occupancy o where o.buildingId = :buildingId and o.status <> :excluded"
+          + " and o.startDate <= :to and (o.endDate is null or o.endDate >= :from)"
+          + " order by o.startDate asc, o.id asc")
+  List<Occupancy> findOverlapping(
+      UUID buildingId, OccupancyStatus excluded, LocalDate from, LocalDate to);
+
+  @Modifying
+  @Query(
+      "update Occupancy o set o.tenantId = :tenantId, o.updatedAt = :now "
+          + "where o.tenantId in :fromTenantIds")
+  int reassignTenant(Collection<UUID> fromTenantIds, UUID tenantId, OffsetDateTime now);
 }
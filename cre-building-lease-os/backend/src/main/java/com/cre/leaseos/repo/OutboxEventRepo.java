@@ -0,0 +1,33 @@
+package com.cre.leaseos.repo;
+
+import com.cre.leaseos.domain.Enums.OutboxStatus;
+import com.cre.leaseos.domain.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+public interface OutboxEventRepo extends JpaRepository<OutboxEvent, UUID> {
+
+  /** Lock timeout -2 is rendered as SKIP LOCKED, so concurrent dispatchers claim disjoint rows. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  List<OutboxEvent> findByStatusAndAvailableAtLessThanEqualOrderByAvailableAtAscIdAsc(
+      OutboxStatus status, OffsetDateTime availableAt, Limit limit);
+
+  long countByStatus(OutboxStatus status);
+
+  Optional<OutboxEvent> findFirstByStatusOrderByCreatedAtAsc(OutboxStatus status);
+
+  @Modifying
+  @Query("delete from OutboxEvent e where e.status = :status and e.processedAt < :before")
+  int deleteProcessedBefore(OutboxStatus status, OffsetDateTime before);
+}
@@ -1,12 +1,19 @@
 package com.cre.leaseos.repo;
 
+import com.cre.leaseos.common.ResourceVersion;
 import com.cre.leaseos.domain.Owner;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface OwnerRepo extends JpaRepository<Owner, UUID> {
   List<Owner> findByBuildingIdOrderByCreatedAtDesc(UUID buildingId);
 
   List<Owner> findByBuildingIdOrderByNameAsc(UUID buildingId);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(o), max(o.updatedAt)) "
+          + "from Owner o where o.buildingId = :buildingId")
+  ResourceVersion versionOfBuilding(UUID buildingId);
 }
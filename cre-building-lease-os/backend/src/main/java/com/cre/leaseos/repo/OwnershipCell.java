@@ -0,0 +1,15 @@
+package com.cre.leaseos.repo;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** One floor with one owner's assignment; {@code ownerId} is null for a floor with no share. */
+public record OwnershipCell(
+    UUID floorId,
+    String label,
+    Integer sortIndex,
+    UUID ownerId,
+    BigDecimal sharePercent,
+    OffsetDateTime startDate,
+    OffsetDateTime endDate) {}
@@ -0,0 +1,10 @@
+package com.cre.leaseos.repo;
+
+import java.math.BigDecimal;
+
+public record PortfolioTotals(
+    Long buildings,
+    Long units,
+    BigDecimal grossArea,
+    BigDecimal netArea,
+    BigDecimal balconyArea) {}
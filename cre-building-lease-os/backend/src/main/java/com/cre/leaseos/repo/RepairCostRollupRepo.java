@@ -0,0 +1,74 @@
+package com.cre.leaseos.repo;
+
+import com.cre.leaseos.domain.Enums.RepairCostDimension;
+import com.cre.leaseos.domain.RepairCostRollup;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface RepairCostRollupRepo extends JpaRepository<RepairCostRollup, UUID> {
+
+  @Modifying
+  @Query(
+      "update RepairCostRollup r set r.repairCount = r.repairCount + :repairCount, "
+          + "r.quoteAmount = r.quoteAmount + :quoteAmount, "
+          + "r.approvedAmount = r.approvedAmount + :approvedAmount, "
+          + "r.finalAmount = r.finalAmount + :finalAmount, "
+          + "r.approvedQuoteAmount = r.approvedQuoteAmount + :approvedQuoteAmount, "
+          + "r.settledApprovedAmount = r.settledApprovedAmount + :settledApprovedAmount, "
+          + "r.settledFinalAmount = r.settledFinalAmount + :settledFinalAmount, "
+          + "r.updatedAt = :now where r.buildingId = :buildingId and r.dimension = :dimension "
+          + "and r.dimensionId = :dimensionId and r.monthStart = :monthStart")
+  int addCosts(
+      UUID buildingId,
+      RepairCostDimension dimension,
+      UUID dimensionId,
+      LocalDate monthStart,
+      long repairCount,
+      BigDecimal quoteAmount,
+      BigDecimal approvedAmount,
+      BigDecimal finalAmount,
+      BigDecimal approvedQuoteAmount,
+      BigDecimal settledApprovedAmount,
+      BigDecimal settledFinalAmount,
+      OffsetDateTime now);
+
+  @Modifying
+  @Query("delete from RepairCostRollup r where r.dimension = :dimension and r.dimensionId in :ids")
+  int deleteByDimension(RepairCostDimension dimension, Collection<UUID> ids);
+
+  @Query(
+      "select new com.cre.leaseos.repo.RepairCostTotals(r.dimensionId, null, sum(r.repairCount), "
+          + "sum(r.quoteAmount), sum(r.approvedAmount), sum(r.finalAmount), "
+          + "sum(r.approvedQuoteAmount), sum(r.settledApprovedAmount), "
+          + "sum(r.settledFinalAmount)) from RepairCostRollup r "
+          + "where r.buildingId = :buildingId and r.dimension = :dimension "
+          + "and r.monthStart between :from and :to group by r.dimensionId")
+  List<RepairCostTotals> sumByKey(
+      UUID buildingId, RepairCostDimension dimension, LocalDate from, LocalDate to);
+
+  @Query(
+      "select new com.cre.leaseos.repo.RepairCostTotals(null, r.monthStart, sum(r.repairCount), "
+          + "sum(r.quoteAmount), sum(r.approvedAmount), sum(r.finalAmount), "
+          + "sum(r.approvedQuoteAmount), sum(r.settledApprovedAmount), "
+          + "sum(r.settledFinalAmount)) from RepairCostRollup r "
+          + "where r.buildingId = :buildingId "
+          + "and r.dimension = com.cre.leaseos.domain.Enums.RepairCostDimension.BUILDING "
+          + "and r.monthStart between :from and :to group by r.monthStart order by r.monthStart")
+  List<RepairCostTotals> sumByMonth(UUID buildingId, LocalDate from, LocalDate to);
+
+  @Query(
+      "select new com.cre.leaseos.repo.RepairCostTotals(r.buildingId, null, sum(r.repairCount), "
+          + "sum(r.quoteAmount), sum(r.approvedAmount), sum(r.finalAmount), "
+          + "sum(r.approvedQuoteAmount), sum(r.settledApprovedAmount), "
+          + "sum(r.settledFinalAmount)) from RepairCostRollup r "
+          + "where r.dimension = com.cre.leaseos.domain.Enums.RepairCostDimension.BUILDING "
+          + "and r.monthStart between :from and :to group by r.buildingId")
+  List<RepairCostTotals> sumByBuilding(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,20 @@
+package com.cre.leaseos.repo;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Summed repair cost rollup rows of one group: {@code key} is the dimension id when grouping by key
+ * and null when grouping by month, and {@code month} the reverse.
+ */
+public record RepairCostTotals(
+    UUID key,
+    LocalDate month,
+    Long repairCount,
+    BigDecimal quoteAmount,
+    BigDecimal approvedAmount,
+    BigDecimal finalAmount,
+    BigDecimal approvedQuoteAmount,
+    BigDecimal settledApprovedAmount,
+    BigDecimal settledFinalAmount) {}
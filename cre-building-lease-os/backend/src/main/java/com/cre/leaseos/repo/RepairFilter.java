@@ -0,0 +1,30 @@
+package com.cre.leaseos.repo;
+
+import com.cre.leaseos.domain.Enums.RepairScopeType;
+import com.cre.leaseos.domain.Enums.RepairStatus;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Repair list filters; every one but the building is optional. Date bounds are inclusive. The
+ * amount is the latest one on the record: final, else approved, else quote. {@code q} matches the
+ * item or vendor name, case-insensitively.
+ */
+public record RepairFilter(
+    UUID buildingId,
+    RepairStatus status,
+    RepairScopeType scopeType,
+    UUID floorId,
+    UUID commonAreaId,
+    UUID vendorId,
+    LocalDate reportedFrom,
+    LocalDate reportedTo,
+    BigDecimal minAmount,
+    BigDecimal maxAmount,
+    String q) {
+
+  public static RepairFilter of(UUID buildingId) {
+    return new RepairFilter(buildingId, null, null, null, null, null, null, null, null, null, null);
+  }
+}
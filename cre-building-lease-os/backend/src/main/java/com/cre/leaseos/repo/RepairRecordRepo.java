@@ -1,33 +1,37 @@
 package com.cre.leaseos.repo;
 
 import com.cre.leaseos.domain.RepairRecord;
-import com.cre.leaseos.domain.Enums.RepairScopeType;
 import com.cre.leaseos.domain.Enums.RepairStatus;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
-public interface RepairRecordRepo extends JpaRepository<RepairRecord, UUID> {
+public interface RepairRecordRepo
+    extends JpaRepository<RepairRecord, UUID>, JpaSpecificationExecutor<RepairRecord> {
   List<RepairRecord> findByBuildingIdOrderByCreatedAtDesc(UUID buildingId);
 
   List<RepairRecord> findByBuildingIdAndFloorIdOrderByCreatedAtDesc(UUID buildingId, UUID floorId);
 
+  boolean existsByCommonAreaId(UUID commonAreaId);
+
   @Query(
-      "select r from RepairRecord r where r.buildingId=:buildingId"
-          + " and (:status is null or r.status=:status)"
-          + " and (:scopeType is null or r.scopeType=:scopeType)"
-          + " and (:floorId is null or r.floorId=:floorId)"
-          + " and (:commonAreaId is null or r.commonAreaId=:commonAreaId)")
-  Page<RepairRecord> filter(
-      UUID buildingId,
-      RepairStatus status,
-      RepairScopeType scopeType,
-      UUID floorId,
-      UUID commonAreaId,
-      Pageable pageable);
+      "select new com.cre.leaseos.repo.StatusCount(r.status, count(r)) from RepairRecord r "
+          + "where r.buildingId = :buildingId group by r.status")
+  List<StatusCount> countByStatus(UUID buildingId);
 
-  boolean existsByCommonAreaId(UUID commonAreaId);
+  @Query(
+      "select new com.cre.leaseos.repo.BuildingMetric(r.buildingId, count(r), "
+          + "sum(r.approvedAmount)) from RepairRecord r where r.status not in :closed "
+          + "group by r.buildingId")
+  List<BuildingMetric> countOpenByBuilding(Collection<RepairStatus> closed);
+
+  @Query(
+      "select new com.cre.leaseos.repo.BuildingMetric(r.buildingId, count(r), "
+          + "sum(r.approvedAmount)) from RepairRecord r where r.status not in :closed "
+          + "and r.buildingId in :buildingIds group by r.buildingId")
+  List<BuildingMetric> countOpenByBuilding(
+      Collection<RepairStatus> closed, Collection<UUID> buildingIds);
 }
@@ -0,0 +1,59 @@
+package com.cre.leaseos.repo;
+
+import com.cre.leaseos.domain.RepairRecord;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Repair list predicates. Only the filters that are present become predicates, so each filter
+ * combination gets its own statement and plan, and equality on building, status, floor or common
+ * area can use the matching repair_records index.
+ */
+public final class RepairSpecs {
+  private RepairSpecs() {}
+
+  public static Specification<RepairRecord> filter(RepairFilter f) {
+    return (root, query, cb) -> {
+      List<Predicate> predicates = new ArrayList<>();
+      predicates.add(cb.equal(root.get("buildingId"), f.buildingId()));
+      if (f.status() != null) predicates.add(cb.equal(root.get("status"), f.status()));
+      if (f.scopeType() != null) predicates.add(cb.equal(root.get("scopeType"), f.scopeType()));
+      if (f.floorId() != null) predicates.add(cb.equal(root.get("floorId"), f.floorId()));
+      if (f.commonAreaId() != null) {
+        predicates.add(cb.equal(root.get("commonAreaId"), f.commonAreaId()));
+      }
+      if (f.vendorId() != null) predicates.add(cb.equal(root.get("vendorId"), f.vendorId()));
+      if (f.reportedFrom() != null) {
+        predicates.add(cb.greaterThanOrEqualTo(root.get("reportedAt"), f.reportedFrom()));
+      }
+      if (f.reportedTo() != null) {
+        predicates.add(cb.lessThanOrEqualTo(root.get("reportedAt"), f.reportedTo()));
+      }
+      if (f.minAmount() != null || f.maxAmount() != null) {
+        Expression<BigDecimal> amount =
+            cb.coalesce(
+                root.<BigDecimal>get("finalAmount"),
+                cb.coalesce(root.<BigDecimal>get("approvedAmount"), root.get("quoteAmount")));
+        if (f.minAmount() != null) predicates.add(cb.ge(amount, f.minAmount()));
+        if (f.maxAmount() != null) predicates.add(cb.le(amount, f.maxAmount()));
+      }
+      if (f.q() != null && !f.q().isBlank()) {
+        String pattern = "%" + escapeLike(f.q().trim().toLowerCase(Locale.ROOT)) + "%";
+        predicates.add(
+            cb.or(
+                cb.like(cb.lower(root.get("item")), pattern, '\\'),
+                cb.like(cb.lower(root.get("vendorName")), pattern, '\\')));
+      }
+      return cb.and(predicates.toArray(Predicate[]::new));
+    };
+  }
+
+  private static String escapeLike(String text) {
+    return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,4 @@
+package com.cre.leaseos.repo;
+
+/** Row of a {@code group by status} count. */
+public record StatusCount(Enum<?> status, Long count) {}
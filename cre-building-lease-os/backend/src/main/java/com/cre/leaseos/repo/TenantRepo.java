@@ -1,14 +1,31 @@
 package com.cre.leaseos.repo;
 
+import com.cre.leaseos.common.ResourceVersion;
 import com.cre.leaseos.domain.Tenant;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
-public interface TenantRepo extends JpaRepository<Tenant, UUID> {
+public interface TenantRepo extends JpaRepository<Tenant, UUID>, JpaSpecificationExecutor<Tenant> {
   List<Tenant> findByBuildingIdOrderByCreatedAtDesc(UUID buildingId);
 
   Page<Tenant> findByBuildingId(UUID buildingId, Pageable pageable);
+
+  long countByBuildingId(UUID buildingId);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select t from Tenant t where t.id in :ids order by t.id")
+  List<Tenant> lockByIds(Collection<UUID> ids);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(t), max(t.updatedAt)) "
+          + "from Tenant t where t.buildingId = :buildingId")
+  ResourceVersion versionOfBuilding(UUID buildingId);
 }
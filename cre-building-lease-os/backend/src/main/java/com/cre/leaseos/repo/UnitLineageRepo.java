@@ -0,0 +1,15 @@
+package com.cre.leaseos.repo;
+
+import com.cre.leaseos.domain.UnitLineage;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UnitLineageRepo extends JpaRepository<UnitLineage, UUID> {
+  List<UnitLineage> findByDescendantIdIn(Collection<UUID> descendantIds);
+
+  List<UnitLineage> findByDescendantIdOrderByDepthAsc(UUID descendantId);
+
+  List<UnitLineage> findByAncestorIdOrderByDepthAsc(UUID ancestorId);
+}
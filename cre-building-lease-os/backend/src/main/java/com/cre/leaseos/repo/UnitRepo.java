@@ -1,9 +1,17 @@
 package com.cre.leaseos.repo;
 
+import com.cre.leaseos.common.ResourceVersion;
+import com.cre.leaseos.domain.Enums.LeaseStatus;
 import com.cre.leaseos.domain.Unit;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
 public interface UnitRepo extends JpaRepository<Unit, UUID> {
   List<Unit> findByFloorIdAndIsCurrentTrueOrderByCodeAsc(UUID floorId);
@@ -11,4 +19,49 @@ public interface UnitRepo extends JpaRepository<Unit, UUID> {
   List<Unit> findByBuildingIdAndIsCurrentTrueOrderByCreatedAtDesc(UUID buildingId);
 
   List<Unit> findByIdInAndIsCurrentTrue(List<UUID> ids);
+
+  List<Unit> findByFloorIdAndCreatedAtLessThanOrderByCreatedAtAsc(
+      UUID floorId, OffsetDateTime createdBefore);
+
+  List<Unit> findByBuildingIdAndCreatedAtLessThanOrderByCreatedAtAsc(
+      UUID buildingId, OffsetDateTime createdBefore);
+
+  /** Covers replaced rows too, so retiring a unit moves the version even if the count does not. */
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(u), max(u.updatedAt)) "
+          + "from Unit u where u.floorId = :floorId")
+  ResourceVersion versionOfFloor(UUID floorId);
+
+  @Query(
+      "select new com.cre.leaseos.repo.AreaTotals(u.floorId, count(u), sum(u.grossArea), "
+          + "sum(u.netArea), sum(u.balconyArea)) from Unit u "
+          + "where u.buildingId = :buildingId and u.isCurrent = true group by u.floorId")
+  List<AreaTotals> sumCurrentByFloor(UUID buildingId);
+
+  /** Current units covered by a lease of the given status on {@code asOf}, per building. */
+  @Query(
+      "select new com.cre.leaseos.repo.BuildingMetric(u.buildingId, count(u), sum(u.grossArea)) "
+          + "from Unit u where u.isCurrent = true and exists (select 1 from LeaseUnit lu "
+          + "join Lease l on l.id = lu.leaseId where lu.unitId = u.id and l.status = :status "
+          + "and l.startDate <= :asOf and l.endDate >= :asOf) "
+          + "group by u.buildingId")
+  List<BuildingMetric> sumLeasedByBuilding(LeaseStatus status, LocalDate asOf);
+
+  @Query(
+      "select new com.cre.leaseos.repo.BuildingMetric(u.buildingId, count(u), sum(u.grossArea)) "
+          + "from Unit u where u.isCurrent = true and exists (select 1 from LeaseUnit lu "
+          + "join Lease l on l.id = lu.leaseId where lu.unitId = u.id and l.status = :status "
+          + "and l.startDate <= :asOf and l.endDate >= :asOf) "
+          + "and u.buildingId in :buildingIds group by u.buildingId")
+  List<BuildingMetric> sumLeasedByBuilding(
+      LeaseStatus status, LocalDate asOf, Collection<UUID> buildingIds);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select u from Unit u where u.id in :ids order by u.id")
+  List<Unit> lockByIds(Collection<UUID> ids);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(u), max(u.updatedAt)) "
+          + "from Unit u where u.buildingId = :buildingId")
+  ResourceVersion versionOfBuilding(UUID buildingId);
 }
@@ -0,0 +1,13 @@
+package com.cre.leaseos.repo;
+
+import com.cre.leaseos.common.ResourceVersion;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Row count and newest {@code updatedAt} of the lease_units rows of one unit. */
+public record UnitSpanVersion(UUID unitId, Long count, OffsetDateTime lastModified) {
+
+  public ResourceVersion version() {
+    return new ResourceVersion(count, lastModified);
+  }
+}
@@ -1,12 +1,21 @@
 package com.cre.leaseos.repo;
 
+import com.cre.leaseos.common.ResourceVersion;
 import com.cre.leaseos.domain.Vendor;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface VendorRepo extends JpaRepository<Vendor, UUID> {
   List<Vendor> findByBuildingIdOrderByCreatedAtDesc(UUID buildingId);
 
   List<Vendor> findByBuildingIdOrderByNameAsc(UUID buildingId);
+
+  long countByBuildingId(UUID buildingId);
+
+  @Query(
+      "select new com.cre.leaseos.common.ResourceVersion(count(v), max(v.updatedAt)) "
+          + "from Vendor v where v.buildingId = :buildingId")
+  ResourceVersion versionOfBuilding(UUID buildingId);
 }
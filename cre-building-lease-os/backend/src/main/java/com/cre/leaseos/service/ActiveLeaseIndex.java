@@ -0,0 +1,149 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ResourceVersion;
+import com.cre.leaseos.domain.Lease;
+import com.cre.leaseos.domain.LeaseUnit;
+import com.cre.leaseos.repo.LeaseUnitRepo;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-unit timelines of ACTIVE lease date ranges, loaded lazily from lease_units. Each timeline is
+ * stamped with its unit's lease_units {@link ResourceVersion}; one grouped query per check tells
+ * which timelines still match the table, including writes from other instances, and only the stale
+ * or missing ones are reloaded. At most {@code maxUnits} timelines are kept, least recently used
+ * first out. Each unit has its own monitor, so checks on different units never contend. The
+ * lease_units exclusion constraint remains the authority across instances.
+ */
+@Component
+public class ActiveLeaseIndex {
+  private final LeaseUnitRepo leaseUnitRepo;
+  private final Map<UUID, Stamped> timelines;
+
+  public ActiveLeaseIndex(
+      LeaseUnitRepo leaseUnitRepo,
+      @Value("${leaseos.leases.active-index-max-units:10000}") int maxUnits) {
+    this.leaseUnitRepo = leaseUnitRepo;
+    this.timelines =
+        Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<UUID, Stamped> eldest) {
+                return size() > maxUnits;
+              }
+            });
+  }
+
+  /** Returns the id of an ACTIVE lease overlapping [start, end] on any of the units, or null. */
+  public UUID findOverlap(
+      Collection<UUID> unitIds, LocalDate start, LocalDate end, UUID excludeLeaseId) {
+    Map<UUID, UnitTimeline> resolved = resolve(unitIds);
+    for (UnitTimeline timeline : resolved.values()) {
+      UUID hit = timeline.findOverlap(start, end, excludeLeaseId);
+      if (hit != null) return hit;
+    }
+    return null;
+  }
+
+  /**
+   * Drops the timelines of every unit a committed lease write touched. Their stamps no longer
+   * match and would be reloaded anyway; this only frees them early.
+   */
+  public void onLeaseWritten(Lease lease, Collection<UUID> previousUnitIds, Collection<UUID> unitIds) {
+    previousUnitIds.forEach(timelines::remove);
+    unitIds.forEach(timelines::remove);
+  }
+
+  public void clear() {
+    timelines.clear();
+  }
+
+  /** Timelines for the given units, reloading every missing or stale one in a single query. */
+  Map<UUID, UnitTimeline> resolve(Collection<UUID> unitIds) {
+    Map<UUID, ResourceVersion> current = new HashMap<>();
+    leaseUnitRepo.versionsOfUnits(unitIds).forEach(v -> current.put(v.unitId(), v.version()));
+
+    Map<UUID, UnitTimeline> resolved = new HashMap<>();
+    Map<UUID, UnitTimeline> loaded = new HashMap<>();
+    for (UUID unitId : unitIds) {
+      Stamped cached = timelines.get(unitId);
+      if (cached != null && cached.version().sameAs(versionOf(current, unitId))) {
+        resolved.put(unitId, cached.timeline());
+      } else {
+        loaded.put(unitId, new UnitTimeline());
+      }
+    }
+    if (loaded.isEmpty()) return resolved;
+
+    List<LeaseUnit> spans =
+        leaseUnitRepo.findByUnitIdInAndActiveStartDateIsNotNull(List.copyOf(loaded.keySet()));
+    for (LeaseUnit lu : spans) {
+      loaded.get(lu.getUnitId()).put(lu.getLeaseId(), lu.getActiveStartDate(), lu.getActiveEndDate());
+    }
+
+    // Stamped with the version read before the spans: a write that committed in between leaves
+    // the stamp behind the table, so the next check reloads the timeline.
+    loaded.forEach(
+        (unitId, timeline) -> {
+          timelines.put(unitId, new Stamped(versionOf(current, unitId), timeline));
+          resolved.put(unitId, timeline);
+        });
+    return resolved;
+  }
+
+  private static ResourceVersion versionOf(Map<UUID, ResourceVersion> versions, UUID unitId) {
+    return versions.getOrDefault(unitId, ResourceVersion.EMPTY);
+  }
+
+  private record Stamped(ResourceVersion version, UnitTimeline timeline) {}
+
+  static final class UnitTimeline {
+    private final NavigableMap<LocalDate, Map<UUID, LocalDate>> endsByStart = new TreeMap<>();
+    private final Map<UUID, LocalDate> startByLease = new HashMap<>();
+
+    synchronized void put(UUID leaseId, LocalDate start, LocalDate end) {
+      remove(leaseId);
+      endsByStart.computeIfAbsent(start, k -> new HashMap<>()).put(leaseId, end);
+      startByLease.put(leaseId, start);
+    }
+
+    synchronized void remove(UUID leaseId) {
+      LocalDate start = startByLease.remove(leaseId);
+      if (start == null) return;
+      Map<UUID, LocalDate> bucket = endsByStart.get(start);
+      bucket.remove(leaseId);
+      if (bucket.isEmpty()) endsByStart.remove(start);
+    }
+
+    /**
+     * ACTIVE ranges on one unit never overlap, so their end dates ascend with their start dates.
+     * Walking back from the last range starting on or before {@code end} can therefore stop at the
+     * first range that ends before {@code start}: one O(log n) seek plus at most one extra step
+     * when the excluded lease is in the way.
+     */
+    synchronized UUID findOverlap(LocalDate start, LocalDate end, UUID excludeLeaseId) {
+      for (Map<UUID, LocalDate> bucket : endsByStart.headMap(end, true).descendingMap().values()) {
+        boolean skipped = false;
+        for (Map.Entry<UUID, LocalDate> span : bucket.entrySet()) {
+          if (span.getKey().equals(excludeLeaseId)) {
+            skipped = true;
+            continue;
+          }
+          if (!span.getValue().isBefore(start)) return span.getKey();
+        }
+        if (!skipped) return null;
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.domain.Building;
+import com.cre.leaseos.domain.Floor;
+import com.cre.leaseos.repo.AreaTotals;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.FloorRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recomputes the floor and building area rollups from the current units and repairs any drift,
+ * one building per transaction. It reads without row locks, so unit inserts and their key-share
+ * locks on the parent rows never wait for it. A correction is written only if the floor or
+ * building row still carries the {@code updatedAt} that was read: every unit write moves it
+ * through its delta update, so a row touched meanwhile is left alone until the next run.
+ */
+@Component
+public class AreaRollupVerifier {
+  private final BuildingRepo buildingRepo;
+  private final FloorRepo floorRepo;
+  private final UnitRepo unitRepo;
+  private final TransactionTemplate tx;
+  private final Counter repaired;
+
+  public AreaRollupVerifier(
+      BuildingRepo buildingRepo,
+      FloorRepo floorRepo,
+      UnitRepo unitRepo,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.buildingRepo = buildingRepo;
+    this.floorRepo = floorRepo;
+    this.unitRepo = unitRepo;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.repaired =
+        Counter.builder("leaseos.rollups.repaired")
+            .description("Floor and building area rollups corrected by the verifier")
+            .register(meterRegistry);
+  }
+
+  @Scheduled(
+      fixedDelayString = "${leaseos.rollups.verify-interval:PT1H}",
+      initialDelayString = "${leaseos.rollups.verify-interval:PT1H}")
+  public void poll() {
+    verifyAll();
+  }
+
+  /** Returns how many floor and building rows were corrected. */
+  public int verifyAll() {
+    int fixed = 0;
+    for (UUID buildingId : buildingRepo.findAllIds()) {
+      Integer count = tx.execute(status -> verify(buildingId));
+      fixed += count == null ? 0 : count;
+    }
+    return fixed;
+  }
+
+  private int verify(UUID buildingId) {
+    Building building = buildingRepo.findById(buildingId).orElse(null);
+    if (building == null) return 0;
+    List<Floor> floors = floorRepo.findByBuildingIdOrderBySortIndexAsc(buildingId);
+
+    Map<UUID, AreaTotals> byFloor = new HashMap<>();
+    unitRepo.sumCurrentByFloor(buildingId).forEach(t -> byFloor.put(t.id(), t));
+
+    OffsetDateTime now = OffsetDateTime.now();
+    int fixed = 0;
+    long units = 0;
+    BigDecimal gross = BigDecimal.ZERO;
+    BigDecimal net = BigDecimal.ZERO;
+    BigDecimal balcony = BigDecimal.ZERO;
+    for (AreaTotals t : byFloor.values()) {
+      units += t.unitCount();
+      gross = gross.add(orZero(t.grossArea()));
+      net = net.add(orZero(t.netArea()));
+      balcony = balcony.add(orZero(t.balconyArea()));
+    }
+
+    for (Floor floor : floors) {
+      AreaTotals t = byFloor.get(floor.getId());
+      int floorUnits = t == null ? 0 : t.unitCount().intValue();
+      BigDecimal floorGross = t == null ? BigDecimal.ZERO : orZero(t.grossArea());
+      BigDecimal floorNet = t == null ? BigDecimal.ZERO : orZero(t.netArea());
+      BigDecimal floorBalcony = t == null ? BigDecimal.ZERO : orZero(t.balconyArea());
+      if (floor.getUnitCount() != floorUnits
+          || differs(floor.getTotalGrossArea(), floorGross)
+          || differs(floor.getTotalNetArea(), floorNet)
+          || differs(floor.getTotalBalconyArea(), floorBalcony)) {
+        fixed +=
+            floorRepo.setAreasIfUnchanged(
+                floor.getId(),
+                floor.getUpdatedAt(),
+                floorUnits,
+                floorGross,
+                floorNet,
+                floorBalcony,
+                now);
+      }
+    }
+
+    if (building.getUnitCount() != units
+        || differs(building.getTotalGrossArea(), gross)
+        || differs(building.getTotalNetArea(), net)
+        || differs(building.getTotalBalconyArea(), balcony)) {
+      fixed +=
+          buildingRepo.setAreasIfUnchanged(
+              buildingId, building.getUpdatedAt(), (int) units, gross, net, balcony, now);
+    }
+    repaired.increment(fixed);
+    return fixed;
+  }
+
+  private static boolean differs(BigDecimal stored, BigDecimal actual) {
+    return stored == null || stored.compareTo(actual) != 0;
+  }
+
+  private static BigDecimal orZero(BigDecimal value) {
+    return value == null ? BigDecimal.ZERO : value;
+  }
+}
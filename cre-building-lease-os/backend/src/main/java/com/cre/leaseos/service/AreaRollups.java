@@ -0,0 +1,96 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.domain.Unit;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.FloorRepo;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the unit count and gross/net/balcony totals on floors and buildings in step with the
+ * current units. Writers collect a {@link Delta} while they retire and create units, then apply it
+ * as relative {@code set x = x + :d} updates in the same transaction, so concurrent writers on one
+ * floor never lose each other's changes. Floors are updated in id order, then the building.
+ */
+@Service
+@RequiredArgsConstructor
+public class AreaRollups {
+  private final FloorRepo floorRepo;
+  private final BuildingRepo buildingRepo;
+
+  public Delta delta(UUID buildingId) {
+    return new Delta(buildingId);
+  }
+
+  @Transactional
+  public void apply(Delta delta) {
+    Totals building = new Totals();
+    OffsetDateTime now = OffsetDateTime.now();
+    for (Map.Entry<UUID, Totals> e : delta.floors.entrySet()) {
+      Totals t = e.getValue();
+      if (t.isZero()) continue;
+      floorRepo.addAreas(e.getKey(), t.units, t.gross, t.net, t.balcony, now);
+      building.add(t);
+    }
+    if (!building.isZero()) {
+      buildingRepo.addAreas(
+          delta.buildingId, building.units, building.gross, building.net, building.balcony, now);
+    }
+  }
+
+  /** Per-floor changes of one write; record a unit's removal before mutating it. */
+  public static final class Delta {
+    private final UUID buildingId;
+    private final Map<UUID, Totals> floors = new TreeMap<>();
+
+    private Delta(UUID buildingId) {
+      this.buildingId = buildingId;
+    }
+
+    public Delta add(Unit unit) {
+      floors.computeIfAbsent(unit.getFloorId(), k -> new Totals()).add(unit, 1);
+      return this;
+    }
+
+    public Delta remove(Unit unit) {
+      floors.computeIfAbsent(unit.getFloorId(), k -> new Totals()).add(unit, -1);
+      return this;
+    }
+  }
+
+  private static final class Totals {
+    private int units;
+    private BigDecimal gross = BigDecimal.ZERO;
+    private BigDecimal net = BigDecimal.ZERO;
+    private BigDecimal balcony = BigDecimal.ZERO;
+
+    void add(Unit unit, int sign) {
+      units += sign;
+      gross = gross.add(signed(unit.getGrossArea(), sign));
+      net = net.add(signed(unit.getNetArea(), sign));
+      balcony = balcony.add(signed(unit.getBalconyArea(), sign));
+    }
+
+    void add(Totals other) {
+      units += other.units;
+      gross = gross.add(other.gross);
+      net = net.add(other.net);
+      balcony = balcony.add(other.balcony);
+    }
+
+    boolean isZero() {
+      return units == 0 && gross.signum() == 0 && net.signum() == 0 && balcony.signum() == 0;
+    }
+
+    private static BigDecimal signed(BigDecimal value, int sign) {
+      if (value == null) return BigDecimal.ZERO;
+      return sign < 0 ? value.negate() : value;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ResourceVersion;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Per-building cache entries stamped with the {@link ResourceVersion} of the rows they were built
+ * from. Every read compares the stamp with the current version, so writes from other instances or
+ * from outside the after-commit hooks trigger a rebuild. Committed local writes patch the entry in
+ * place and move its stamp to the version read right after; a foreign write that committed since
+ * the last read is absorbed by that restamp, which is why entries also expire after {@code
+ * maxAge}. At most {@code maxBuildings} entries are kept, least recently used first out. Patches
+ * and readers synchronize on the cached value.
+ */
+final class BuildingCache<T> {
+  private final Function<UUID, ResourceVersion> versionOf;
+  private final long maxAgeNanos;
+  private final Map<UUID, Entry<T>> entries;
+
+  BuildingCache(Function<UUID, ResourceVersion> versionOf, int maxBuildings, Duration maxAge) {
+    this.versionOf = versionOf;
+    this.maxAgeNanos = maxAge.toNanos();
+    this.entries =
+        Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<UUID, Entry<T>> eldest) {
+                return size() > maxBuildings;
+              }
+            });
+  }
+
+  /**
+   * The cached value when its stamp matches the building's rows, otherwise a fresh one from {@code
+   * loader}. The stamp is read before the rows, so a write committing during the load leaves it
+   * behind the tables and the next read reloads.
+   */
+  T get(UUID buildingId, Function<UUID, T> loader) {
+    ResourceVersion current = versionOf.apply(buildingId);
+    Entry<T> cached = entries.get(buildingId);
+    if (cached != null
+        && cached.version().sameAs(current)
+        && System.nanoTime() - cached.loadedAt() < maxAgeNanos) {
+      return cached.value();
+    }
+    T value = loader.apply(buildingId);
+    entries.put(buildingId, new Entry<>(current, System.nanoTime(), value));
+    return value;
+  }
+
+  /** Applies a committed local write to the cached value, if any, and restamps it. */
+  void patch(UUID buildingId, Consumer<T> delta) {
+    if (buildingId == null) return;
+    Entry<T> cached = entries.get(buildingId);
+    if (cached == null) return;
+    synchronized (cached.value()) {
+      delta.accept(cached.value());
+    }
+    entries.replace(
+        buildingId,
+        cached,
+        new Entry<>(versionOf.apply(buildingId), cached.loadedAt(), cached.value()));
+  }
+
+  void remove(UUID buildingId) {
+    if (buildingId != null) entries.remove(buildingId);
+  }
+
+  void clear() {
+    entries.clear();
+  }
+
+  private record Entry<T>(ResourceVersion version, long loadedAt, T value) {}
+}
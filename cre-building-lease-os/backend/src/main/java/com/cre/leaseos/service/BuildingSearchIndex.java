@@ -0,0 +1,319 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.common.ResourceVersion;
+import com.cre.leaseos.domain.CommonArea;
+import com.cre.leaseos.domain.Owner;
+import com.cre.leaseos.domain.Tenant;
+import com.cre.leaseos.domain.Unit;
+import com.cre.leaseos.domain.Vendor;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.CommonAreaRepo;
+import com.cre.leaseos.repo.OwnerRepo;
+import com.cre.leaseos.repo.TenantRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import com.cre.leaseos.repo.VendorRepo;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory typeahead index per building over tenant, owner and vendor names and tax ids, common
+ * area names and codes, and current unit codes. Text is NFKC-normalized (full-width to
+ * half-width), lower-cased and stripped of whitespace, then posted under every character unigram
+ * and bigram. Chinese names have no word breaks, so character n-grams stand in for tokens. A query
+ * intersects the postings of its bigrams, smallest first, and confirms each candidate with a
+ * substring check. A building is loaded on first search and stamped with the combined
+ * {@link ResourceVersion} of its indexed rows; each search compares that stamp with one aggregate
+ * per table, so writes from any instance trigger a rebuild. Committed party, common area and unit
+ * writes on this instance are applied as single-document deltas, so an actively edited building
+ * keeps its index. See {@link BuildingCache} for the bound and expiry.
+ */
+@Component
+public class BuildingSearchIndex {
+  public static final int MAX_LIMIT = 50;
+
+  private final BuildingRepo buildingRepo;
+  private final TenantRepo tenantRepo;
+  private final OwnerRepo ownerRepo;
+  private final VendorRepo vendorRepo;
+  private final CommonAreaRepo commonAreaRepo;
+  private final UnitRepo unitRepo;
+  private final BuildingCache<Index> indexes;
+
+  public BuildingSearchIndex(
+      BuildingRepo buildingRepo,
+      TenantRepo tenantRepo,
+      OwnerRepo ownerRepo,
+      VendorRepo vendorRepo,
+      CommonAreaRepo commonAreaRepo,
+      UnitRepo unitRepo,
+      @Value("${leaseos.search.max-buildings:200}") int maxBuildings,
+      @Value("${leaseos.search.max-age:PT10M}") Duration maxAge) {
+    this.buildingRepo = buildingRepo;
+    this.tenantRepo = tenantRepo;
+    this.ownerRepo = ownerRepo;
+    this.vendorRepo = vendorRepo;
+    this.commonAreaRepo = commonAreaRepo;
+    this.unitRepo = unitRepo;
+    this.indexes = new BuildingCache<>(this::versionOf, maxBuildings, maxAge);
+  }
+
+  public enum Kind {
+    TENANT,
+    OWNER,
+    VENDOR,
+    COMMON_AREA,
+    UNIT
+  }
+
+  public Map<String, Object> search(UUID buildingId, String q, Integer limit) {
+    String query = normalize(q);
+    if (query.isEmpty()) {
+      throw new ApiException("INVALID_QUERY", "請輸入搜尋關鍵字", HttpStatus.BAD_REQUEST);
+    }
+    int max = Math.max(1, Math.min(limit == null ? 20 : limit, MAX_LIMIT));
+
+    Index index = indexes.get(buildingId, this::load);
+    List<Hit> hits = new ArrayList<>();
+    synchronized (index) {
+      for (Key key : index.candidates(query)) {
+        Doc doc = index.docs.get(key);
+        Hit best = null;
+        for (Field field : doc.fields()) {
+          int at = field.normalized().indexOf(query);
+          if (at < 0) continue;
+          int score = field.normalized().length() == query.length() ? 3 : at == 0 ? 2 : 1;
+          if (best == null || score > best.score()) best = new Hit(doc, field.name(), score);
+        }
+        if (best != null) hits.add(best);
+      }
+    }
+    hits.sort(
+        Comparator.comparingInt(Hit::score)
+            .reversed()
+            .thenComparingInt(h -> h.doc().label().length())
+            .thenComparing(h -> h.doc().label()));
+
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (Hit hit : hits.subList(0, Math.min(max, hits.size()))) {
+      Doc doc = hit.doc();
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("type", doc.kind());
+      row.put("id", doc.id());
+      row.put("label", doc.label());
+      row.put("matchedField", hit.field());
+      row.put("floorId", doc.floorId());
+      row.put("isActive", doc.isActive());
+      rows.add(row);
+    }
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", buildingId);
+    payload.put("q", q);
+    payload.put("total", hits.size());
+    payload.put("hits", rows);
+    return payload;
+  }
+
+  public void onTenantWritten(Tenant t) {
+    indexes.patch(t.getBuildingId(), index -> index.put(tenantDoc(t)));
+  }
+
+  public void onTenantDeleted(Tenant t) {
+    indexes.patch(t.getBuildingId(), index -> index.remove(new Key(Kind.TENANT, t.getId())));
+  }
+
+  public void onOwnerWritten(Owner o) {
+    indexes.patch(o.getBuildingId(), index -> index.put(ownerDoc(o)));
+  }
+
+  public void onVendorWritten(Vendor v) {
+    indexes.patch(v.getBuildingId(), index -> index.put(vendorDoc(v)));
+  }
+
+  public void onCommonAreaWritten(CommonArea c) {
+    indexes.patch(c.getBuildingId(), index -> index.put(commonAreaDoc(c)));
+  }
+
+  public void onCommonAreaDeleted(CommonArea c) {
+    indexes.patch(c.getBuildingId(), index -> index.remove(new Key(Kind.COMMON_AREA, c.getId())));
+  }
+
+  /** Retired units leave the index; only current units are posted. */
+  public void onUnitsChanged(
+      UUID buildingId, Collection<UUID> retiredUnitIds, Collection<Unit> units) {
+    indexes.patch(
+        buildingId,
+        index -> {
+          retiredUnitIds.forEach(id -> index.remove(new Key(Kind.UNIT, id)));
+          for (Unit u : units) {
+            if (Boolean.TRUE.equals(u.getIsCurrent())) {
+              index.put(unitDoc(u));
+            } else {
+              index.remove(new Key(Kind.UNIT, u.getId()));
+            }
+          }
+        });
+  }
+
+  private Index load(UUID buildingId) {
+    if (!buildingRepo.existsById(buildingId)) {
+      throw new ApiException("NOT_FOUND", "找不到大樓", HttpStatus.NOT_FOUND);
+    }
+    Index index = new Index();
+    tenantRepo
+        .findByBuildingIdOrderByCreatedAtDesc(buildingId)
+        .forEach(t -> index.put(tenantDoc(t)));
+    ownerRepo
+        .findByBuildingIdOrderByCreatedAtDesc(buildingId)
+        .forEach(o -> index.put(ownerDoc(o)));
+    vendorRepo
+        .findByBuildingIdOrderByCreatedAtDesc(buildingId)
+        .forEach(v -> index.put(vendorDoc(v)));
+    commonAreaRepo
+        .findByBuildingIdOrderByCreatedAtDesc(buildingId)
+        .forEach(c -> index.put(commonAreaDoc(c)));
+    unitRepo
+        .findByBuildingIdAndIsCurrentTrueOrderByCreatedAtDesc(buildingId)
+        .forEach(u -> index.put(unitDoc(u)));
+    return index;
+  }
+
+  /** Retired units count too: retiring one moves its {@code updatedAt}. */
+  private ResourceVersion versionOf(UUID buildingId) {
+    return tenantRepo
+        .versionOfBuilding(buildingId)
+        .and(ownerRepo.versionOfBuilding(buildingId))
+        .and(vendorRepo.versionOfBuilding(buildingId))
+        .and(commonAreaRepo.versionOfBuilding(buildingId))
+        .and(unitRepo.versionOfBuilding(buildingId));
+  }
+
+  private static Doc tenantDoc(Tenant t) {
+    return Doc.of(
+        Kind.TENANT, t.getId(), t.getName(), null, t.getIsActive(), "name", t.getName(), "taxId",
+        t.getTaxId());
+  }
+
+  private static Doc ownerDoc(Owner o) {
+    return Doc.of(
+        Kind.OWNER, o.getId(), o.getName(), null, o.getIsActive(), "name", o.getName(), "taxId",
+        o.getTaxId());
+  }
+
+  private static Doc vendorDoc(Vendor v) {
+    return Doc.of(
+        Kind.VENDOR, v.getId(), v.getName(), null, v.getIsActive(), "name", v.getName(), "taxId",
+        v.getTaxId());
+  }
+
+  private static Doc commonAreaDoc(CommonArea c) {
+    return Doc.of(
+        Kind.COMMON_AREA, c.getId(), c.getName(), c.getFloorId(), null, "name", c.getName(),
+        "code", c.getCode());
+  }
+
+  private static Doc unitDoc(Unit u) {
+    return Doc.of(Kind.UNIT, u.getId(), u.getCode(), u.getFloorId(), null, "code", u.getCode());
+  }
+
+  static String normalize(String text) {
+    if (text == null) return "";
+    String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    StringBuilder out = new StringBuilder(folded.length());
+    folded.codePoints().filter(cp -> !Character.isWhitespace(cp)).forEach(out::appendCodePoint);
+    return out.toString();
+  }
+
+  /** Unigrams and bigrams of a normalized string, by code point. */
+  static Set<String> grams(String normalized, boolean withUnigrams) {
+    int[] cps = normalized.codePoints().toArray();
+    Set<String> grams = new LinkedHashSet<>();
+    for (int i = 0; i < cps.length; i++) {
+      if (withUnigrams || cps.length == 1) grams.add(new String(cps, i, 1));
+      if (i + 1 < cps.length) grams.add(new String(cps, i, 2));
+    }
+    return grams;
+  }
+
+  static final class Index {
+    private final Map<Key, Doc> docs = new HashMap<>();
+    private final Map<String, Set<Key>> postings = new HashMap<>();
+
+    void put(Doc doc) {
+      remove(doc.key());
+      docs.put(doc.key(), doc);
+      for (Field field : doc.fields()) {
+        for (String gram : grams(field.normalized(), true)) {
+          postings.computeIfAbsent(gram, k -> new HashSet<>()).add(doc.key());
+        }
+      }
+    }
+
+    void remove(Key key) {
+      Doc doc = docs.remove(key);
+      if (doc == null) return;
+      for (Field field : doc.fields()) {
+        for (String gram : grams(field.normalized(), true)) {
+          Set<Key> keys = postings.get(gram);
+          if (keys == null) continue;
+          keys.remove(key);
+          if (keys.isEmpty()) postings.remove(gram);
+        }
+      }
+    }
+
+    /** Docs posted under every bigram of the query (its unigram for one character). */
+    Set<Key> candidates(String query) {
+      List<Set<Key>> lists = new ArrayList<>();
+      for (String gram : grams(query, false)) {
+        Set<Key> keys = postings.get(gram);
+        if (keys == null) return Set.of();
+        lists.add(keys);
+      }
+      lists.sort(Comparator.comparingInt(Set::size));
+      Set<Key> result = new HashSet<>(lists.get(0));
+      for (int i = 1; i < lists.size() && !result.isEmpty(); i++) result.retainAll(lists.get(i));
+      return result;
+    }
+  }
+
+  private record Key(Kind kind, UUID id) {}
+
+  private record Field(String name, String normalized) {}
+
+  private record Doc(
+      Kind kind, UUID id, String label, UUID floorId, Boolean isActive, List<Field> fields) {
+    Key key() {
+      return new Key(kind, id);
+    }
+
+    /** {@code nameAndValues} alternates field names and raw values; blank values are skipped. */
+    static Doc of(
+        Kind kind, UUID id, String label, UUID floorId, Boolean isActive, String... nameAndValues) {
+      List<Field> fields = new ArrayList<>();
+      for (int i = 0; i + 1 < nameAndValues.length; i += 2) {
+        String normalized = normalize(nameAndValues[i + 1]);
+        if (!normalized.isEmpty()) fields.add(new Field(nameAndValues[i], normalized));
+      }
+      return new Doc(kind, id, label == null ? "" : label, floorId, isActive, List.copyOf(fields));
+    }
+  }
+
+  private record Hit(Doc doc, String field, int score) {}
+}
@@ -1,14 +1,22 @@
 package com.cre.leaseos.service;
 
 import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.common.TransactionHooks;
 import com.cre.leaseos.domain.Building;
+import com.cre.leaseos.domain.Enums.RepairCostDimension;
 import com.cre.leaseos.domain.Floor;
 import com.cre.leaseos.dto.BuildingDtos.BuildingCreateReq;
 import com.cre.leaseos.dto.BuildingDtos.BuildingPatchReq;
 import com.cre.leaseos.repo.BuildingRepo;
 import com.cre.leaseos.repo.FloorRepo;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -20,6 +28,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class BuildingService {
   private final BuildingRepo buildingRepo;
   private final FloorRepo floorRepo;
+  private final RentRollProjection rentRollProjection;
+  private final RepairCostRollups repairCostRollups;
 
   public List<Building> listBuildings() {
     return buildingRepo.findAllByOrderByCreatedAtDesc();
@@ -40,40 +50,77 @@ public class BuildingService {
         .orElseThrow(() -> new ApiException("NOT_FOUND", "找不到大樓", HttpStatus.NOT_FOUND));
   }
 
+  public Map<UUID, BigDecimal> getManagementFees(Collection<UUID> buildingIds) {
+    Map<UUID, BigDecimal> fees = new HashMap<>();
+    if (buildingIds.isEmpty()) return fees;
+    for (Building b : buildingRepo.findAllById(buildingIds)) {
+      fees.put(b.getId(), b.getManagementFee());
+    }
+    return fees;
+  }
+
   public Building patchBuilding(UUID id, BuildingPatchReq req) {
     Building b = getBuilding(id);
     if (req.name() != null) b.setName(req.name());
     if (req.code() != null) b.setCode(req.code());
     if (req.address() != null) b.setAddress(req.address());
     if (req.managementFee() != null) b.setManagementFee(req.managementFee());
-    return buildingRepo.save(b);
+    Building saved = buildingRepo.save(b);
+    TransactionHooks.afterCommit(() -> rentRollProjection.onBuildingChanged(saved));
+    return saved;
   }
 
+  /**
+   * Brings the building's floors to B{basements}..B1, 1F..{above}F by diffing against the existing
+   * rows by label and sort index: matching floors are kept, missing ones are inserted in one
+   * batched saveAll, and surplus ones are deleted in a single statement. Removing a floor that has
+   * ever held a unit or owner, or that a common area or repair points at, is refused: the schema
+   * would cascade the delete into that history or null out the references.
+   */
   @Transactional
   public List<Floor> generateFloors(UUID buildingId, Integer basementFloors, Integer aboveGroundFloors) {
     getBuilding(buildingId);
     int basements = basementFloors == null ? 5 : basementFloors;
     int above = aboveGroundFloors == null ? 20 : aboveGroundFloors;
 
-    floorRepo.deleteByBuildingId(buildingId);
+    Map<String, Integer> wanted = new LinkedHashMap<>();
+    for (int i = basements; i >= 1; i--) wanted.put("B" + i, -i);
+    for (int i = 1; i <= above; i++) wanted.put(i + "F", i);
 
-    List<Floor> floors = new ArrayList<>();
-    for (int i = basements; i >= 1; i--) {
-      Floor f = new Floor();
-      f.setBuildingId(buildingId);
-      f.setLabel("B" + i);
-      f.setSortIndex(-i);
-      floors.add(f);
+    List<Floor> kept = new ArrayList<>();
+    List<UUID> surplus = new ArrayList<>();
+    for (Floor f : floorRepo.findByBuildingIdOrderBySortIndexAsc(buildingId)) {
+      if (f.getSortIndex().equals(wanted.remove(f.getLabel()))) kept.add(f);
+      else surplus.add(f.getId());
     }
-    for (int i = 1; i <= above; i++) {
-      Floor f = new Floor();
-      f.setBuildingId(buildingId);
-      f.setLabel(i + "F");
-      f.setSortIndex(i);
-      floors.add(f);
+
+    if (!surplus.isEmpty()) {
+      List<String> inUse = floorRepo.findLabelsInUse(surplus);
+      if (!inUse.isEmpty()) {
+        throw new ApiException(
+            "FLOORS_IN_USE",
+            "樓層已有單位、持分、公共區域或修繕紀錄，無法移除：" + String.join(", ", inUse),
+            HttpStatus.CONFLICT,
+            Map.of("floors", inUse));
+      }
+      floorRepo.deleteByIds(surplus);
+      repairCostRollups.forget(RepairCostDimension.FLOOR, surplus);
     }
 
-    return floorRepo.saveAll(floors);
+    List<Floor> missing = new ArrayList<>();
+    wanted.forEach(
+        (label, sortIndex) -> {
+          Floor f = new Floor();
+          f.setBuildingId(buildingId);
+          f.setLabel(label);
+          f.setSortIndex(sortIndex);
+          missing.add(f);
+        });
+
+    List<Floor> floors = new ArrayList<>(kept);
+    if (!missing.isEmpty()) floors.addAll(floorRepo.saveAll(missing));
+    floors.sort(Comparator.comparing(Floor::getSortIndex));
+    return floors;
   }
 
   public List<Floor> listFloors(UUID buildingId) {
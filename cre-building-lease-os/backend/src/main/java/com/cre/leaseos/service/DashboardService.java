@@ -0,0 +1,182 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.domain.Building;
+import com.cre.leaseos.domain.Enums.LeaseStatus;
+import com.cre.leaseos.domain.Enums.OccupancyStatus;
+import com.cre.leaseos.domain.Enums.RepairStatus;
+import com.cre.leaseos.repo.BuildingCounts;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.LeaseRepo;
+import com.cre.leaseos.repo.OccupancyRepo;
+import com.cre.leaseos.repo.RepairRecordRepo;
+import com.cre.leaseos.repo.StatusCount;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Building home page summary. The count and group-by queries behind each section are independent,
+ * so they run concurrently on the dashboard executor (which carries the request's actor) and the
+ * response waits only for the slowest one. The plain row counts share one query, so a request
+ * holds at most five connections. Each query runs in a read-only transaction whose timeout becomes
+ * the JDBC query timeout, so the database abandons the work when the response gives up on it.
+ * Unit count and areas come straight from the building's rollup columns.
+ */
+@Service
+public class DashboardService {
+  static final int EXPIRING_WITHIN_DAYS = 90;
+
+  private final BuildingService buildingService;
+  private final BuildingRepo buildingRepo;
+  private final LeaseRepo leaseRepo;
+  private final OccupancyRepo occupancyRepo;
+  private final RepairRecordRepo repairRecordRepo;
+  private final Executor executor;
+  private final TransactionTemplate tx;
+  private final Duration timeout;
+
+  public DashboardService(
+      BuildingService buildingService,
+      BuildingRepo buildingRepo,
+      LeaseRepo leaseRepo,
+      OccupancyRepo occupancyRepo,
+      RepairRecordRepo repairRecordRepo,
+      @Qualifier("dashboardExecutor") Executor executor,
+      PlatformTransactionManager transactionManager,
+      @Value("${leaseos.dashboard.timeout:PT5S}") Duration timeout) {
+    this.buildingService = buildingService;
+    this.buildingRepo = buildingRepo;
+    this.leaseRepo = leaseRepo;
+    this.occupancyRepo = occupancyRepo;
+    this.repairRecordRepo = repairRecordRepo;
+    this.executor = executor;
+    this.timeout = timeout;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.tx.setReadOnly(true);
+    this.tx.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+  }
+
+  public Map<String, Object> dashboard(UUID buildingId) {
+    Building building = buildingService.getBuilding(buildingId);
+    LocalDate today = LocalDate.now();
+
+    CompletableFuture<BuildingCounts> counts = async(() -> buildingRepo.countSections(buildingId));
+    CompletableFuture<List<StatusCount>> leases = async(() -> leaseRepo.countByStatus(buildingId));
+    CompletableFuture<Long> expiring =
+        async(
+            () ->
+                leaseRepo.countByBuildingIdAndStatusAndEndDateBetween(
+                    buildingId, LeaseStatus.ACTIVE, today, today.plusDays(EXPIRING_WITHIN_DAYS)));
+    CompletableFuture<List<StatusCount>> occupancies =
+        async(() -> occupancyRepo.countByStatus(buildingId));
+    CompletableFuture<List<StatusCount>> repairs =
+        async(() -> repairRecordRepo.countByStatus(buildingId));
+
+    await(counts, leases, expiring, occupancies, repairs);
+    BuildingCounts sections = counts.join();
+
+    Map<String, Object> units = new LinkedHashMap<>();
+    units.put("count", building.getUnitCount());
+    units.put("grossArea", building.getTotalGrossArea());
+    units.put("netArea", building.getTotalNetArea());
+    units.put("balconyArea", building.getTotalBalconyArea());
+
+    Map<String, Object> leaseSection = new LinkedHashMap<>();
+    leaseSection.put("byStatus", byStatus(LeaseStatus.values(), leases.join()));
+    leaseSection.put("expiringWithin" + EXPIRING_WITHIN_DAYS + "Days", expiring.join());
+
+    Map<String, Long> repairCounts = byStatus(RepairStatus.values(), repairs.join());
+    Map<String, Object> repairSection = new LinkedHashMap<>();
+    repairSection.put("byStatus", repairCounts);
+    repairSection.put(
+        "open",
+        repairCounts.entrySet().stream()
+            .filter(e -> !RepairStatus.CLOSED.contains(RepairStatus.valueOf(e.getKey())))
+            .mapToLong(Map.Entry::getValue)
+            .sum());
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", building.getId());
+    payload.put("name", building.getName());
+    payload.put("asOf", today);
+    payload.put("floors", sections.floors());
+    payload.put("units", units);
+    payload.put("tenants", sections.tenants());
+    payload.put("leases", leaseSection);
+    payload.put(
+        "occupancies",
+        Map.of("byStatus", byStatus(OccupancyStatus.values(), occupancies.join())));
+    payload.put("repairs", repairSection);
+    payload.put("vendors", sections.vendors());
+    payload.put("commonAreas", sections.commonAreas());
+    return payload;
+  }
+
+  /** A saturated executor fails the query at once with a 503 instead of queueing it. */
+  private <T> CompletableFuture<T> async(Supplier<T> query) {
+    try {
+      return CompletableFuture.supplyAsync(() -> tx.execute(status -> query.get()), executor);
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.failedFuture(
+          new ApiException(
+              "DASHBOARD_BUSY", "儀表板查詢繁忙，請稍後再試", HttpStatus.SERVICE_UNAVAILABLE));
+    }
+  }
+
+  /**
+   * On timeout the running queries are ended by their own query timeout; cancelling the futures
+   * only keeps the ones still queued from starting. A rejected submission cancels the rest at once.
+   */
+  private void await(CompletableFuture<?>... futures) {
+    for (CompletableFuture<?> f : futures) {
+      if (f.isCompletedExceptionally()) {
+        for (CompletableFuture<?> other : futures) other.cancel(true);
+        try {
+          f.join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof RuntimeException re) throw re;
+          throw e;
+        }
+      }
+    }
+    CompletableFuture<Void> all = CompletableFuture.allOf(futures);
+    try {
+      all.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      for (CompletableFuture<?> f : futures) f.cancel(true);
+      throw new ApiException(
+          "DASHBOARD_TIMEOUT", "儀表板查詢逾時，請稍後再試", HttpStatus.SERVICE_UNAVAILABLE);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) throw re;
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private static Map<String, Long> byStatus(Enum<?>[] statuses, List<StatusCount> counts) {
+    Map<String, Long> result = new LinkedHashMap<>();
+    for (Enum<?> status : statuses) result.put(status.name(), 0L);
+    counts.forEach(c -> result.put(c.status().name(), c.count()));
+    return result;
+  }
+}
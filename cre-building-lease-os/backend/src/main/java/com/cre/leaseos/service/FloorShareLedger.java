@@ -0,0 +1,168 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ResourceVersion;
+import com.cre.leaseos.domain.FloorOwner;
+import com.cre.leaseos.repo.FloorOwnerRepo;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-floor step functions of allocated ownership share over time, loaded lazily from
+ * floor_owners. Callers hold the floor row lock, so assignments on one floor serialize while other
+ * floors proceed. Each ledger is stamped with the floor's {@link ResourceVersion}; one aggregate
+ * query under the lock tells whether it still matches the table, including writes from other
+ * instances, and a stale ledger is rebuilt from the floor's rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class FloorShareLedger {
+  private final FloorOwnerRepo floorOwnerRepo;
+
+  private final Map<UUID, Ledger> ledgers = new ConcurrentHashMap<>();
+
+  /** Highest total share held at any instant of {@code [start, end]}; a null end is open. */
+  public BigDecimal maxAllocated(UUID floorId, OffsetDateTime start, OffsetDateTime end) {
+    return resolve(floorId).maxAllocated(micros(start), end == null ? Long.MAX_VALUE : micros(end));
+  }
+
+  /** Applies a committed assignment, stamped with the floor version read after it was flushed. */
+  public void onAssigned(FloorOwner assignment, ResourceVersion version) {
+    Ledger ledger = ledgers.get(assignment.getFloorId());
+    if (ledger == null) return;
+    ledger.put(assignment);
+    ledger.stamp(version);
+  }
+
+  public void clear() {
+    ledgers.clear();
+  }
+
+  Ledger resolve(UUID floorId) {
+    ResourceVersion current = floorOwnerRepo.versionOfFloor(floorId);
+    Ledger cached = ledgers.get(floorId);
+    if (cached != null && cached.matches(current)) return cached;
+
+    Ledger loaded = new Ledger();
+    floorOwnerRepo.findByFloorIdOrderByStartDateDesc(floorId).forEach(loaded::put);
+    loaded.stamp(current);
+    ledgers.put(floorId, loaded);
+    return loaded;
+  }
+
+  /**
+   * First instant an assignment no longer holds its share. {@code endDate} is the last instant it
+   * does, so the share runs one microsecond past it; a null end is open.
+   */
+  static OffsetDateTime heldUntil(OffsetDateTime endDate) {
+    return endDate == null ? null : endDate.plus(1, ChronoUnit.MICROS);
+  }
+
+  static long micros(OffsetDateTime time) {
+    return ChronoUnit.MICROS.between(Instant.EPOCH, time.toInstant());
+  }
+
+  /**
+   * Share changes keyed by the instant they take effect. An assignment covers its start and end
+   * days inclusive, so it adds its share at the start and takes it back one microsecond after the
+   * end. The running sums are compiled on demand into a max segment tree, so a range query is one
+   * binary search per bound plus an O(log n) tree walk.
+   */
+  static final class Ledger {
+    private final Map<UUID, Span> spans = new HashMap<>();
+    private final NavigableMap<Long, BigDecimal> deltas = new TreeMap<>();
+    private ResourceVersion version;
+    private long[] keys;
+    private BigDecimal[] tree;
+
+    synchronized void put(FloorOwner assignment) {
+      remove(assignment.getId());
+      long start = micros(assignment.getStartDate());
+      OffsetDateTime until = heldUntil(assignment.getEndDate());
+      long end = until == null ? Long.MAX_VALUE : micros(until);
+      Span span = new Span(start, end, assignment.getSharePercent());
+      spans.put(assignment.getId(), span);
+      shift(span, false);
+    }
+
+    synchronized void remove(UUID assignmentId) {
+      Span span = spans.remove(assignmentId);
+      if (span != null) shift(span, true);
+    }
+
+    synchronized void stamp(ResourceVersion version) {
+      this.version = version;
+    }
+
+    synchronized boolean matches(ResourceVersion current) {
+      return version != null && version.sameAs(current);
+    }
+
+    synchronized BigDecimal maxAllocated(long start, long end) {
+      if (tree == null) compile();
+      int to = floorIndex(end);
+      if (to < 0) return BigDecimal.ZERO;
+      return rangeMax(Math.max(floorIndex(start), 0), to);
+    }
+
+    private void shift(Span span, boolean undo) {
+      BigDecimal share = undo ? span.share().negate() : span.share();
+      add(span.start(), share);
+      if (span.end() != Long.MAX_VALUE) add(span.end(), share.negate());
+      tree = null;
+    }
+
+    private void add(long at, BigDecimal delta) {
+      BigDecimal sum = deltas.getOrDefault(at, BigDecimal.ZERO).add(delta);
+      if (sum.signum() == 0) {
+        deltas.remove(at);
+      } else {
+        deltas.put(at, sum);
+      }
+    }
+
+    private void compile() {
+      int n = deltas.size();
+      keys = new long[n];
+      tree = new BigDecimal[2 * Math.max(n, 1)];
+      Arrays.fill(tree, BigDecimal.ZERO);
+      BigDecimal running = BigDecimal.ZERO;
+      int i = 0;
+      for (Map.Entry<Long, BigDecimal> e : deltas.entrySet()) {
+        running = running.add(e.getValue());
+        keys[i] = e.getKey();
+        tree[n + i] = running;
+        i++;
+      }
+      for (int p = n - 1; p > 0; p--) tree[p] = tree[2 * p].max(tree[2 * p + 1]);
+    }
+
+    /** Index of the last boundary at or before {@code at}, or -1 when none is. */
+    private int floorIndex(long at) {
+      int found = Arrays.binarySearch(keys, at);
+      return found >= 0 ? found : -found - 2;
+    }
+
+    private BigDecimal rangeMax(int from, int to) {
+      BigDecimal max = BigDecimal.ZERO;
+      int n = keys.length;
+      for (int l = from + n, r = to + n + 1; l < r; l >>= 1, r >>= 1) {
+        if ((l & 1) == 1) max = max.max(tree[l++]);
+        if ((r & 1) == 1) max = max.max(tree[--r]);
+      }
+      return max;
+    }
+  }
+
+  private record Span(long start, long end, BigDecimal share) {}
+}
@@ -0,0 +1,125 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.domain.Floor;
+import com.cre.leaseos.domain.Unit;
+import com.cre.leaseos.repo.FloorRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rebuilds the unit layout as it stood at the end of a past day. Unit rows (current and replaced)
+ * created before the cutoff come back in one query ordered by creation time. A sweep then adds
+ * each row at its creation and drops it at its replacement, so split and merge history replays
+ * in order without walking the per-unit pointers.
+ */
+@Service
+@RequiredArgsConstructor
+public class LayoutHistoryService {
+  private final BuildingService buildingService;
+  private final FloorRepo floorRepo;
+  private final UnitRepo unitRepo;
+
+  @Transactional(readOnly = true)
+  public Map<String, Object> floorLayout(UUID floorId, LocalDate asOf) {
+    Floor floor = buildingService.getFloor(floorId);
+    OffsetDateTime cutoff = cutoff(asOf);
+    List<Unit> units =
+        sweep(
+            unitRepo.findByFloorIdAndCreatedAtLessThanOrderByCreatedAtAsc(floorId, cutoff),
+            cutoff);
+
+    Map<String, Object> payload = floorRow(floor, units);
+    payload.put("asOf", cutoff);
+    return payload;
+  }
+
+  @Transactional(readOnly = true)
+  public Map<String, Object> buildingLayout(UUID buildingId, LocalDate asOf) {
+    buildingService.getBuilding(buildingId);
+    OffsetDateTime cutoff = cutoff(asOf);
+    List<Unit> units =
+        sweep(
+            unitRepo.findByBuildingIdAndCreatedAtLessThanOrderByCreatedAtAsc(buildingId, cutoff),
+            cutoff);
+    Map<UUID, List<Unit>> byFloor = new HashMap<>();
+    units.forEach(u -> byFloor.computeIfAbsent(u.getFloorId(), k -> new ArrayList<>()).add(u));
+
+    List<Map<String, Object>> floors = new ArrayList<>();
+    for (Floor floor : floorRepo.findByBuildingIdOrderBySortIndexAsc(buildingId)) {
+      floors.add(floorRow(floor, byFloor.getOrDefault(floor.getId(), List.of())));
+    }
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", buildingId);
+    payload.put("asOf", cutoff);
+    payload.put("floors", floors);
+    return payload;
+  }
+
+  /** Replays creations (in input order) and replacements up to {@code cutoff}. */
+  private List<Unit> sweep(List<Unit> createdBeforeCutoff, OffsetDateTime cutoff) {
+    Map<UUID, Unit> live = new LinkedHashMap<>();
+    PriorityQueue<Unit> replacements =
+        new PriorityQueue<>(Comparator.comparing(Unit::getReplacedAt));
+    for (Unit u : createdBeforeCutoff) {
+      while (!replacements.isEmpty()
+          && !replacements.peek().getReplacedAt().isAfter(u.getCreatedAt())) {
+        live.remove(replacements.poll().getId());
+      }
+      live.put(u.getId(), u);
+      if (u.getReplacedAt() != null) replacements.add(u);
+    }
+    while (!replacements.isEmpty() && replacements.peek().getReplacedAt().isBefore(cutoff)) {
+      live.remove(replacements.poll().getId());
+    }
+    List<Unit> units = new ArrayList<>(live.values());
+    units.sort(Comparator.comparing(Unit::getCode));
+    return units;
+  }
+
+  private Map<String, Object> floorRow(Floor floor, List<Unit> units) {
+    BigDecimal grossArea = BigDecimal.ZERO;
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (Unit u : units) {
+      grossArea = grossArea.add(u.getGrossArea());
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("unitId", u.getId());
+      row.put("code", u.getCode());
+      row.put("grossArea", u.getGrossArea());
+      row.put("netArea", u.getNetArea());
+      row.put("balconyArea", u.getBalconyArea());
+      row.put("createdAt", u.getCreatedAt());
+      row.put("replacedAt", u.getReplacedAt());
+      row.put("sourceUnitId", u.getSourceUnitId());
+      row.put("replacedByUnitId", u.getReplacedByUnitId());
+      rows.add(row);
+    }
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("floorId", floor.getId());
+    payload.put("label", floor.getLabel());
+    payload.put("sortIndex", floor.getSortIndex());
+    payload.put("grossArea", grossArea);
+    payload.put("units", rows);
+    return payload;
+  }
+
+  /** End of the given day (exclusive) in the server zone; now when no day is given. */
+  private static OffsetDateTime cutoff(LocalDate asOf) {
+    if (asOf == null) return OffsetDateTime.now();
+    return asOf.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+  }
+}
@@ -1,23 +1,50 @@
 package com.cre.leaseos.service;
 
 import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.common.CursorPage;
+import com.cre.leaseos.common.KeysetCursor;
+import com.cre.leaseos.common.KeysetPager;
+import com.cre.leaseos.common.TransactionHooks;
 import com.cre.leaseos.domain.*;
 import com.cre.leaseos.domain.Enums.LeaseStatus;
 import com.cre.leaseos.domain.Enums.OccupancyStatus;
+import com.cre.leaseos.domain.Enums.OutboxEventType;
+import com.cre.leaseos.dto.OccupancyLeaseDtos.LeaseBatchItemResult;
+import com.cre.leaseos.dto.OccupancyLeaseDtos.LeaseBatchResult;
 import com.cre.leaseos.dto.OccupancyLeaseDtos.LeaseCreateReq;
 import com.cre.leaseos.dto.OccupancyLeaseDtos.LeasePatchReq;
 import com.cre.leaseos.dto.OccupancyLeaseDtos.OccupancyPatchReq;
 import com.cre.leaseos.dto.OccupancyLeaseDtos.OccupancyReq;
 import com.cre.leaseos.repo.*;
+import com.cre.leaseos.service.ActiveLeaseIndex.UnitTimeline;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -27,11 +54,29 @@ import org.springframework.web.multipart.MultipartFile;
 @Service
 @RequiredArgsConstructor
 public class LeaseService {
+  public static final KeysetPager LEASE_SORT =
+      KeysetPager.sortableBy(
+          "createdAt",
+          Map.<String, Function<String, Object>>of(
+              "createdAt", OffsetDateTime::parse,
+              "startDate", LocalDate::parse,
+              "endDate", LocalDate::parse));
+
   private final BuildingService buildingService;
   private final LeaseRepo leaseRepo;
   private final LeaseUnitRepo leaseUnitRepo;
   private final OccupancyRepo occupancyRepo;
   private final LeaseAttachmentRepo leaseAttachmentRepo;
+  private final ActiveLeaseIndex activeLeaseIndex;
+  private final RentRollProjection rentRollProjection;
+  private final OutboxService outboxService;
+  private final UnitLocks unitLocks;
+  private final UnitRepo unitRepo;
+  private final TenantRepo tenantRepo;
+  private final Validator validator;
+
+  private static final int MAX_EXPIRY_WINDOW_DAYS = 3650;
+  private static final int MAX_BATCH_SIZE = 1000;
 
   public Occupancy createOccupancy(OccupancyReq req) {
     Occupancy occupancy = new Occupancy();
@@ -79,12 +124,124 @@ public class LeaseService {
     return leaseRepo.findByBuildingId(buildingId, pageable);
   }
 
+  public CursorPage<Map<String, Object>> scrollLeaseRows(
+      UUID buildingId, String sort, String cursor, Integer size, boolean withTotal) {
+    return LEASE_SORT
+        .page(
+            leaseRepo,
+            (root, query, cb) -> cb.equal(root.get("buildingId"), buildingId),
+            sort,
+            cursor,
+            size,
+            withTotal)
+        .map(this::toLeaseRows);
+  }
+
+  public List<Map<String, Object>> listLeaseRows(UUID buildingId) {
+    return toLeaseRows(listLeases(buildingId), leaseUnitRepo.findByBuildingId(buildingId));
+  }
+
+  public Page<Map<String, Object>> listLeaseRows(UUID buildingId, Pageable pageable) {
+    Page<Lease> page = listLeases(buildingId, pageable);
+    return new PageImpl<>(toLeaseRows(page.getContent()), page.getPageable(), page.getTotalElements());
+  }
+
+  /**
+   * ACTIVE leases ending within {@code days} of {@code asOf}, soonest first, paged by an
+   * (endDate, id) cursor so each page is a bounded range scan on the expiry index. A null
+   * building id spans the whole portfolio.
+   */
+  public CursorPage<Map<String, Object>> listExpiringLeases(
+      UUID buildingId, LocalDate asOf, Integer days, String cursor, Integer size) {
+    LocalDate from = asOf == null ? LocalDate.now() : asOf;
+    int window = days == null ? 90 : days;
+    if (window < 0 || window > MAX_EXPIRY_WINDOW_DAYS) {
+      throw new ApiException(
+          "VALIDATION", "days 需介於 0 與 " + MAX_EXPIRY_WINDOW_DAYS + " 之間", HttpStatus.BAD_REQUEST);
+    }
+    int limit = Math.max(1, Math.min(size == null ? 50 : size, 200));
+
+    LocalDate afterEnd = from.minusDays(1);
+    UUID afterId = new UUID(0L, 0L);
+    KeysetCursor position = KeysetCursor.decode(cursor);
+    if (position != null && position.date().isAfter(afterEnd)) {
+      afterEnd = position.date();
+      afterId = position.id();
+    }
+
+    LocalDate until = from.plusDays(window);
+    List<Lease> leases =
+        buildingId == null
+            ? leaseRepo.findExpiring(LeaseStatus.ACTIVE, afterEnd, afterId, until, Limit.of(limit + 1))
+            : leaseRepo.findExpiringInBuilding(
+                buildingId, LeaseStatus.ACTIVE, afterEnd, afterId, until, Limit.of(limit + 1));
+
+    String next = null;
+    if (leases.size() > limit) {
+      leases = leases.subList(0, limit);
+      Lease last = leases.get(limit - 1);
+      next = KeysetCursor.of(last.getEndDate(), last.getId()).encode();
+    }
+    List<Map<String, Object>> rows = toLeaseRows(leases);
+    for (Map<String, Object> row : rows) {
+      Lease lease = (Lease) row.get("lease");
+      row.put("daysUntilExpiry", ChronoUnit.DAYS.between(from, lease.getEndDate()));
+    }
+    return CursorPage.of(rows, limit, next);
+  }
+
+  /** Builds list rows with one lease_units query and one buildings query, regardless of size. */
+  public List<Map<String, Object>> toLeaseRows(List<Lease> leases) {
+    if (leases.isEmpty()) return List.of();
+    List<UUID> leaseIds = leases.stream().map(Lease::getId).toList();
+    return toLeaseRows(leases, leaseUnitRepo.findByLeaseIdIn(leaseIds));
+  }
+
+  private List<Map<String, Object>> toLeaseRows(List<Lease> leases, List<LeaseUnit> leaseUnits) {
+    if (leases.isEmpty()) return List.of();
+    Map<UUID, List<UUID>> unitIdsByLease =
+        leaseUnits.stream()
+            .collect(
+                Collectors.groupingBy(
+                    LeaseUnit::getLeaseId,
+                    Collectors.mapping(LeaseUnit::getUnitId, Collectors.toList())));
+    Map<UUID, BigDecimal> buildingFees =
+        buildingService.getManagementFees(
+            leases.stream().map(Lease::getBuildingId).collect(Collectors.toSet()));
+
+    return leases.stream()
+        .map(
+            lease -> {
+              Map<String, Object> row = new LinkedHashMap<>();
+              row.put("lease", lease);
+              row.put("unitIds", unitIdsByLease.getOrDefault(lease.getId(), List.of()));
+              row.put(
+                  "effectiveManagementFee",
+                  effectiveManagementFee(lease, buildingFees.get(lease.getBuildingId())));
+              return row;
+            })
+        .toList();
+  }
+
   public Lease getLease(UUID leaseId) {
     return leaseRepo
         .findById(leaseId)
         .orElseThrow(() -> new ApiException("NOT_FOUND", "找不到租約", HttpStatus.NOT_FOUND));
   }
 
+  /** Lease detail in a fixed number of queries: lease, units, occupancies, attachments, building. */
+  @Transactional(readOnly = true)
+  public Map<String, Object> getLeaseDetail(UUID leaseId) {
+    Lease lease = getLease(leaseId);
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("lease", lease);
+    payload.put("leaseUnits", leaseUnitRepo.findByLeaseId(leaseId));
+    payload.put("occupancies", occupancyRepo.findByLeaseIdOrderByCreatedAtDesc(leaseId));
+    payload.put("attachments", listAttachments(leaseId));
+    payload.put("effectiveManagementFee", effectiveManagementFee(lease));
+    return payload;
+  }
+
   @Transactional
   public Lease createLease(LeaseCreateReq req) {
     if (req.startDate().isAfter(req.endDate())) {
@@ -94,6 +251,7 @@ public class LeaseService {
     LeaseStatus target = req.status() == null ? LeaseStatus.DRAFT : req.status();
 
     if (target == LeaseStatus.ACTIVE) {
+      unitLocks.lockForTransaction(req.unitIds());
       assertNoOverlappingActiveLeases(req.unitIds(), req.startDate(), req.endDate(), null);
     }
 
@@ -108,17 +266,156 @@ public class LeaseService {
     lease.setDeposit(req.deposit());
     lease = leaseRepo.save(lease);
 
+    List<LeaseUnit> rows = new ArrayList<>();
     for (UUID unitId : req.unitIds()) {
       LeaseUnit lu = new LeaseUnit();
       lu.setLeaseId(lease.getId());
       lu.setUnitId(unitId);
-      leaseUnitRepo.save(lu);
+      applyActiveSpan(lu, lease);
+      rows.add(lu);
     }
+    saveLeaseUnits(rows);
 
-    syncOccupancyForLease(lease, req.unitIds());
+    publishLeaseEvents(lease, null, req.unitIds());
+    afterLeaseCommit(lease, List.of(), req.unitIds());
     return lease;
   }
 
+  /**
+   * Validates every item up front (fields, references, overlaps inside the batch and against
+   * committed ACTIVE leases), then inserts the accepted leases, lease_units and outbox events with
+   * batched statements in one transaction. Rejected items are reported, not thrown.
+   */
+  @Transactional
+  public LeaseBatchResult createLeases(List<LeaseCreateReq> reqs) {
+    if (reqs.isEmpty() || reqs.size() > MAX_BATCH_SIZE) {
+      throw new ApiException(
+          "INVALID_BATCH_SIZE", "批次筆數需介於 1 到 " + MAX_BATCH_SIZE, HttpStatus.BAD_REQUEST);
+    }
+
+    LeaseBatchItemResult[] results = new LeaseBatchItemResult[reqs.size()];
+    Set<UUID> allUnitIds = new LinkedHashSet<>();
+    Set<UUID> allTenantIds = new LinkedHashSet<>();
+    for (int i = 0; i < reqs.size(); i++) {
+      LeaseCreateReq req = reqs.get(i);
+      if (req == null) {
+        results[i] = rejected(i, "VALIDATION", "資料格式錯誤");
+        continue;
+      }
+      Set<ConstraintViolation<LeaseCreateReq>> violations = validator.validate(req);
+      if (!violations.isEmpty()) {
+        ConstraintViolation<LeaseCreateReq> v = violations.iterator().next();
+        results[i] = rejected(i, "VALIDATION", v.getPropertyPath() + " " + v.getMessage());
+      } else if (req.startDate().isAfter(req.endDate())) {
+        results[i] = rejected(i, "INVALID_DATE_RANGE", "租約日期區間錯誤");
+      } else {
+        allUnitIds.addAll(req.unitIds());
+        allTenantIds.add(req.tenantId());
+      }
+    }
+
+    unitLocks.lockForTransaction(allUnitIds);
+    Map<UUID, Unit> units =
+        unitRepo.findAllById(allUnitIds).stream()
+            .collect(Collectors.toMap(Unit::getId, Function.identity()));
+    Map<UUID, Tenant> tenants =
+        tenantRepo.findAllById(allTenantIds).stream()
+            .collect(Collectors.toMap(Tenant::getId, Function.identity()));
+    Map<UUID, UnitTimeline> committed = activeLeaseIndex.resolve(allUnitIds);
+    Map<UUID, UnitTimeline> accepted = new HashMap<>();
+
+    List<Lease> leases = new ArrayList<>();
+    List<Integer> itemIndexes = new ArrayList<>();
+    List<List<UUID>> unitIdsByItem = new ArrayList<>();
+    for (int i = 0; i < reqs.size(); i++) {
+      if (results[i] != null) continue;
+      LeaseCreateReq req = reqs.get(i);
+      List<UUID> unitIds = List.copyOf(new LinkedHashSet<>(req.unitIds()));
+      LeaseStatus target = req.status() == null ? LeaseStatus.DRAFT : req.status();
+
+      Tenant tenant = tenants.get(req.tenantId());
+      if (tenant == null || !tenant.getBuildingId().equals(req.buildingId())) {
+        results[i] = rejected(i, "INVALID_TENANT", "租戶不存在或不屬於此大樓");
+        continue;
+      }
+      boolean unitsValid =
+          unitIds.stream()
+              .map(units::get)
+              .allMatch(
+                  u ->
+                      u != null
+                          && Boolean.TRUE.equals(u.getIsCurrent())
+                          && u.getBuildingId().equals(req.buildingId()));
+      if (!unitsValid) {
+        results[i] = rejected(i, "INVALID_UNIT", "單位不存在、非現行或不屬於此大樓");
+        continue;
+      }
+      if (target == LeaseStatus.ACTIVE) {
+        boolean overlaps = false;
+        for (UUID unitId : unitIds) {
+          UnitTimeline inBatch = accepted.computeIfAbsent(unitId, k -> new UnitTimeline());
+          if (committed.get(unitId).findOverlap(req.startDate(), req.endDate(), null) != null
+              || inBatch.findOverlap(req.startDate(), req.endDate(), null) != null) {
+            overlaps = true;
+            break;
+          }
+        }
+        if (overlaps) {
+          results[i] = rejected(i, "OVERLAPPING_ACTIVE_LEASE", "同一單位不可有重疊 ACTIVE 租約");
+          continue;
+        }
+      }
+
+      Lease lease = new Lease();
+      lease.setBuildingId(req.buildingId());
+      lease.setTenantId(req.tenantId());
+      lease.setStatus(target);
+      lease.setStartDate(req.startDate());
+      lease.setEndDate(req.endDate());
+      lease.setManagementFee(req.managementFee());
+      lease.setRent(req.rent());
+      lease.setDeposit(req.deposit());
+      leases.add(lease);
+      itemIndexes.add(i);
+      unitIdsByItem.add(unitIds);
+      if (target == LeaseStatus.ACTIVE) {
+        UUID batchKey = UUID.randomUUID();
+        unitIds.forEach(u -> accepted.get(u).put(batchKey, req.startDate(), req.endDate()));
+      }
+    }
+
+    if (!leases.isEmpty()) {
+      leaseRepo.saveAll(leases);
+      Map<UUID, List<UUID>> unitIdsByLease = new HashMap<>();
+      List<LeaseUnit> leaseUnits = new ArrayList<>();
+      for (int k = 0; k < leases.size(); k++) {
+        Lease lease = leases.get(k);
+        unitIdsByLease.put(lease.getId(), unitIdsByItem.get(k));
+        results[itemIndexes.get(k)] =
+            new LeaseBatchItemResult(itemIndexes.get(k), true, lease.getId(), null, null);
+        for (UUID unitId : unitIdsByItem.get(k)) {
+          LeaseUnit lu = new LeaseUnit();
+          lu.setLeaseId(lease.getId());
+          lu.setUnitId(unitId);
+          applyActiveSpan(lu, lease);
+          leaseUnits.add(lu);
+        }
+      }
+      saveLeaseUnits(leaseUnits);
+      for (Lease lease : leases) {
+        publishLeaseEvents(lease, null, unitIdsByLease.get(lease.getId()));
+        afterLeaseCommit(lease, List.of(), unitIdsByLease.get(lease.getId()));
+      }
+    }
+
+    List<LeaseBatchItemResult> items = List.of(results);
+    return new LeaseBatchResult(reqs.size(), leases.size(), reqs.size() - leases.size(), items);
+  }
+
+  private LeaseBatchItemResult rejected(int index, String code, String message) {
+    return new LeaseBatchItemResult(index, false, null, code, message);
+  }
+
   @Transactional
   public Lease patchLease(UUID leaseId, LeasePatchReq req) {
     Lease lease = getLease(leaseId);
@@ -131,15 +428,16 @@ public class LeaseService {
       throw new ApiException("INVALID_DATE_RANGE", "租約日期區間錯誤", HttpStatus.BAD_REQUEST);
     }
 
-    List<UUID> unitIds =
-        req.unitIds() == null
-            ? leaseUnitRepo.findByLeaseId(leaseId).stream().map(LeaseUnit::getUnitId).toList()
-            : req.unitIds();
+    List<LeaseUnit> existing = leaseUnitRepo.findByLeaseId(leaseId);
+    List<UUID> previousUnitIds = existing.stream().map(LeaseUnit::getUnitId).toList();
+    List<UUID> unitIds = req.unitIds() == null ? previousUnitIds : req.unitIds();
 
     if (status == LeaseStatus.ACTIVE) {
+      unitLocks.lockForTransaction(unitIds);
       assertNoOverlappingActiveLeases(unitIds, start, end, leaseId);
     }
 
+    LeaseStatus previousStatus = lease.getStatus();
     lease.setStatus(status);
     lease.setStartDate(start);
     lease.setEndDate(end);
@@ -148,23 +446,39 @@ public class LeaseService {
     if (req.deposit() != null) lease.setDeposit(req.deposit());
     lease = leaseRepo.save(lease);
 
-    if (req.unitIds() != null) {
-      leaseUnitRepo.deleteByLeaseId(leaseId);
-      for (UUID unitId : req.unitIds()) {
-        LeaseUnit lu = new LeaseUnit();
-        lu.setLeaseId(leaseId);
-        lu.setUnitId(unitId);
-        leaseUnitRepo.save(lu);
+    Set<UUID> wanted = new LinkedHashSet<>(unitIds);
+    List<LeaseUnit> removed = new ArrayList<>();
+    List<LeaseUnit> rows = new ArrayList<>();
+    for (LeaseUnit lu : existing) {
+      if (wanted.remove(lu.getUnitId())) {
+        applyActiveSpan(lu, lease);
+        rows.add(lu);
+      } else {
+        removed.add(lu);
       }
     }
+    for (UUID unitId : wanted) {
+      LeaseUnit lu = new LeaseUnit();
+      lu.setLeaseId(leaseId);
+      lu.setUnitId(unitId);
+      applyActiveSpan(lu, lease);
+      rows.add(lu);
+    }
+    if (!removed.isEmpty()) leaseUnitRepo.deleteAllInBatch(removed);
+    saveLeaseUnits(rows);
 
-    syncOccupancyForLease(lease, unitIds);
+    publishLeaseEvents(lease, previousStatus, unitIds);
+    afterLeaseCommit(lease, previousUnitIds, unitIds);
     return lease;
   }
 
-  public java.math.BigDecimal effectiveManagementFee(Lease lease) {
+  public BigDecimal effectiveManagementFee(Lease lease) {
     Building b = buildingService.getBuilding(lease.getBuildingId());
-    return lease.getManagementFee() != null ? lease.getManagementFee() : b.getManagementFee();
+    return effectiveManagementFee(lease, b.getManagementFee());
+  }
+
+  private BigDecimal effectiveManagementFee(Lease lease, BigDecimal buildingFee) {
+    return lease.getManagementFee() != null ? lease.getManagementFee() : buildingFee;
   }
 
   public LeaseAttachment addAttachment(UUID leaseId, MultipartFile file) {
@@ -199,46 +513,172 @@ public class LeaseService {
     leaseAttachmentRepo.deleteById(attachmentId);
   }
 
-  private boolean overlap(LocalDate aStart, LocalDate aEnd, LocalDate bStart, LocalDate bEnd) {
-    return !aStart.isAfter(bEnd) && !bStart.isAfter(aEnd);
-  }
-
   private void assertNoOverlappingActiveLeases(
       List<UUID> unitIds, LocalDate start, LocalDate end, UUID excludeLeaseId) {
-    List<Lease> leases = leaseUnitRepo.findLeasesByUnitIdsAndStatus(unitIds, LeaseStatus.ACTIVE);
-    for (Lease lease : leases) {
-      if (excludeLeaseId != null && lease.getId().equals(excludeLeaseId)) continue;
-      if (overlap(start, end, lease.getStartDate(), lease.getEndDate())) {
-        throw new ApiException(
-            "OVERLAPPING_ACTIVE_LEASE", "同一單位不可有重疊 ACTIVE 租約", HttpStatus.CONFLICT);
+    if (activeLeaseIndex.findOverlap(unitIds, start, end, excludeLeaseId) != null) {
+      throw new ApiException(
+          "OVERLAPPING_ACTIVE_LEASE", "同一單位不可有重疊 ACTIVE 租約", HttpStatus.CONFLICT);
+    }
+  }
+
+  private void applyActiveSpan(LeaseUnit lu, Lease lease) {
+    boolean active = lease.getStatus() == LeaseStatus.ACTIVE;
+    lu.setActiveStartDate(active ? lease.getStartDate() : null);
+    lu.setActiveEndDate(active ? lease.getEndDate() : null);
+  }
+
+  /** Flushes so a concurrent overlap caught by the exclusion constraint surfaces as a 409. */
+  private void saveLeaseUnits(List<LeaseUnit> rows) {
+    try {
+      leaseUnitRepo.saveAllAndFlush(rows);
+    } catch (DataIntegrityViolationException e) {
+      throw new ApiException(
+          "OVERLAPPING_ACTIVE_LEASE", "同一單位不可有重疊 ACTIVE 租約", HttpStatus.CONFLICT);
+    }
+  }
+
+  private void afterLeaseCommit(Lease lease, List<UUID> previousUnitIds, List<UUID> unitIds) {
+    TransactionHooks.afterCommit(
+        () -> {
+          activeLeaseIndex.onLeaseWritten(lease, previousUnitIds, unitIds);
+          rentRollProjection.onLeaseWritten(lease, unitIds);
+        });
+  }
+
+  /**
+   * Occupancy side effects run from the outbox, not inline: an ACTIVE write is picked up by
+   * {@link #applyLeaseActivations}, a move to TERMINATED by {@link #applyLeaseTerminations}.
+   */
+  private void publishLeaseEvents(Lease lease, LeaseStatus previousStatus, List<UUID> unitIds) {
+    if (lease.getStatus() == LeaseStatus.ACTIVE) {
+      Map<String, Object> payload = new LinkedHashMap<>();
+      payload.put("buildingId", lease.getBuildingId());
+      payload.put("unitIds", unitIds);
+      outboxService.publish(OutboxEventType.LEASE_ACTIVATED, lease.getId(), payload);
+    } else if (lease.getStatus() == LeaseStatus.TERMINATED
+        && previousStatus != LeaseStatus.TERMINATED) {
+      Map<String, Object> payload = new LinkedHashMap<>();
+      payload.put("buildingId", lease.getBuildingId());
+      payload.put("terminatedOn", LocalDate.now().toString());
+      outboxService.publish(OutboxEventType.LEASE_TERMINATED, lease.getId(), payload);
+    }
+  }
+
+  /** Outbox handler: syncs occupancies of the given leases that are still ACTIVE. */
+  @Transactional
+  public void applyLeaseActivations(Collection<UUID> leaseIds) {
+    List<Lease> leases = leaseRepo.findAllById(leaseIds);
+    Map<UUID, List<UUID>> unitIdsByLease =
+        leaseUnitRepo.findByLeaseIdIn(leaseIds).stream()
+            .collect(
+                Collectors.groupingBy(
+                    LeaseUnit::getLeaseId,
+                    Collectors.mapping(LeaseUnit::getUnitId, Collectors.toList())));
+    syncOccupancyForLeases(leases, unitIdsByLease);
+  }
+
+  /** Outbox handler: ends the ACTIVE occupancies of terminated leases on the termination day. */
+  @Transactional
+  public void applyLeaseTerminations(Map<UUID, LocalDate> terminatedOnByLease) {
+    List<Occupancy> rows =
+        occupancyRepo.findByLeaseIdInAndStatus(terminatedOnByLease.keySet(), OccupancyStatus.ACTIVE);
+    for (Occupancy o : rows) {
+      LocalDate on = terminatedOnByLease.get(o.getLeaseId());
+      if (on.isBefore(o.getStartDate())) on = o.getStartDate();
+      if (o.getEndDate() == null || o.getEndDate().isAfter(on)) o.setEndDate(on);
+      o.setStatus(OccupancyStatus.ENDED);
+    }
+    occupancyRepo.saveAll(rows);
+  }
+
+  /**
+   * Outbox handler for unit splits and merges: each ACTIVE occupancy on a retired unit ends on the
+   * replacement day and continues, same tenant and lease, on every unit that replaced it. Ended
+   * rows are no longer ACTIVE, so replaying an event adds nothing.
+   */
+  @Transactional
+  public void applyUnitReplacements(List<UnitReplacement> replacements) {
+    Map<UUID, UnitReplacement> byRetiredUnit = new HashMap<>();
+    replacements.forEach(r -> r.retiredUnitIds().forEach(id -> byRetiredUnit.put(id, r)));
+    if (byRetiredUnit.isEmpty()) return;
+
+    List<Occupancy> rows = new ArrayList<>();
+    Set<List<UUID>> carried = new HashSet<>();
+    for (Occupancy o :
+        occupancyRepo.findByUnitIdInAndStatusOrderByCreatedAtDesc(
+            byRetiredUnit.keySet(), OccupancyStatus.ACTIVE)) {
+      UnitReplacement r = byRetiredUnit.get(o.getUnitId());
+      LocalDate on = r.on().isBefore(o.getStartDate()) ? o.getStartDate() : r.on();
+      for (UUID unitId : r.unitIds()) {
+        // A merge of two units under one lease carries it onto the merged unit once.
+        if (!carried.add(Arrays.asList(unitId, o.getTenantId(), o.getLeaseId()))) continue;
+        Occupancy next = new Occupancy();
+        next.setBuildingId(o.getBuildingId());
+        next.setUnitId(unitId);
+        next.setTenantId(o.getTenantId());
+        next.setLeaseId(o.getLeaseId());
+        next.setStatus(OccupancyStatus.ACTIVE);
+        next.setStartDate(on);
+        next.setEndDate(o.getEndDate());
+        rows.add(next);
       }
+      if (o.getEndDate() == null || o.getEndDate().isAfter(on)) o.setEndDate(on);
+      o.setStatus(OccupancyStatus.ENDED);
+      rows.add(o);
     }
+    occupancyRepo.saveAll(rows);
   }
 
-  private void syncOccupancyForLease(Lease lease, List<UUID> unitIds) {
-    if (lease.getStatus() != LeaseStatus.ACTIVE) return;
+  /** Units retired by one split or merge, the units that replaced them, and the day it happened. */
+  public record UnitReplacement(List<UUID> retiredUnitIds, List<UUID> unitIds, LocalDate on) {}
+
+  /**
+   * Brings each (lease, unit) occupancy in line with an ACTIVE lease. An occupancy already linked
+   * to the lease is updated in place, so replaying the same event is harmless. Otherwise the
+   * latest DRAFT for the unit and tenant is promoted, or a new occupancy is created.
+   */
+  private void syncOccupancyForLeases(List<Lease> leases, Map<UUID, List<UUID>> unitIdsByLease) {
+    List<Lease> active = leases.stream().filter(l -> l.getStatus() == LeaseStatus.ACTIVE).toList();
+    if (active.isEmpty()) return;
+
+    Set<UUID> unitIds = new LinkedHashSet<>();
+    active.forEach(l -> unitIds.addAll(unitIdsByLease.getOrDefault(l.getId(), List.of())));
+    if (unitIds.isEmpty()) return;
+    Map<UnitTenant, Occupancy> drafts = new HashMap<>();
+    for (Occupancy o :
+        occupancyRepo.findByUnitIdInAndStatusOrderByCreatedAtDesc(unitIds, OccupancyStatus.DRAFT)) {
+      drafts.putIfAbsent(new UnitTenant(o.getUnitId(), o.getTenantId()), o);
+    }
+    Map<LeaseUnitKey, Occupancy> linked = new HashMap<>();
+    for (Occupancy o :
+        occupancyRepo.findByLeaseIdIn(active.stream().map(Lease::getId).toList())) {
+      if (o.getStatus() != OccupancyStatus.DRAFT) {
+        linked.putIfAbsent(new LeaseUnitKey(o.getLeaseId(), o.getUnitId()), o);
+      }
+    }
 
-    for (UUID unitId : unitIds) {
-      Occupancy draft =
-          occupancyRepo.findFirstByUnitIdAndTenantIdAndStatusOrderByCreatedAtDesc(
-              unitId, lease.getTenantId(), OccupancyStatus.DRAFT);
-      if (draft != null) {
-        draft.setStatus(OccupancyStatus.ACTIVE);
-        draft.setLeaseId(lease.getId());
-        draft.setStartDate(lease.getStartDate());
-        draft.setEndDate(lease.getEndDate());
-        occupancyRepo.save(draft);
-      } else {
-        Occupancy o = new Occupancy();
-        o.setBuildingId(lease.getBuildingId());
-        o.setUnitId(unitId);
-        o.setTenantId(lease.getTenantId());
+    List<Occupancy> rows = new ArrayList<>();
+    for (Lease lease : active) {
+      for (UUID unitId : unitIdsByLease.getOrDefault(lease.getId(), List.of())) {
+        Occupancy o = linked.get(new LeaseUnitKey(lease.getId(), unitId));
+        if (o == null) o = drafts.remove(new UnitTenant(unitId, lease.getTenantId()));
+        if (o == null) {
+          o = new Occupancy();
+          o.setBuildingId(lease.getBuildingId());
+          o.setUnitId(unitId);
+          o.setTenantId(lease.getTenantId());
+        }
         o.setLeaseId(lease.getId());
         o.setStatus(OccupancyStatus.ACTIVE);
         o.setStartDate(lease.getStartDate());
         o.setEndDate(lease.getEndDate());
-        occupancyRepo.save(o);
+        rows.add(o);
       }
     }
+    occupancyRepo.saveAll(rows);
   }
+
+  private record UnitTenant(UUID unitId, UUID tenantId) {}
+
+  private record LeaseUnitKey(UUID leaseId, UUID unitId) {}
 }
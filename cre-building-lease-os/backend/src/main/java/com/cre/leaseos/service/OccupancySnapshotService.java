@@ -0,0 +1,199 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.domain.Enums.LeaseStatus;
+import com.cre.leaseos.domain.Enums.OccupancyStatus;
+import com.cre.leaseos.domain.Lease;
+import com.cre.leaseos.domain.LeaseUnit;
+import com.cre.leaseos.domain.Occupancy;
+import com.cre.leaseos.repo.LeaseRepo;
+import com.cre.leaseos.repo.LeaseUnitRepo;
+import com.cre.leaseos.repo.OccupancyRepo;
+import com.cre.leaseos.repo.TenantRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import com.cre.leaseos.service.OccupancySweep.Span;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Answers "who occupied which unit" for a building at a date or across a period. Occupancy and
+ * ACTIVE lease intervals overlapping the window are loaded once, then a sweep over their start
+ * and end boundaries replays the unit state in date order. A unit's occupant is its most recent
+ * ACTIVE/ENDED occupancy, falling back to a lease covering the unit when no occupancy does.
+ */
+@Service
+@RequiredArgsConstructor
+public class OccupancySnapshotService {
+  private final OccupancyRepo occupancyRepo;
+  private final LeaseRepo leaseRepo;
+  private final LeaseUnitRepo leaseUnitRepo;
+  private final UnitRepo unitRepo;
+  private final TenantRepo tenantRepo;
+
+  @Transactional(readOnly = true)
+  public Map<String, Object> snapshot(UUID buildingId, LocalDate asOf) {
+    LocalDate day = asOf == null ? LocalDate.now() : asOf;
+    OccupancySweep sweep = load(buildingId, day, day);
+    sweep.advanceTo(day);
+    List<Span> occupants = sweep.occupants();
+    Names names =
+        names(
+            occupants.stream().map(Span::unitId).toList(),
+            occupants.stream().map(Span::tenantId).toList());
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", buildingId);
+    payload.put("asOf", day);
+    payload.put("occupiedUnits", occupants.size());
+    payload.put("units", occupants.stream().map(s -> toRow(s, names)).toList());
+    return payload;
+  }
+
+  @Transactional(readOnly = true)
+  public Map<String, Object> changes(UUID buildingId, LocalDate from, LocalDate to) {
+    if (from == null || to == null || to.isBefore(from)) {
+      throw new ApiException(
+          "INVALID_DATE_RANGE", "需提供 from 與 to，且 to 不可早於 from", HttpStatus.BAD_REQUEST);
+    }
+    OccupancySweep sweep = load(buildingId, from, to);
+    sweep.advanceTo(from);
+    List<Span> initial = sweep.occupants();
+    Map<UUID, Span> current = new HashMap<>();
+    initial.forEach(s -> current.put(s.unitId(), s));
+
+    List<Change> changes = new ArrayList<>();
+    LocalDate day;
+    while ((day = sweep.nextBoundary()) != null && !day.isAfter(to)) {
+      for (UUID unitId : new TreeSet<>(sweep.advanceTo(day))) {
+        Span before = current.get(unitId);
+        Span after = sweep.occupant(unitId);
+        UUID beforeTenant = before == null ? null : before.tenantId();
+        UUID afterTenant = after == null ? null : after.tenantId();
+        if (after == null) current.remove(unitId);
+        else current.put(unitId, after);
+        if (!Objects.equals(beforeTenant, afterTenant)) {
+          changes.add(new Change(day, unitId, beforeTenant, after));
+        }
+      }
+    }
+
+    List<UUID> unitIds = new ArrayList<>();
+    List<UUID> tenantIds = new ArrayList<>();
+    initial.forEach(s -> { unitIds.add(s.unitId()); tenantIds.add(s.tenantId()); });
+    changes.forEach(c -> {
+      unitIds.add(c.unitId());
+      tenantIds.add(c.fromTenantId());
+      if (c.to() != null) tenantIds.add(c.to().tenantId());
+    });
+    Names names = names(unitIds, tenantIds);
+
+    List<Map<String, Object>> changeRows = new ArrayList<>();
+    for (Change c : changes) {
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("date", c.date());
+      row.put("unitId", c.unitId());
+      row.put("unitCode", names.units().get(c.unitId()));
+      row.put("fromTenantId", c.fromTenantId());
+      row.put("fromTenantName", names.tenants().get(c.fromTenantId()));
+      row.put("toTenantId", c.to() == null ? null : c.to().tenantId());
+      row.put("toTenantName", c.to() == null ? null : names.tenants().get(c.to().tenantId()));
+      row.put("source", c.to() == null ? null : c.to().source());
+      row.put("sourceId", c.to() == null ? null : c.to().sourceId());
+      changeRows.add(row);
+    }
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", buildingId);
+    payload.put("from", from);
+    payload.put("to", to);
+    payload.put("initial", initial.stream().map(s -> toRow(s, names)).toList());
+    payload.put("changes", changeRows);
+    return payload;
+  }
+
+  OccupancySweep load(UUID buildingId, LocalDate from, LocalDate to) {
+    List<Span> spans = new ArrayList<>();
+    for (Occupancy o : occupancyRepo.findOverlapping(buildingId, OccupancyStatus.DRAFT, from, to)) {
+      spans.add(
+          new Span(
+              o.getUnitId(),
+              o.getTenantId(),
+              OccupancySweep.SOURCE_OCCUPANCY,
+              o.getId(),
+              o.getStartDate(),
+              o.getEndDate()));
+    }
+
+    List<Lease> leases =
+        leaseRepo.findByBuildingIdAndStatusAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+            buildingId, LeaseStatus.ACTIVE, to, from);
+    if (!leases.isEmpty()) {
+      Map<UUID, Lease> byId =
+          leases.stream().collect(Collectors.toMap(Lease::getId, Function.identity()));
+      for (LeaseUnit lu : leaseUnitRepo.findByLeaseIdIn(byId.keySet())) {
+        Lease l = byId.get(lu.getLeaseId());
+        spans.add(
+            new Span(
+                lu.getUnitId(),
+                l.getTenantId(),
+                OccupancySweep.SOURCE_LEASE,
+                l.getId(),
+                l.getStartDate(),
+                l.getEndDate()));
+      }
+    }
+
+    // Occupancies arrive ordered by start date; lease spans are merged in here.
+    spans.sort(Comparator.comparing(Span::startDate));
+    return new OccupancySweep(spans);
+  }
+
+  private Names names(List<UUID> unitIds, List<UUID> tenantIds) {
+    Set<UUID> units = new HashSet<>(unitIds);
+    Set<UUID> tenants = new HashSet<>(tenantIds);
+    units.remove(null);
+    tenants.remove(null);
+    Map<UUID, String> unitCodes = new HashMap<>();
+    Map<UUID, String> tenantNames = new HashMap<>();
+    if (!units.isEmpty()) {
+      unitRepo.findAllById(units).forEach(u -> unitCodes.put(u.getId(), u.getCode()));
+    }
+    if (!tenants.isEmpty()) {
+      tenantRepo.findAllById(tenants).forEach(t -> tenantNames.put(t.getId(), t.getName()));
+    }
+    return new Names(unitCodes, tenantNames);
+  }
+
+  private Map<String, Object> toRow(Span s, Names names) {
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("unitId", s.unitId());
+    row.put("unitCode", names.units().get(s.unitId()));
+    row.put("tenantId", s.tenantId());
+    row.put("tenantName", names.tenants().get(s.tenantId()));
+    row.put("source", s.source());
+    row.put("sourceId", s.sourceId());
+    row.put("startDate", s.startDate());
+    row.put("endDate", s.endDate());
+    return row;
+  }
+
+  private record Change(LocalDate date, UUID unitId, UUID fromTenantId, Span to) {}
+
+  private record Names(Map<UUID, String> units, Map<UUID, String> tenants) {}
+}
@@ -0,0 +1,95 @@
+package com.cre.leaseos.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Replays occupancy and lease span boundaries in date order, keeping the spans active on the last
+ * applied day. Spans must be handed over sorted by start date.
+ */
+final class OccupancySweep {
+  static final String SOURCE_OCCUPANCY = "OCCUPANCY";
+  static final String SOURCE_LEASE = "LEASE";
+
+  private final List<Span> starts;
+  private int next;
+  private final PriorityQueue<Span> ends =
+      new PriorityQueue<>(Comparator.comparing(Span::endExclusive));
+  private final Map<UUID, List<Span>> active = new HashMap<>();
+
+  OccupancySweep(List<Span> starts) {
+    this.starts = starts;
+  }
+
+  /** Applies every boundary on or before {@code day} and returns the units it touched. */
+  Set<UUID> advanceTo(LocalDate day) {
+    Set<UUID> touched = new HashSet<>();
+    while (!ends.isEmpty() && !ends.peek().endExclusive().isAfter(day)) {
+      Span span = ends.poll();
+      List<Span> spans = active.get(span.unitId());
+      spans.remove(span);
+      if (spans.isEmpty()) active.remove(span.unitId());
+      touched.add(span.unitId());
+    }
+    while (next < starts.size() && !starts.get(next).startDate().isAfter(day)) {
+      Span span = starts.get(next++);
+      if (span.endExclusive() != null && !span.endExclusive().isAfter(day)) continue;
+      active.computeIfAbsent(span.unitId(), k -> new ArrayList<>()).add(span);
+      if (span.endExclusive() != null) ends.add(span);
+      touched.add(span.unitId());
+    }
+    return touched;
+  }
+
+  LocalDate nextBoundary() {
+    LocalDate end = ends.isEmpty() ? null : ends.peek().endExclusive();
+    LocalDate start = next < starts.size() ? starts.get(next).startDate() : null;
+    if (end == null) return start;
+    if (start == null) return end;
+    return start.isBefore(end) ? start : end;
+  }
+
+  Span occupant(UUID unitId) {
+    List<Span> spans = active.get(unitId);
+    if (spans == null) return null;
+    Comparator<Span> preference =
+        Comparator.comparing((Span s) -> SOURCE_OCCUPANCY.equals(s.source()))
+            .thenComparing(Span::startDate);
+    return spans.stream().max(preference).orElse(null);
+  }
+
+  List<Span> occupants() {
+    return active.keySet().stream()
+        .map(this::occupant)
+        .sorted(Comparator.comparing(Span::unitId))
+        .toList();
+  }
+
+  /** Units with a span that starts after the last applied day. */
+  Set<UUID> pendingUnits() {
+    Set<UUID> units = new HashSet<>();
+    for (int i = next; i < starts.size(); i++) units.add(starts.get(i).unitId());
+    return units;
+  }
+
+  record Span(
+      UUID unitId,
+      UUID tenantId,
+      String source,
+      UUID sourceId,
+      LocalDate startDate,
+      LocalDate endDate) {
+    /** First day the span no longer covers; end dates are inclusive. */
+    LocalDate endExclusive() {
+      return endDate == null ? null : endDate.plusDays(1);
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.domain.Enums.OutboxEventType;
+import com.cre.leaseos.domain.Enums.OutboxStatus;
+import com.cre.leaseos.domain.OutboxEvent;
+import com.cre.leaseos.repo.OutboxEventRepo;
+import com.cre.leaseos.service.LeaseService.UnitReplacement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies outbox events in batches. A batch is claimed in a short transaction, with SKIP LOCKED and
+ * by pushing {@code availableAt} past a claim timeout, so several instances can poll the same table
+ * and a crashed claim is retried. The side effects and the DONE marks commit together. A failing
+ * batch is replayed one event at a time, and a failing event backs off exponentially until
+ * {@code maxAttempts}, then stays FAILED. Claims are ordered by {@code createdAt} then id, which is
+ * when each event was written rather than when its transaction committed, and each run of
+ * same-type events is applied as one batch. Handlers read the current lease and occupancy state
+ * rather than trusting that order: an activation of a lease already terminated does nothing, and
+ * only ACTIVE occupancies are ended or carried. DONE rows are purged once they are older than
+ * {@code retention}.
+ */
+@Component
+public class OutboxDispatcher {
+  private final OutboxEventRepo outboxEventRepo;
+  private final OutboxService outboxService;
+  private final LeaseService leaseService;
+  private final TransactionTemplate tx;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final Duration claimTimeout;
+  private final Duration retention;
+
+  private final AtomicLong pending = new AtomicLong();
+  private final AtomicLong lagSeconds = new AtomicLong();
+  private final Timer deliveryLag;
+  private final Counter failures;
+
+  public OutboxDispatcher(
+      OutboxEventRepo outboxEventRepo,
+      OutboxService outboxService,
+      LeaseService leaseService,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${leaseos.outbox.batch-size:100}") int batchSize,
+      @Value("${leaseos.outbox.max-attempts:10}") int maxAttempts,
+      @Value("${leaseos.outbox.claim-timeout:PT5M}") Duration claimTimeout,
+      @Value("${leaseos.outbox.retention:P7D}") Duration retention) {
+    this.outboxEventRepo = outboxEventRepo;
+    this.outboxService = outboxService;
+    this.leaseService = leaseService;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+    this.claimTimeout = claimTimeout;
+    this.retention = retention;
+
+    Gauge.builder("leaseos.outbox.pending", pending, AtomicLong::get)
+        .description("Outbox events waiting to be applied")
+        .register(meterRegistry);
+    Gauge.builder("leaseos.outbox.lag", lagSeconds, AtomicLong::get)
+        .description("Age of the oldest pending outbox event")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    this.deliveryLag =
+        Timer.builder("leaseos.outbox.delivery")
+            .description("Time from event commit to its side effects being applied")
+            .register(meterRegistry);
+    this.failures =
+        Counter.builder("leaseos.outbox.failures")
+            .description("Outbox event applications that failed")
+            .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${leaseos.outbox.poll-interval:PT1S}")
+  public void poll() {
+    dispatchPending();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${leaseos.outbox.purge-interval:PT1H}",
+      initialDelayString = "${leaseos.outbox.purge-interval:PT1H}")
+  public void purge() {
+    purgeProcessed();
+  }
+
+  /** Deletes DONE events processed more than {@code retention} ago; FAILED rows are kept. */
+  public int purgeProcessed() {
+    OffsetDateTime before = OffsetDateTime.now().minus(retention);
+    Integer deleted =
+        tx.execute(status -> outboxEventRepo.deleteProcessedBefore(OutboxStatus.DONE, before));
+    return deleted == null ? 0 : deleted;
+  }
+
+  /** Drains every event that is due and returns how many were applied. */
+  public int dispatchPending() {
+    int applied = 0;
+    while (true) {
+      List<OutboxEvent> claimed = claim();
+      if (claimed.isEmpty()) break;
+      applied += apply(claimed);
+      if (claimed.size() < batchSize) break;
+    }
+    refreshLag();
+    return applied;
+  }
+
+  private List<OutboxEvent> claim() {
+    return tx.execute(
+        status -> {
+          OffsetDateTime now = OffsetDateTime.now();
+          List<OutboxEvent> events =
+              outboxEventRepo.findByStatusAndAvailableAtLessThanEqualOrderByAvailableAtAscIdAsc(
+                  OutboxStatus.PENDING, now, Limit.of(batchSize));
+          for (OutboxEvent e : events) {
+            e.setAttempts(e.getAttempts() + 1);
+            e.setAvailableAt(now.plus(claimTimeout));
+          }
+          List<OutboxEvent> ordered = new ArrayList<>(events);
+          ordered.sort(
+              Comparator.comparing(OutboxEvent::getCreatedAt).thenComparing(OutboxEvent::getId));
+          return ordered;
+        });
+  }
+
+  private int apply(List<OutboxEvent> events) {
+    try {
+      tx.executeWithoutResult(
+          status -> {
+            handle(events);
+            markDone(events);
+          });
+      return events.size();
+    } catch (RuntimeException e) {
+      if (events.size() == 1) {
+        fail(events.get(0), e);
+        return 0;
+      }
+      int applied = 0;
+      for (OutboxEvent event : events) applied += apply(List.of(event));
+      return applied;
+    }
+  }
+
+  /** Claimed events arrive in write order; each run of one event type is applied as a batch. */
+  private void handle(List<OutboxEvent> events) {
+    int from = 0;
+    for (int i = 1; i <= events.size(); i++) {
+      if (i == events.size() || events.get(i).getEventType() != events.get(from).getEventType()) {
+        handleRun(events.get(from).getEventType(), events.subList(from, i));
+        from = i;
+      }
+    }
+  }
+
+  private void handleRun(OutboxEventType type, List<OutboxEvent> run) {
+    if (type == OutboxEventType.LEASE_ACTIVATED) {
+      leaseService.applyLeaseActivations(
+          run.stream().map(OutboxEvent::getAggregateId).distinct().toList());
+    } else if (type == OutboxEventType.LEASE_TERMINATED) {
+      Map<UUID, LocalDate> terminated = new HashMap<>();
+      for (OutboxEvent e : run) {
+        Object on = outboxService.readPayload(e).get("terminatedOn");
+        terminated.merge(
+            e.getAggregateId(),
+            on == null ? e.getCreatedAt().toLocalDate() : LocalDate.parse(on.toString()),
+            (a, b) -> a.isBefore(b) ? a : b);
+      }
+      leaseService.applyLeaseTerminations(terminated);
+    } else if (type == OutboxEventType.UNIT_SPLIT || type == OutboxEventType.UNIT_MERGED) {
+      List<UnitReplacement> replacements = new ArrayList<>();
+      for (OutboxEvent e : run) {
+        Map<String, Object> payload = outboxService.readPayload(e);
+        Object on = payload.get("replacedOn");
+        replacements.add(
+            new UnitReplacement(
+                ids(payload.get("retiredUnitIds")),
+                ids(payload.get("unitIds")),
+                on == null ? e.getCreatedAt().toLocalDate() : LocalDate.parse(on.toString())));
+      }
+      leaseService.applyUnitReplacements(replacements);
+    }
+  }
+
+  private static List<UUID> ids(Object values) {
+    if (!(values instanceof List<?> list)) return List.of();
+    return list.stream().map(v -> UUID.fromString(v.toString())).toList();
+  }
+
+  private void markDone(List<OutboxEvent> events) {
+    OffsetDateTime now = OffsetDateTime.now();
+    List<OutboxEvent> rows =
+        outboxEventRepo.findAllById(events.stream().map(OutboxEvent::getId).toList());
+    for (OutboxEvent e : rows) {
+      e.setStatus(OutboxStatus.DONE);
+      e.setProcessedAt(now);
+      e.setLastError(null);
+      deliveryLag.record(Duration.between(e.getCreatedAt(), now));
+    }
+  }
+
+  private void fail(OutboxEvent event, RuntimeException error) {
+    failures.increment();
+    tx.executeWithoutResult(
+        status ->
+            outboxEventRepo
+                .findById(event.getId())
+                .ifPresent(
+                    e -> {
+                      String message = String.valueOf(error.getMessage());
+                      e.setLastError(
+                          message.length() > 1000 ? message.substring(0, 1000) : message);
+                      if (e.getAttempts() >= maxAttempts) {
+                        e.setStatus(OutboxStatus.FAILED);
+                      } else {
+                        long backoff = Math.min(600L, 1L << Math.min(e.getAttempts(), 10));
+                        e.setAvailableAt(OffsetDateTime.now().plusSeconds(backoff));
+                      }
+                    }));
+  }
+
+  private void refreshLag() {
+    pending.set(outboxEventRepo.countByStatus(OutboxStatus.PENDING));
+    lagSeconds.set(
+        outboxEventRepo
+            .findFirstByStatusOrderByCreatedAtAsc(OutboxStatus.PENDING)
+            .map(e -> Duration.between(e.getCreatedAt(), OffsetDateTime.now()).toSeconds())
+            .map(seconds -> Math.max(0L, seconds))
+            .orElse(0L));
+  }
+}
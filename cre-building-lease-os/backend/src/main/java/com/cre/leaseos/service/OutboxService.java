@@ -0,0 +1,53 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.domain.Enums.OutboxEventType;
+import com.cre.leaseos.domain.Enums.OutboxStatus;
+import com.cre.leaseos.domain.OutboxEvent;
+import com.cre.leaseos.repo.OutboxEventRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records domain events in the caller's transaction, so an event exists exactly when the write
+ * that raised it commits. {@link OutboxDispatcher} applies them afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+  private final OutboxEventRepo outboxEventRepo;
+  private final ObjectMapper objectMapper;
+
+  public OutboxEvent publish(OutboxEventType type, UUID aggregateId, Map<String, Object> payload) {
+    OutboxEvent event = new OutboxEvent();
+    event.setEventType(type);
+    event.setAggregateId(aggregateId);
+    event.setPayload(write(payload));
+    event.setStatus(OutboxStatus.PENDING);
+    event.setAttempts(0);
+    event.setAvailableAt(OffsetDateTime.now());
+    return outboxEventRepo.save(event);
+  }
+
+  public Map<String, Object> readPayload(OutboxEvent event) {
+    try {
+      return objectMapper.readValue(
+          event.getPayload(),
+          objectMapper.getTypeFactory().constructMapType(Map.class, String.class, Object.class));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unreadable outbox payload " + event.getId(), e);
+    }
+  }
+
+  private String write(Map<String, Object> payload) {
+    try {
+      return objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Outbox payload is not serializable", e);
+    }
+  }
+}
@@ -1,7 +1,12 @@
 package com.cre.leaseos.service;
 
 import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.common.CursorPage;
+import com.cre.leaseos.common.KeysetPager;
+import com.cre.leaseos.common.ResourceVersion;
+import com.cre.leaseos.common.TransactionHooks;
 import com.cre.leaseos.domain.*;
+import com.cre.leaseos.domain.Enums.RepairCostDimension;
 import com.cre.leaseos.dto.RepairDtos.CommonAreaPatchReq;
 import com.cre.leaseos.dto.RepairDtos.CommonAreaReq;
 import com.cre.leaseos.dto.TenantOwnerVendorDtos.FloorOwnerAssignReq;
@@ -9,18 +14,35 @@ import com.cre.leaseos.dto.TenantOwnerVendorDtos.PartyPatchReq;
 import com.cre.leaseos.dto.TenantOwnerVendorDtos.PartyReq;
 import com.cre.leaseos.repo.*;
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class PartyService {
+  public static final KeysetPager TENANT_SORT =
+      KeysetPager.sortableBy(
+          "createdAt",
+          Map.<String, Function<String, Object>>of(
+              "createdAt", OffsetDateTime::parse, "name", v -> v));
+
   private final BuildingService buildingService;
   private final FloorRepo floorRepo;
   private final TenantRepo tenantRepo;
@@ -29,6 +51,9 @@ public class PartyService {
   private final VendorRepo vendorRepo;
   private final CommonAreaRepo commonAreaRepo;
   private final RepairRecordRepo repairRecordRepo;
+  private final FloorShareLedger floorShareLedger;
+  private final BuildingSearchIndex buildingSearchIndex;
+  private final RepairCostRollups repairCostRollups;
 
   public List<Tenant> listTenants(UUID buildingId) {
     return tenantRepo.findByBuildingIdOrderByCreatedAtDesc(buildingId);
@@ -38,8 +63,25 @@ public class PartyService {
     return tenantRepo.findByBuildingId(buildingId, pageable);
   }
 
+  public CursorPage<Tenant> scrollTenants(
+      UUID buildingId, String sort, String cursor, Integer size, boolean withTotal) {
+    return TENANT_SORT.page(
+        tenantRepo,
+        (root, query, cb) -> cb.equal(root.get("buildingId"), buildingId),
+        sort,
+        cursor,
+        size,
+        withTotal);
+  }
+
   public Tenant createTenant(UUID buildingId, PartyReq req) {
     buildingService.getBuilding(buildingId);
+    Tenant saved = tenantRepo.save(newTenant(buildingId, req));
+    TransactionHooks.afterCommit(() -> buildingSearchIndex.onTenantWritten(saved));
+    return saved;
+  }
+
+  Tenant newTenant(UUID buildingId, PartyReq req) {
     Tenant t = new Tenant();
     t.setBuildingId(buildingId);
     t.setName(req.name());
@@ -48,7 +90,7 @@ public class PartyService {
     t.setContactPhone(req.contactPhone());
     t.setContactEmail(req.contactEmail());
     t.setNotes(req.notes());
-    return tenantRepo.save(t);
+    return t;
   }
 
   public Tenant getTenant(UUID id) {
@@ -66,7 +108,9 @@ public class PartyService {
     if (req.contactEmail() != null) t.setContactEmail(req.contactEmail());
     if (req.notes() != null) t.setNotes(req.notes());
     if (req.isActive() != null) t.setIsActive(req.isActive());
-    return tenantRepo.save(t);
+    Tenant saved = tenantRepo.save(t);
+    TransactionHooks.afterCommit(() -> buildingSearchIndex.onTenantWritten(saved));
+    return saved;
   }
 
   public List<Owner> listOwners(UUID buildingId) {
@@ -87,7 +131,9 @@ public class PartyService {
     o.setContactPhone(req.contactPhone());
     o.setContactEmail(req.contactEmail());
     o.setNotes(req.notes());
-    return ownerRepo.save(o);
+    Owner saved = ownerRepo.save(o);
+    TransactionHooks.afterCommit(() -> buildingSearchIndex.onOwnerWritten(saved));
+    return saved;
   }
 
   public Owner patchOwner(UUID id, PartyPatchReq req) {
@@ -102,13 +148,20 @@ public class PartyService {
     if (req.contactEmail() != null) o.setContactEmail(req.contactEmail());
     if (req.notes() != null) o.setNotes(req.notes());
     if (req.isActive() != null) o.setIsActive(req.isActive());
-    return ownerRepo.save(o);
+    Owner saved = ownerRepo.save(o);
+    TransactionHooks.afterCommit(() -> buildingSearchIndex.onOwnerWritten(saved));
+    return saved;
   }
 
+  /**
+   * The floor row stays locked until commit, so assignments on one floor serialize and the share
+   * ledger is read and updated under that lock. Other floors are not blocked.
+   */
+  @Transactional
   public FloorOwner assignFloorOwner(UUID floorId, FloorOwnerAssignReq req) {
     Floor floor =
         floorRepo
-            .findById(floorId)
+            .lockById(floorId)
             .orElseThrow(() -> new ApiException("NOT_FOUND", "找不到樓層", HttpStatus.NOT_FOUND));
     Owner owner =
         ownerRepo
@@ -130,12 +183,7 @@ public class PartyService {
       throw new ApiException("INVALID_DATE_RANGE", "endDate 不可早於 startDate", HttpStatus.BAD_REQUEST);
     }
 
-    BigDecimal overlapShare =
-        floorOwnerRepo.findByFloorIdOrderByStartDateDesc(floorId).stream()
-            .filter(existing -> overlaps(start, end, existing.getStartDate(), existing.getEndDate()))
-            .map(FloorOwner::getSharePercent)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+    BigDecimal overlapShare = floorShareLedger.maxAllocated(floorId, start, end);
     if (overlapShare.add(req.sharePercent()).compareTo(new BigDecimal("100")) > 0) {
       throw new ApiException(
           "OWNER_SHARE_OVER_ALLOCATED", "同時段樓層持分不可超過 100%", HttpStatus.CONFLICT);
@@ -148,19 +196,34 @@ public class PartyService {
     fo.setStartDate(start);
     fo.setEndDate(end);
     fo.setNotes(req.notes());
-    return floorOwnerRepo.save(fo);
+    FloorOwner saved = floorOwnerRepo.saveAndFlush(fo);
+    ResourceVersion version = floorOwnerRepo.versionOfFloor(floorId);
+    TransactionHooks.afterCommit(() -> floorShareLedger.onAssigned(saved, version));
+    return saved;
   }
 
   public List<FloorOwner> listFloorOwners(UUID floorId) {
     return floorOwnerRepo.findByFloorIdOrderByStartDateDesc(floorId);
   }
 
-  public List<java.util.Map<String, Object>> listFloorOwnersDetailed(UUID floorId) {
-    return floorOwnerRepo.findByFloorIdOrderByStartDateDesc(floorId).stream()
+  public List<Map<String, Object>> listFloorOwnersDetailed(UUID floorId) {
+    List<FloorOwner> rows = floorOwnerRepo.findByFloorIdOrderByStartDateDesc(floorId);
+    Map<UUID, Owner> owners = new HashMap<>();
+    ownerRepo
+        .findAllById(rows.stream().map(FloorOwner::getOwnerId).distinct().toList())
+        .forEach(o -> owners.put(o.getId(), o));
+    return rows.stream()
         .map(
             fo -> {
-              Owner owner = ownerRepo.findById(fo.getOwnerId()).orElse(null);
-              java.util.Map<String, Object> row = new java.util.LinkedHashMap<>();
+              Owner owner = owners.get(fo.getOwnerId());
+              Map<String, Object> summary = null;
+              if (owner != null) {
+                summary = new LinkedHashMap<>();
+                summary.put("id", owner.getId());
+                summary.put("name", owner.getName());
+                summary.put("contactName", owner.getContactName());
+              }
+              Map<String, Object> row = new LinkedHashMap<>();
               row.put("id", fo.getId());
               row.put("floorId", fo.getFloorId());
               row.put("ownerId", fo.getOwnerId());
@@ -168,19 +231,93 @@ public class PartyService {
               row.put("startDate", fo.getStartDate());
               row.put("endDate", fo.getEndDate());
               row.put("notes", fo.getNotes());
-              row.put(
-                  "owner",
-                  owner == null
-                      ? null
-                      : java.util.Map.of(
-                          "id", owner.getId(),
-                          "name", owner.getName(),
-                          "contactName", owner.getContactName()));
+              row.put("owner", summary);
               return row;
             })
         .toList();
   }
 
+  /**
+   * Floors × owners share grid for the days {@code from..to} (inclusive, default today), from two
+   * queries: the building's floors left-joined to their overlapping assignments, and its owners.
+   * Each floor's {@code shares} array follows the {@code owners} order. Each assignment counts with
+   * the fraction of the window it covers, so a cell is the owner's time-weighted share and a floor
+   * never sums past what it held at any instant; for a single day it is the plain share.
+   */
+  public Map<String, Object> ownershipMatrix(UUID buildingId, LocalDate from, LocalDate to) {
+    LocalDate first = from == null ? (to == null ? LocalDate.now() : to) : from;
+    LocalDate last = to == null ? first : to;
+    if (last.isBefore(first)) {
+      throw new ApiException("INVALID_DATE_RANGE", "to 不可早於 from", HttpStatus.BAD_REQUEST);
+    }
+    ZoneId zone = ZoneId.systemDefault();
+    OffsetDateTime windowStart = first.atStartOfDay(zone).toOffsetDateTime();
+    OffsetDateTime windowEnd = last.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+    BigDecimal windowMicros =
+        BigDecimal.valueOf(FloorShareLedger.micros(windowEnd) - FloorShareLedger.micros(windowStart));
+    List<OwnershipCell> cells =
+        floorOwnerRepo.findOwnershipCells(buildingId, windowStart, windowEnd);
+    List<Owner> owners = ownerRepo.findByBuildingIdOrderByNameAsc(buildingId);
+    if (cells.isEmpty() && owners.isEmpty()) buildingService.getBuilding(buildingId);
+
+    Map<UUID, Integer> column = new HashMap<>();
+    List<Map<String, Object>> ownerRows = new ArrayList<>();
+    for (Owner o : owners) {
+      column.put(o.getId(), ownerRows.size());
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("id", o.getId());
+      row.put("name", o.getName());
+      row.put("isActive", o.getIsActive());
+      ownerRows.add(row);
+    }
+
+    Map<UUID, BigDecimal[]> shares = new HashMap<>();
+    List<Map<String, Object>> floorRows = new ArrayList<>();
+    for (OwnershipCell cell : cells) {
+      BigDecimal[] grid =
+          shares.computeIfAbsent(
+              cell.floorId(),
+              id -> {
+                BigDecimal[] empty = new BigDecimal[owners.size()];
+                Arrays.fill(empty, BigDecimal.ZERO);
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("floorId", id);
+                row.put("label", cell.label());
+                row.put("sortIndex", cell.sortIndex());
+                row.put("shares", empty);
+                floorRows.add(row);
+                return empty;
+              });
+      Integer index = cell.ownerId() == null ? null : column.get(cell.ownerId());
+      if (index == null) continue;
+      OffsetDateTime start =
+          cell.startDate().isAfter(windowStart) ? cell.startDate() : windowStart;
+      // Same end convention as the share ledger: the assignment still holds on its endDate.
+      OffsetDateTime until = FloorShareLedger.heldUntil(cell.endDate());
+      OffsetDateTime end = until == null || until.isAfter(windowEnd) ? windowEnd : until;
+      if (!end.isAfter(start)) continue;
+      BigDecimal held =
+          BigDecimal.valueOf(FloorShareLedger.micros(end) - FloorShareLedger.micros(start));
+      grid[index] =
+          grid[index].add(
+              cell.sharePercent().multiply(held).divide(windowMicros, MathContext.DECIMAL64));
+    }
+    for (Map<String, Object> row : floorRows) {
+      BigDecimal[] grid = (BigDecimal[]) row.get("shares");
+      BigDecimal allocated = Arrays.stream(grid).reduce(BigDecimal.ZERO, BigDecimal::add);
+      for (int i = 0; i < grid.length; i++) grid[i] = grid[i].setScale(2, RoundingMode.HALF_UP);
+      row.put("allocatedPercent", allocated.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", buildingId);
+    payload.put("from", first);
+    payload.put("to", last);
+    payload.put("owners", ownerRows);
+    payload.put("floors", floorRows);
+    return payload;
+  }
+
   public void deleteFloorOwner(UUID floorOwnerId) {
     floorOwnerRepo.deleteById(floorOwnerId);
   }
@@ -202,7 +339,9 @@ public class PartyService {
     v.setContactPhone(req.contactPhone());
     v.setContactEmail(req.contactEmail());
     v.setNotes(req.notes());
-    return vendorRepo.save(v);
+    Vendor saved = vendorRepo.save(v);
+    TransactionHooks.afterCommit(() -> buildingSearchIndex.onVendorWritten(saved));
+    return saved;
   }
 
   public Vendor patchVendor(UUID id, PartyPatchReq req) {
@@ -217,7 +356,9 @@ public class PartyService {
     if (req.contactEmail() != null) v.setContactEmail(req.contactEmail());
     if (req.notes() != null) v.setNotes(req.notes());
     if (req.isActive() != null) v.setIsActive(req.isActive());
-    return vendorRepo.save(v);
+    Vendor saved = vendorRepo.save(v);
+    TransactionHooks.afterCommit(() -> buildingSearchIndex.onVendorWritten(saved));
+    return saved;
   }
 
   public List<CommonArea> listCommonAreas(UUID buildingId) {
@@ -238,7 +379,9 @@ public class PartyService {
     c.setCode(req.code());
     c.setDescription(req.description());
     c.setNotes(req.notes());
-    return commonAreaRepo.save(c);
+    CommonArea saved = commonAreaRepo.save(c);
+    TransactionHooks.afterCommit(() -> buildingSearchIndex.onCommonAreaWritten(saved));
+    return saved;
   }
 
   public CommonArea getCommonArea(UUID id) {
@@ -254,9 +397,12 @@ public class PartyService {
     if (req.code() != null) c.setCode(req.code());
     if (req.description() != null) c.setDescription(req.description());
     if (req.notes() != null) c.setNotes(req.notes());
-    return commonAreaRepo.save(c);
+    CommonArea saved = commonAreaRepo.save(c);
+    TransactionHooks.afterCommit(() -> buildingSearchIndex.onCommonAreaWritten(saved));
+    return saved;
   }
 
+  @Transactional
   public void deleteCommonArea(UUID id) {
     CommonArea c = getCommonArea(id);
     if (repairRecordRepo.existsByCommonAreaId(id)) {
@@ -266,12 +412,7 @@ public class PartyService {
           HttpStatus.CONFLICT);
     }
     commonAreaRepo.delete(c);
-  }
-
-  private boolean overlaps(
-      OffsetDateTime aStart, OffsetDateTime aEnd, OffsetDateTime bStart, OffsetDateTime bEnd) {
-    OffsetDateTime effectiveAEnd = aEnd == null ? OffsetDateTime.MAX : aEnd;
-    OffsetDateTime effectiveBEnd = bEnd == null ? OffsetDateTime.MAX : bEnd;
-    return !aStart.isAfter(effectiveBEnd) && !bStart.isAfter(effectiveAEnd);
+    repairCostRollups.forget(RepairCostDimension.COMMON_AREA, List.of(id));
+    TransactionHooks.afterCommit(() -> buildingSearchIndex.onCommonAreaDeleted(c));
   }
 }
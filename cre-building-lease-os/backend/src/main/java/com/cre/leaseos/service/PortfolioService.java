@@ -0,0 +1,162 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.common.CursorPage;
+import com.cre.leaseos.common.KeysetCursor;
+import com.cre.leaseos.domain.Building;
+import com.cre.leaseos.domain.Enums.LeaseStatus;
+import com.cre.leaseos.domain.Enums.RepairStatus;
+import com.cre.leaseos.repo.BuildingMetric;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.LeaseRepo;
+import com.cre.leaseos.repo.PortfolioTotals;
+import com.cre.leaseos.repo.RepairRecordRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Portfolio-wide figures from grouped SQL, one query per metric whatever the number of buildings.
+ * Unit counts and areas come from the building rollup columns. In-force leases, open repairs and
+ * leased area are grouped by building id. Vacancy here is lease-based: current gross area not
+ * covered by an ACTIVE lease on the day. The per-building occupancy view also counts occupancies.
+ *
+ * <p>Everything is read from current state: unit rows, rollups and lease status carry no history
+ * (a lease does not record the day it was terminated), so asOf may be today or a later day to
+ * project in-force leases forward, but never a past day.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortfolioService {
+  private final BuildingRepo buildingRepo;
+  private final LeaseRepo leaseRepo;
+  private final RepairRecordRepo repairRecordRepo;
+  private final UnitRepo unitRepo;
+
+  @Transactional(readOnly = true)
+  public Map<String, Object> summary(LocalDate asOf) {
+    LocalDate day = day(asOf);
+    PortfolioTotals totals = buildingRepo.sumTotals();
+    Metric leases = sum(leaseRepo.sumInForceByBuilding(LeaseStatus.ACTIVE, day));
+    Metric repairs = sum(repairRecordRepo.countOpenByBuilding(RepairStatus.CLOSED));
+    Metric leased = sum(unitRepo.sumLeasedByBuilding(LeaseStatus.ACTIVE, day));
+    BigDecimal grossArea = orZero(totals.grossArea());
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("asOf", day);
+    payload.put("buildings", totals.buildings());
+    payload.put("units", totals.units() == null ? 0 : totals.units());
+    payload.put("grossArea", grossArea);
+    payload.put("netArea", orZero(totals.netArea()));
+    payload.put("balconyArea", orZero(totals.balconyArea()));
+    payload.put("activeLeases", leases.count());
+    payload.put("rent", leases.amount());
+    payload.put("openRepairs", repairs.count());
+    payload.put("openRepairApprovedAmount", repairs.amount());
+    putVacancy(payload, grossArea, leased.amount());
+    return payload;
+  }
+
+  /** One row per building ordered by id; each page costs four queries regardless of its size. */
+  @Transactional(readOnly = true)
+  public CursorPage<Map<String, Object>> buildings(LocalDate asOf, String cursor, Integer size) {
+    LocalDate day = day(asOf);
+    int limit = Math.max(1, Math.min(size == null ? 50 : size, 200));
+    KeysetCursor position = KeysetCursor.decode(cursor);
+    UUID afterId = position == null ? new UUID(0L, 0L) : position.id();
+
+    List<Building> buildings = buildingRepo.findPage(afterId, Limit.of(limit + 1));
+    String next = null;
+    if (buildings.size() > limit) {
+      buildings = buildings.subList(0, limit);
+      next = KeysetCursor.of(buildings.get(limit - 1).getId()).encode();
+    }
+    if (buildings.isEmpty()) return CursorPage.of(List.of(), limit, null);
+
+    List<UUID> ids = buildings.stream().map(Building::getId).toList();
+    Map<UUID, BuildingMetric> leases =
+        byBuilding(leaseRepo.sumInForceByBuilding(LeaseStatus.ACTIVE, day, ids));
+    Map<UUID, BuildingMetric> repairs =
+        byBuilding(repairRecordRepo.countOpenByBuilding(RepairStatus.CLOSED, ids));
+    Map<UUID, BuildingMetric> leased =
+        byBuilding(unitRepo.sumLeasedByBuilding(LeaseStatus.ACTIVE, day, ids));
+
+    List<Map<String, Object>> rows =
+        buildings.stream()
+            .map(
+                b -> {
+                  BuildingMetric lease = leases.get(b.getId());
+                  BuildingMetric repair = repairs.get(b.getId());
+                  BuildingMetric area = leased.get(b.getId());
+                  Map<String, Object> row = new LinkedHashMap<>();
+                  row.put("buildingId", b.getId());
+                  row.put("name", b.getName());
+                  row.put("code", b.getCode());
+                  row.put("units", b.getUnitCount());
+                  row.put("grossArea", b.getTotalGrossArea());
+                  row.put("activeLeases", lease == null ? 0L : lease.count());
+                  row.put("rent", lease == null ? BigDecimal.ZERO : orZero(lease.amount()));
+                  row.put("openRepairs", repair == null ? 0L : repair.count());
+                  putVacancy(
+                      row, b.getTotalGrossArea(), area == null ? BigDecimal.ZERO : area.amount());
+                  return row;
+                })
+            .toList();
+    return CursorPage.of(rows, limit, next);
+  }
+
+  private static LocalDate day(LocalDate asOf) {
+    LocalDate today = LocalDate.now();
+    if (asOf == null) return today;
+    if (asOf.isBefore(today)) {
+      throw new ApiException("INVALID_DATE_RANGE", "asOf 不可早於今日", HttpStatus.BAD_REQUEST);
+    }
+    return asOf;
+  }
+
+  private static void putVacancy(
+      Map<String, Object> row, BigDecimal grossArea, BigDecimal leasedArea) {
+    BigDecimal leased = orZero(leasedArea);
+    BigDecimal vacant = grossArea.subtract(leased).max(BigDecimal.ZERO);
+    row.put("leasedArea", leased);
+    row.put("vacantArea", vacant);
+    row.put(
+        "vacancyRate",
+        grossArea.signum() == 0
+            ? BigDecimal.ZERO
+            : vacant.multiply(BigDecimal.valueOf(100)).divide(grossArea, 2, RoundingMode.HALF_UP));
+  }
+
+  private static Map<UUID, BuildingMetric> byBuilding(List<BuildingMetric> metrics) {
+    Map<UUID, BuildingMetric> result = new HashMap<>();
+    metrics.forEach(m -> result.put(m.buildingId(), m));
+    return result;
+  }
+
+  private static Metric sum(List<BuildingMetric> metrics) {
+    long count = 0;
+    BigDecimal amount = BigDecimal.ZERO;
+    for (BuildingMetric m : metrics) {
+      count += m.count();
+      amount = amount.add(orZero(m.amount()));
+    }
+    return new Metric(count, amount);
+  }
+
+  private static BigDecimal orZero(BigDecimal value) {
+    return value == null ? BigDecimal.ZERO : value;
+  }
+
+  private record Metric(long count, BigDecimal amount) {}
+}
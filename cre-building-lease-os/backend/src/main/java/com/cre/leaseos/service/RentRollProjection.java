@@ -0,0 +1,273 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.common.ResourceVersion;
+import com.cre.leaseos.domain.Building;
+import com.cre.leaseos.domain.Enums.LeaseStatus;
+import com.cre.leaseos.domain.Floor;
+import com.cre.leaseos.domain.Lease;
+import com.cre.leaseos.domain.LeaseUnit;
+import com.cre.leaseos.domain.Unit;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.FloorRepo;
+import com.cre.leaseos.repo.LeaseRepo;
+import com.cre.leaseos.repo.LeaseUnitRepo;
+import com.cre.leaseos.repo.TenantRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory rent roll per building: current units plus the ACTIVE lease terms on each of them.
+ * A building is loaded on first read and stamped with the combined {@link ResourceVersion} of its
+ * units, leases, lease_units and building row; every read compares that stamp in one query per
+ * table, so writes from any instance trigger a reload. Committed lease, unit and building writes
+ * on this instance are patched in, so a warm read only adds tenant names and floor labels. See
+ * {@link BuildingCache} for the bound and expiry.
+ */
+@Component
+public class RentRollProjection {
+  private final BuildingRepo buildingRepo;
+  private final FloorRepo floorRepo;
+  private final UnitRepo unitRepo;
+  private final LeaseRepo leaseRepo;
+  private final LeaseUnitRepo leaseUnitRepo;
+  private final TenantRepo tenantRepo;
+  private final BuildingCache<BuildingRoll> rolls;
+
+  public RentRollProjection(
+      BuildingRepo buildingRepo,
+      FloorRepo floorRepo,
+      UnitRepo unitRepo,
+      LeaseRepo leaseRepo,
+      LeaseUnitRepo leaseUnitRepo,
+      TenantRepo tenantRepo,
+      @Value("${leaseos.rent-roll.max-buildings:200}") int maxBuildings,
+      @Value("${leaseos.rent-roll.max-age:PT10M}") Duration maxAge) {
+    this.buildingRepo = buildingRepo;
+    this.floorRepo = floorRepo;
+    this.unitRepo = unitRepo;
+    this.leaseRepo = leaseRepo;
+    this.leaseUnitRepo = leaseUnitRepo;
+    this.tenantRepo = tenantRepo;
+    this.rolls = new BuildingCache<>(this::versionOf, maxBuildings, maxAge);
+  }
+
+  public Map<String, Object> getRentRoll(UUID buildingId, LocalDate asOf) {
+    BuildingRoll roll = rolls.get(buildingId, this::load);
+    LocalDate day = asOf == null ? LocalDate.now() : asOf;
+    List<Map<String, Object>> rows;
+    BigDecimal buildingFee;
+    synchronized (roll) {
+      buildingFee = roll.managementFee;
+      rows = new ArrayList<>();
+      for (UnitRow unit : roll.units.values()) {
+        LeaseTerm term =
+            roll.leasesByUnit.getOrDefault(unit.id(), Map.of()).values().stream()
+                .filter(t -> !t.startDate().isAfter(day) && !t.endDate().isBefore(day))
+                .findFirst()
+                .orElse(null);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("unitId", unit.id());
+        row.put("floorId", unit.floorId());
+        row.put("unitCode", unit.code());
+        row.put("grossArea", unit.grossArea());
+        row.put("leaseId", term == null ? null : term.leaseId());
+        row.put("tenantId", term == null ? null : term.tenantId());
+        row.put("startDate", term == null ? null : term.startDate());
+        row.put("endDate", term == null ? null : term.endDate());
+        row.put("rent", term == null ? null : term.rent());
+        row.put(
+            "managementFee",
+            term == null ? null : term.managementFee() != null ? term.managementFee() : buildingFee);
+        row.put("deposit", term == null ? null : term.deposit());
+        rows.add(row);
+      }
+    }
+
+    Set<UUID> tenantIds = new HashSet<>();
+    rows.forEach(r -> { if (r.get("tenantId") != null) tenantIds.add((UUID) r.get("tenantId")); });
+    Map<UUID, String> tenantNames = new HashMap<>();
+    if (!tenantIds.isEmpty()) {
+      tenantRepo.findAllById(tenantIds).forEach(t -> tenantNames.put(t.getId(), t.getName()));
+    }
+    Map<UUID, Floor> floors =
+        floorRepo.findByBuildingIdOrderBySortIndexAsc(buildingId).stream()
+            .collect(Collectors.toMap(Floor::getId, Function.identity()));
+
+    BigDecimal grossArea = BigDecimal.ZERO;
+    BigDecimal leasedArea = BigDecimal.ZERO;
+    BigDecimal rent = BigDecimal.ZERO;
+    BigDecimal managementFee = BigDecimal.ZERO;
+    BigDecimal deposit = BigDecimal.ZERO;
+    int leasedUnits = 0;
+    for (Map<String, Object> row : rows) {
+      Floor floor = floors.get((UUID) row.get("floorId"));
+      row.put("floorLabel", floor == null ? null : floor.getLabel());
+      row.put("floorSortIndex", floor == null ? null : floor.getSortIndex());
+      row.put("tenantName", tenantNames.get((UUID) row.get("tenantId")));
+      grossArea = grossArea.add((BigDecimal) row.get("grossArea"));
+      if (row.get("leaseId") == null) continue;
+      leasedUnits++;
+      leasedArea = leasedArea.add((BigDecimal) row.get("grossArea"));
+      rent = rent.add(orZero(row.get("rent")));
+      managementFee = managementFee.add(orZero(row.get("managementFee")));
+      deposit = deposit.add(orZero(row.get("deposit")));
+    }
+    rows.sort(
+        Comparator.comparing(
+                (Map<String, Object> r) -> (Integer) r.get("floorSortIndex"),
+                Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(r -> (String) r.get("unitCode")));
+
+    Map<String, Object> totals = new LinkedHashMap<>();
+    totals.put("units", rows.size());
+    totals.put("leasedUnits", leasedUnits);
+    totals.put("grossArea", grossArea);
+    totals.put("leasedArea", leasedArea);
+    totals.put("rent", rent);
+    totals.put("managementFee", managementFee);
+    totals.put("deposit", deposit);
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", buildingId);
+    payload.put("asOf", day);
+    payload.put("buildingManagementFee", buildingFee);
+    payload.put("rows", rows);
+    payload.put("totals", totals);
+    return payload;
+  }
+
+  public void onLeaseWritten(Lease lease, Collection<UUID> unitIds) {
+    rolls.patch(
+        lease.getBuildingId(),
+        roll -> {
+          roll.removeLease(lease.getId());
+          if (lease.getStatus() == LeaseStatus.ACTIVE) {
+            roll.putLease(LeaseTerm.of(lease), unitIds);
+          }
+        });
+  }
+
+  public void onUnitsChanged(UUID buildingId, Collection<UUID> retiredUnitIds, Collection<Unit> units) {
+    rolls.patch(
+        buildingId,
+        roll -> {
+          retiredUnitIds.forEach(roll.units::remove);
+          for (Unit u : units) {
+            if (Boolean.TRUE.equals(u.getIsCurrent())) roll.units.put(u.getId(), UnitRow.of(u));
+          }
+        });
+  }
+
+  public void onBuildingChanged(Building building) {
+    rolls.patch(building.getId(), roll -> roll.managementFee = building.getManagementFee());
+  }
+
+  /** Tenant merges re-point leases in bulk; the building reloads on its next read. */
+  public void onTenantsMerged(UUID buildingId) {
+    rolls.remove(buildingId);
+  }
+
+  private BuildingRoll load(UUID buildingId) {
+    Building building =
+        buildingRepo
+            .findById(buildingId)
+            .orElseThrow(() -> new ApiException("NOT_FOUND", "找不到大樓", HttpStatus.NOT_FOUND));
+    BuildingRoll roll = new BuildingRoll();
+    roll.managementFee = building.getManagementFee();
+    for (Unit u : unitRepo.findByBuildingIdAndIsCurrentTrueOrderByCreatedAtDesc(buildingId)) {
+      roll.units.put(u.getId(), UnitRow.of(u));
+    }
+    Map<UUID, List<UUID>> unitIdsByLease =
+        leaseUnitRepo.findActiveByBuildingId(buildingId).stream()
+            .collect(
+                Collectors.groupingBy(
+                    LeaseUnit::getLeaseId,
+                    Collectors.mapping(LeaseUnit::getUnitId, Collectors.toList())));
+    for (Lease lease : leaseRepo.findByBuildingIdAndStatus(buildingId, LeaseStatus.ACTIVE)) {
+      roll.putLease(LeaseTerm.of(lease), unitIdsByLease.getOrDefault(lease.getId(), List.of()));
+    }
+    return roll;
+  }
+
+  /** Retired units count too: retiring one moves its {@code updatedAt}. */
+  private ResourceVersion versionOf(UUID buildingId) {
+    return buildingRepo
+        .versionOf(buildingId)
+        .and(unitRepo.versionOfBuilding(buildingId))
+        .and(leaseRepo.versionOfBuilding(buildingId))
+        .and(leaseUnitRepo.versionOfBuilding(buildingId));
+  }
+
+  private static BigDecimal orZero(Object value) {
+    return value == null ? BigDecimal.ZERO : (BigDecimal) value;
+  }
+
+  private static final class BuildingRoll {
+    private BigDecimal managementFee;
+    private final Map<UUID, UnitRow> units = new HashMap<>();
+    private final Map<UUID, Map<UUID, LeaseTerm>> leasesByUnit = new HashMap<>();
+    private final Map<UUID, Collection<UUID>> unitsByLease = new HashMap<>();
+
+    void putLease(LeaseTerm term, Collection<UUID> unitIds) {
+      unitsByLease.put(term.leaseId(), List.copyOf(unitIds));
+      for (UUID unitId : unitIds) {
+        leasesByUnit.computeIfAbsent(unitId, k -> new LinkedHashMap<>()).put(term.leaseId(), term);
+      }
+    }
+
+    void removeLease(UUID leaseId) {
+      Collection<UUID> unitIds = unitsByLease.remove(leaseId);
+      if (unitIds == null) return;
+      for (UUID unitId : unitIds) {
+        Map<UUID, LeaseTerm> terms = leasesByUnit.get(unitId);
+        if (terms == null) continue;
+        terms.remove(leaseId);
+        if (terms.isEmpty()) leasesByUnit.remove(unitId);
+      }
+    }
+  }
+
+  private record UnitRow(UUID id, UUID floorId, String code, BigDecimal grossArea) {
+    static UnitRow of(Unit u) {
+      return new UnitRow(u.getId(), u.getFloorId(), u.getCode(), u.getGrossArea());
+    }
+  }
+
+  private record LeaseTerm(
+      UUID leaseId,
+      UUID tenantId,
+      LocalDate startDate,
+      LocalDate endDate,
+      BigDecimal rent,
+      BigDecimal managementFee,
+      BigDecimal deposit) {
+    static LeaseTerm of(Lease l) {
+      return new LeaseTerm(
+          l.getId(),
+          l.getTenantId(),
+          l.getStartDate(),
+          l.getEndDate(),
+          l.getRent(),
+          l.getManagementFee(),
+          l.getDeposit());
+    }
+  }
+}
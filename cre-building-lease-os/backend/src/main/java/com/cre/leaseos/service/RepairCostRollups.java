@@ -0,0 +1,349 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.domain.Enums.RepairCostDimension;
+import com.cre.leaseos.domain.Enums.RepairStatus;
+import com.cre.leaseos.domain.RepairCostRollup;
+import com.cre.leaseos.domain.RepairRecord;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.CommonAreaRepo;
+import com.cre.leaseos.repo.FloorRepo;
+import com.cre.leaseos.repo.RepairCostRollupRepo;
+import com.cre.leaseos.repo.RepairCostTotals;
+import com.cre.leaseos.repo.VendorRepo;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repair cost totals per building, floor, common area and vendor, by month of report. A repair
+ * write takes a {@link Contribution} of the record before and after it changes and applies the
+ * difference as relative {@code set x = x + :d} updates in the same transaction; rejected repairs
+ * contribute nothing. The building row of each touched month is updated first, even by a zero
+ * delta, and its row lock serializes every writer of that building and month, so a floor, common
+ * area or vendor row can be inserted without a race. Only the first repair of a building and month
+ * has no such row yet; it takes the building row lock, which Hibernate renders as {@code FOR NO KEY
+ * UPDATE} on PostgreSQL, so inserts of units or repairs that check their key against the building
+ * are not blocked. Reports then read O(groups x months) rows and skip groups whose floor, common
+ * area or vendor no longer exists.
+ */
+@Service
+@RequiredArgsConstructor
+public class RepairCostRollups {
+  public static final int MAX_REPORT_MONTHS = 120;
+
+  private static final Comparator<Key> KEY_ORDER =
+      Comparator.comparing(Key::dimension)
+          .thenComparing(Key::dimensionId)
+          .thenComparing(Key::monthStart);
+
+  private final RepairCostRollupRepo rollupRepo;
+  private final BuildingRepo buildingRepo;
+  private final FloorRepo floorRepo;
+  private final CommonAreaRepo commonAreaRepo;
+  private final VendorRepo vendorRepo;
+
+  public enum GroupBy {
+    BUILDING,
+    FLOOR,
+    COMMON_AREA,
+    VENDOR,
+    MONTH
+  }
+
+  /** What a repair adds to the rollups as it stands now; take it before mutating the record. */
+  public static Contribution contribution(RepairRecord r) {
+    if (r.getStatus() == RepairStatus.REJECTED || r.getReportedAt() == null) return null;
+    return new Contribution(
+        r.getBuildingId(),
+        r.getFloorId(),
+        r.getCommonAreaId(),
+        r.getVendorId(),
+        r.getReportedAt().withDayOfMonth(1),
+        r.getQuoteAmount(),
+        r.getApprovedAmount(),
+        r.getFinalAmount());
+  }
+
+  /** Swaps {@code before} (null for a new repair) for {@code after} (null once it drops out). */
+  @Transactional
+  public void apply(Contribution before, Contribution after) {
+    Map<Key, Totals> deltas = new TreeMap<>(KEY_ORDER);
+    if (before != null) before.addTo(deltas, -1);
+    if (after != null) after.addTo(deltas, 1);
+
+    OffsetDateTime now = OffsetDateTime.now();
+    for (Map.Entry<Key, Totals> e : deltas.entrySet()) {
+      Key key = e.getKey();
+      Totals t = e.getValue();
+      boolean building = key.dimension() == RepairCostDimension.BUILDING;
+      if (t.isZero() && !building) continue;
+      if (add(key, t, now) > 0) continue;
+      if (building) {
+        buildingRepo.lockById(key.buildingId());
+        if (add(key, t, now) > 0) continue;
+      }
+      rollupRepo.save(t.toRow(key));
+    }
+  }
+
+  /**
+   * Drops the rows of deleted floors or common areas. Those deletes are refused while a repair
+   * points at them, so the rows only hold totals zeroed by repairs that moved elsewhere.
+   */
+  @Transactional
+  public void forget(RepairCostDimension dimension, Collection<UUID> ids) {
+    if (!ids.isEmpty()) rollupRepo.deleteByDimension(dimension, ids);
+  }
+
+  @Transactional(readOnly = true)
+  public Map<String, Object> report(UUID buildingId, String groupBy, YearMonth from, YearMonth to) {
+    checkRange(from, to);
+    if (!buildingRepo.existsById(buildingId)) {
+      throw new ApiException("NOT_FOUND", "找不到大樓", HttpStatus.NOT_FOUND);
+    }
+    GroupBy group = parseGroupBy(groupBy);
+    LocalDate start = from.atDay(1);
+    LocalDate end = to.atDay(1);
+
+    List<Map<String, Object>> groups = new ArrayList<>();
+    switch (group) {
+      case MONTH -> {
+        for (RepairCostTotals t : rollupRepo.sumByMonth(buildingId, start, end)) {
+          Map<String, Object> row = new LinkedHashMap<>();
+          row.put("month", YearMonth.from(t.month()).toString());
+          groups.add(withAmounts(row, t));
+        }
+      }
+      case BUILDING -> {}
+      default -> {
+        RepairCostDimension dimension = RepairCostDimension.valueOf(group.name());
+        List<RepairCostTotals> rows = rollupRepo.sumByKey(buildingId, dimension, start, end);
+        Map<UUID, String> labels = labels(dimension, rows);
+        rows.stream()
+            .filter(t -> labels.containsKey(t.key()))
+            .sorted(
+                Comparator.comparing(RepairCostTotals::quoteAmount, Comparator.reverseOrder())
+                    .thenComparing(t -> labels.getOrDefault(t.key(), "")))
+            .forEach(
+                t -> {
+                  Map<String, Object> row = new LinkedHashMap<>();
+                  row.put("id", t.key());
+                  row.put("label", labels.get(t.key()));
+                  groups.add(withAmounts(row, t));
+                });
+      }
+    }
+
+    List<RepairCostTotals> building =
+        rollupRepo.sumByKey(buildingId, RepairCostDimension.BUILDING, start, end);
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", buildingId);
+    payload.put("groupBy", group);
+    payload.put("from", from.toString());
+    payload.put("to", to.toString());
+    payload.put(
+        "totals",
+        withAmounts(new LinkedHashMap<>(), building.isEmpty() ? null : building.get(0)));
+    payload.put("groups", groups);
+    return payload;
+  }
+
+  /** One row per building with repairs reported in the window, largest quoted total first. */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> portfolio(YearMonth from, YearMonth to) {
+    checkRange(from, to);
+    List<RepairCostTotals> rows = rollupRepo.sumByBuilding(from.atDay(1), to.atDay(1));
+    Map<UUID, String> names = new HashMap<>();
+    buildingRepo
+        .findAllById(rows.stream().map(RepairCostTotals::key).toList())
+        .forEach(b -> names.put(b.getId(), b.getName()));
+
+    List<Map<String, Object>> result = new ArrayList<>();
+    rows.stream()
+        .sorted(Comparator.comparing(RepairCostTotals::quoteAmount, Comparator.reverseOrder()))
+        .forEach(
+            t -> {
+              Map<String, Object> row = new LinkedHashMap<>();
+              row.put("buildingId", t.key());
+              row.put("name", names.get(t.key()));
+              result.add(withAmounts(row, t));
+            });
+    return result;
+  }
+
+  private int add(Key key, Totals t, OffsetDateTime now) {
+    return rollupRepo.addCosts(
+        key.buildingId(),
+        key.dimension(),
+        key.dimensionId(),
+        key.monthStart(),
+        t.repairCount,
+        t.quote,
+        t.approved,
+        t.finalAmount,
+        t.approvedQuote,
+        t.settledApproved,
+        t.settledFinal,
+        now);
+  }
+
+  private Map<UUID, String> labels(RepairCostDimension dimension, List<RepairCostTotals> rows) {
+    List<UUID> ids = rows.stream().map(RepairCostTotals::key).toList();
+    Map<UUID, String> labels = new HashMap<>();
+    switch (dimension) {
+      case FLOOR -> floorRepo.findAllById(ids).forEach(f -> labels.put(f.getId(), f.getLabel()));
+      case COMMON_AREA ->
+          commonAreaRepo.findAllById(ids).forEach(c -> labels.put(c.getId(), c.getName()));
+      case VENDOR -> vendorRepo.findAllById(ids).forEach(v -> labels.put(v.getId(), v.getName()));
+      default -> {}
+    }
+    return labels;
+  }
+
+  private static Map<String, Object> withAmounts(Map<String, Object> row, RepairCostTotals t) {
+    row.put("repairCount", t == null ? 0L : t.repairCount());
+    row.put("quoteAmount", t == null ? BigDecimal.ZERO : t.quoteAmount());
+    row.put("approvedAmount", t == null ? BigDecimal.ZERO : t.approvedAmount());
+    row.put("finalAmount", t == null ? BigDecimal.ZERO : t.finalAmount());
+    row.put(
+        "approvalVarianceRate",
+        t == null ? null : variance(t.approvedAmount(), t.approvedQuoteAmount()));
+    row.put(
+        "overrunRate",
+        t == null ? null : variance(t.settledFinalAmount(), t.settledApprovedAmount()));
+    return row;
+  }
+
+  /** {@code (actual - planned) / planned} in percent, or null when nothing was planned. */
+  private static BigDecimal variance(BigDecimal actual, BigDecimal planned) {
+    if (planned == null || planned.signum() == 0) return null;
+    return actual
+        .subtract(planned)
+        .multiply(BigDecimal.valueOf(100))
+        .divide(planned, 2, RoundingMode.HALF_UP);
+  }
+
+  private static void checkRange(YearMonth from, YearMonth to) {
+    if (from == null || to == null || to.isBefore(from)) {
+      throw new ApiException(
+          "INVALID_DATE_RANGE", "需提供 from 與 to，且 to 不可早於 from", HttpStatus.BAD_REQUEST);
+    }
+    if (from.plusMonths(MAX_REPORT_MONTHS).isBefore(to.plusMonths(1))) {
+      throw new ApiException(
+          "INVALID_DATE_RANGE", "區間最多 " + MAX_REPORT_MONTHS + " 個月", HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  private static GroupBy parseGroupBy(String raw) {
+    if (raw == null || raw.isBlank()) return GroupBy.BUILDING;
+    try {
+      return GroupBy.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new ApiException(
+          "INVALID_GROUP_BY",
+          "不支援的分組方式：" + raw,
+          HttpStatus.BAD_REQUEST,
+          Map.of("allowed", Arrays.stream(GroupBy.values()).map(Enum::name).toList()));
+    }
+  }
+
+  /** A repair's amounts and the groups it falls into; null amounts count as nothing. */
+  public record Contribution(
+      UUID buildingId,
+      UUID floorId,
+      UUID commonAreaId,
+      UUID vendorId,
+      LocalDate monthStart,
+      BigDecimal quote,
+      BigDecimal approved,
+      BigDecimal finalAmount) {
+
+    void addTo(Map<Key, Totals> deltas, int sign) {
+      add(deltas, RepairCostDimension.BUILDING, buildingId, sign);
+      add(deltas, RepairCostDimension.FLOOR, floorId, sign);
+      add(deltas, RepairCostDimension.COMMON_AREA, commonAreaId, sign);
+      add(deltas, RepairCostDimension.VENDOR, vendorId, sign);
+    }
+
+    private void add(
+        Map<Key, Totals> deltas, RepairCostDimension dimension, UUID dimensionId, int sign) {
+      if (dimensionId == null) return;
+      Key key = new Key(buildingId, dimension, dimensionId, monthStart);
+      deltas.computeIfAbsent(key, k -> new Totals()).add(this, sign);
+    }
+  }
+
+  private record Key(
+      UUID buildingId, RepairCostDimension dimension, UUID dimensionId, LocalDate monthStart) {}
+
+  private static final class Totals {
+    private long repairCount;
+    private BigDecimal quote = BigDecimal.ZERO;
+    private BigDecimal approved = BigDecimal.ZERO;
+    private BigDecimal finalAmount = BigDecimal.ZERO;
+    private BigDecimal approvedQuote = BigDecimal.ZERO;
+    private BigDecimal settledApproved = BigDecimal.ZERO;
+    private BigDecimal settledFinal = BigDecimal.ZERO;
+
+    void add(Contribution c, int sign) {
+      repairCount += sign;
+      quote = quote.add(signed(c.quote(), sign));
+      approved = approved.add(signed(c.approved(), sign));
+      finalAmount = finalAmount.add(signed(c.finalAmount(), sign));
+      if (c.approved() != null) approvedQuote = approvedQuote.add(signed(c.quote(), sign));
+      if (c.approved() != null && c.finalAmount() != null) {
+        settledApproved = settledApproved.add(signed(c.approved(), sign));
+        settledFinal = settledFinal.add(signed(c.finalAmount(), sign));
+      }
+    }
+
+    boolean isZero() {
+      return repairCount == 0
+          && quote.signum() == 0
+          && approved.signum() == 0
+          && finalAmount.signum() == 0
+          && approvedQuote.signum() == 0
+          && settledApproved.signum() == 0
+          && settledFinal.signum() == 0;
+    }
+
+    RepairCostRollup toRow(Key key) {
+      RepairCostRollup row = new RepairCostRollup();
+      row.setBuildingId(key.buildingId());
+      row.setDimension(key.dimension());
+      row.setDimensionId(key.dimensionId());
+      row.setMonthStart(key.monthStart());
+      row.setRepairCount(repairCount);
+      row.setQuoteAmount(quote);
+      row.setApprovedAmount(approved);
+      row.setFinalAmount(finalAmount);
+      row.setApprovedQuoteAmount(approvedQuote);
+      row.setSettledApprovedAmount(settledApproved);
+      row.setSettledFinalAmount(settledFinal);
+      return row;
+    }
+
+    private static BigDecimal signed(BigDecimal value, int sign) {
+      if (value == null) return BigDecimal.ZERO;
+      return sign < 0 ? value.negate() : value;
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package com.cre.leaseos.service;
 
 import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.common.CursorPage;
+import com.cre.leaseos.common.KeysetPager;
 import com.cre.leaseos.domain.RepairAttachment;
 import com.cre.leaseos.domain.RepairRecord;
 import com.cre.leaseos.domain.Enums.RepairScopeType;
@@ -8,7 +10,9 @@ import com.cre.leaseos.domain.Enums.RepairStatus;
 import com.cre.leaseos.dto.RepairDtos.RepairPatchReq;
 import com.cre.leaseos.dto.RepairDtos.RepairReq;
 import com.cre.leaseos.repo.RepairAttachmentRepo;
+import com.cre.leaseos.repo.RepairFilter;
 import com.cre.leaseos.repo.RepairRecordRepo;
+import com.cre.leaseos.repo.RepairSpecs;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.Files;
@@ -17,57 +21,80 @@ import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
 @RequiredArgsConstructor
 public class RepairService {
+  public static final KeysetPager REPAIR_SORT =
+      KeysetPager.sortableBy(
+          "createdAt",
+          Map.<String, Function<String, Object>>of(
+              "createdAt", OffsetDateTime::parse, "reportedAt", LocalDate::parse));
+
   private final RepairRecordRepo repairRecordRepo;
   private final RepairAttachmentRepo attachmentRepo;
+  private final RepairCostRollups repairCostRollups;
 
-  public List<RepairRecord> listRepairs(
-      UUID buildingId,
-      RepairStatus status,
-      RepairScopeType scopeType,
-      UUID floorId,
-      UUID commonAreaId) {
+  public List<RepairRecord> listRepairs(RepairFilter filter) {
     return repairRecordRepo
-        .filter(
-            buildingId,
-            status,
-            scopeType,
-            floorId,
-            commonAreaId,
-            org.springframework.data.domain.PageRequest.of(0, 1000))
+        .findAll(
+            RepairSpecs.filter(validated(filter)),
+            PageRequest.of(0, 1000, Sort.by(Sort.Direction.DESC, "createdAt")))
         .getContent();
   }
 
-  public Page<RepairRecord> listRepairs(
-      UUID buildingId,
-      RepairStatus status,
-      RepairScopeType scopeType,
-      UUID floorId,
-      UUID commonAreaId,
-      Pageable pageable) {
-    return repairRecordRepo.filter(buildingId, status, scopeType, floorId, commonAreaId, pageable);
+  public Page<RepairRecord> listRepairs(RepairFilter filter, Pageable pageable) {
+    return repairRecordRepo.findAll(RepairSpecs.filter(validated(filter)), pageable);
+  }
+
+  public CursorPage<RepairRecord> scrollRepairs(
+      RepairFilter filter, String sort, String cursor, Integer size, boolean withTotal) {
+    return REPAIR_SORT.page(
+        repairRecordRepo,
+        RepairSpecs.filter(validated(filter)),
+        sort,
+        cursor,
+        size,
+        withTotal);
   }
 
   public List<RepairRecord> listFloorRepairs(UUID buildingId, UUID floorId) {
     return repairRecordRepo.findByBuildingIdAndFloorIdOrderByCreatedAtDesc(buildingId, floorId);
   }
 
+  private static RepairFilter validated(RepairFilter filter) {
+    if (filter.reportedFrom() != null
+        && filter.reportedTo() != null
+        && filter.reportedFrom().isAfter(filter.reportedTo())) {
+      throw new ApiException("INVALID_DATE_RANGE", "報修日期區間錯誤", HttpStatus.BAD_REQUEST);
+    }
+    if (filter.minAmount() != null
+        && filter.maxAmount() != null
+        && filter.minAmount().compareTo(filter.maxAmount()) > 0) {
+      throw new ApiException("INVALID_AMOUNT_RANGE", "金額區間錯誤", HttpStatus.BAD_REQUEST);
+    }
+    return filter;
+  }
+
   public RepairRecord getRepair(UUID id) {
     return repairRecordRepo
         .findById(id)
         .orElseThrow(() -> new ApiException("NOT_FOUND", "找不到維修紀錄", HttpStatus.NOT_FOUND));
   }
 
+  @Transactional
   public RepairRecord createRepair(RepairReq req) {
     validateRepair(req.scopeType(), req.floorId(), req.commonAreaId(), req.status(), req.acceptanceResult(), req.inspectorName());
 
@@ -97,11 +124,15 @@ public class RepairService {
     }
     r.setNotes(req.notes());
 
-    return repairRecordRepo.save(r);
+    RepairRecord saved = repairRecordRepo.save(r);
+    repairCostRollups.apply(null, RepairCostRollups.contribution(r));
+    return saved;
   }
 
+  @Transactional
   public RepairRecord patchRepair(UUID id, RepairPatchReq req) {
     RepairRecord r = getRepair(id);
+    RepairCostRollups.Contribution before = RepairCostRollups.contribution(r);
 
     RepairScopeType scope = req.scopeType() == null ? r.getScopeType() : req.scopeType();
     UUID floorId = req.floorId() == null ? r.getFloorId() : req.floorId();
@@ -134,7 +165,9 @@ public class RepairService {
     }
     if (req.notes() != null) r.setNotes(req.notes());
 
-    return repairRecordRepo.save(r);
+    RepairRecord saved = repairRecordRepo.save(r);
+    repairCostRollups.apply(before, RepairCostRollups.contribution(r));
+    return saved;
   }
 
   public RepairAttachment addAttachment(UUID repairId, MultipartFile file) {
@@ -0,0 +1,46 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ResourceVersion;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.FloorRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Aggregate-only versions of the polled building and floor reads. Each method issues count/max
+ * queries and never hydrates entities, so a matching {@code If-None-Match} costs no more than the
+ * aggregates. For single resources an empty version means the row does not exist and the caller
+ * should fall through to the normal (404) path; for lists it is simply the empty list's version.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResourceVersions {
+  private final BuildingRepo buildingRepo;
+  private final FloorRepo floorRepo;
+  private final UnitRepo unitRepo;
+
+  @Transactional(readOnly = true)
+  public ResourceVersion buildings() {
+    return buildingRepo.versionOfAll();
+  }
+
+  @Transactional(readOnly = true)
+  public ResourceVersion building(UUID buildingId) {
+    return buildingRepo.versionOf(buildingId);
+  }
+
+  @Transactional(readOnly = true)
+  public ResourceVersion floors(UUID buildingId) {
+    return floorRepo.versionOfBuilding(buildingId);
+  }
+
+  @Transactional(readOnly = true)
+  public ResourceVersion floor(UUID floorId) {
+    ResourceVersion floor = floorRepo.versionOf(floorId);
+    if (floor.isEmpty()) return ResourceVersion.EMPTY;
+    return floor.and(unitRepo.versionOfFloor(floorId));
+  }
+}
@@ -0,0 +1,394 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.common.TransactionHooks;
+import com.cre.leaseos.domain.Tenant;
+import com.cre.leaseos.dto.TenantOwnerVendorDtos.PartyReq;
+import com.cre.leaseos.repo.LeaseRepo;
+import com.cre.leaseos.repo.OccupancyRepo;
+import com.cre.leaseos.repo.TenantRepo;
+import java.text.Normalizer;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tenant identity within a building. Every party gets up to two blocking keys: the digits of its
+ * tax id, and its name with width, spacing, punctuation, 臺/台 and company-suffix variants folded
+ * away. A shared tax id makes two parties the same tenant. A shared name only does when at most
+ * one distinct tax id is involved: suffix folding makes 「大同股份有限公司」 and 「大同公司」 one key, and
+ * when both carry different tax ids they are different legal entities, reported as a CONFLICT.
+ * Matching is one hash lookup per key, so resolving a batch against a building costs O(existing +
+ * incoming), never pairwise.
+ */
+@Service
+@RequiredArgsConstructor
+public class TenantIdentityService {
+  public static final int MAX_RESOLVE_ROWS = 2000;
+
+  private static final String[] LEGAL_SUFFIXES = {"股份有限公司", "有限公司", "股份", "公司"};
+
+  private final PartyService partyService;
+  private final BuildingService buildingService;
+  private final TenantRepo tenantRepo;
+  private final LeaseRepo leaseRepo;
+  private final OccupancyRepo occupancyRepo;
+  private final RentRollProjection rentRollProjection;
+  private final BuildingSearchIndex buildingSearchIndex;
+
+  /**
+   * Matches each incoming row against the building's tenants and the rows before it. With {@code
+   * create}, rows matching nothing are inserted, so re-running an import never duplicates.
+   */
+  @Transactional
+  public List<Map<String, Object>> resolve(UUID buildingId, List<PartyReq> rows, boolean create) {
+    if (rows.size() > MAX_RESOLVE_ROWS) {
+      throw new ApiException(
+          "INVALID_BATCH_SIZE",
+          "單次最多比對 " + MAX_RESOLVE_ROWS + " 筆租戶",
+          HttpStatus.BAD_REQUEST,
+          Map.of("max", MAX_RESOLVE_ROWS, "received", rows.size()));
+    }
+    buildingService.getBuilding(buildingId);
+    Map<String, Tenant> byTaxId = new HashMap<>();
+    Map<String, List<Tenant>> byName = new HashMap<>();
+    // Oldest first, so a key already shared by duplicates resolves to the original.
+    oldestFirst(buildingId).forEach(t -> register(t, byTaxId, byName));
+
+    Map<String, Integer> batchTaxId = new HashMap<>();
+    Map<String, List<Integer>> batchName = new HashMap<>();
+    List<Tenant> created = new ArrayList<>();
+    List<Map<String, Object>> result = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i++) {
+      PartyReq row = rows.get(i);
+      String taxKey = taxKey(row.taxId());
+      String nameKey = nameKey(row.name());
+      Map<String, Object> out = new LinkedHashMap<>();
+      out.put("index", i);
+      out.put("name", row.name());
+
+      Tenant match = taxKey == null ? null : byTaxId.get(taxKey);
+      String matchedBy = "TAX_ID";
+      if (match == null && nameKey != null) {
+        NameMatch<Tenant> named =
+            nameMatch(taxKey, byName.getOrDefault(nameKey, List.of()), t -> taxKey(t.getTaxId()));
+        if (named.isConflict()) {
+          out.put("status", "CONFLICT");
+          out.put("reason", "TAX_ID_MISMATCH");
+          out.put("conflictsWith", named.conflicts().stream().map(Tenant::getId).toList());
+          result.add(out);
+          continue;
+        }
+        match = named.match();
+        matchedBy = "NAME";
+      }
+      if (match != null) {
+        out.put("status", "MATCHED");
+        out.put("matchedBy", matchedBy);
+        out.put("tenantId", match.getId());
+        out.put("tenantName", match.getName());
+        result.add(out);
+        continue;
+      }
+
+      Integer earlier = taxKey == null ? null : batchTaxId.get(taxKey);
+      if (earlier == null && nameKey != null) {
+        NameMatch<Integer> named =
+            nameMatch(
+                taxKey, batchName.getOrDefault(nameKey, List.of()), j -> taxKey(rows.get(j).taxId()));
+        if (named.isConflict()) {
+          out.put("status", "CONFLICT");
+          out.put("reason", "TAX_ID_MISMATCH");
+          out.put("conflictsWithIndex", named.conflicts());
+          result.add(out);
+          continue;
+        }
+        earlier = named.match();
+      }
+      if (earlier != null) {
+        out.put("status", "DUPLICATE_IN_BATCH");
+        out.put("duplicateOf", earlier);
+        result.add(out);
+        continue;
+      }
+
+      if (taxKey != null) batchTaxId.put(taxKey, i);
+      if (nameKey != null) batchName.computeIfAbsent(nameKey, k -> new ArrayList<>()).add(i);
+      out.put("status", create ? "CREATED" : "NEW");
+      if (create) {
+        Tenant t = partyService.newTenant(buildingId, row);
+        created.add(t);
+        out.put("tenant", t);
+      }
+      result.add(out);
+    }
+
+    if (!created.isEmpty()) {
+      List<Tenant> saved = tenantRepo.saveAll(created);
+      TransactionHooks.afterCommit(() -> saved.forEach(buildingSearchIndex::onTenantWritten));
+    }
+    for (Map<String, Object> out : result) {
+      Object tenant = out.remove("tenant");
+      if (tenant != null) out.put("tenantId", ((Tenant) tenant).getId());
+      if (out.containsKey("duplicateOf")) {
+        out.put("tenantId", result.get((Integer) out.get("duplicateOf")).get("tenantId"));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Groups of existing tenants linked by a shared tax id, or by a shared name key among tenants
+   * that carry at most one distinct tax id between them; oldest tenant first.
+   */
+  @Transactional(readOnly = true)
+  public List<Map<String, Object>> duplicates(UUID buildingId) {
+    buildingService.getBuilding(buildingId);
+    List<Tenant> tenants = oldestFirst(buildingId);
+
+    int[] parent = new int[tenants.size()];
+    for (int i = 0; i < parent.length; i++) parent[i] = i;
+    // A name shared by tenants with different tax ids links none of them, so no cluster can ever
+    // hold two tax ids and a merge of it never folds distinct legal entities together.
+    Map<String, Set<String>> taxKeysByName = new HashMap<>();
+    for (Tenant t : tenants) {
+      String nameKey = nameKey(t.getName());
+      String taxKey = taxKey(t.getTaxId());
+      if (nameKey == null) continue;
+      Set<String> taxKeys = taxKeysByName.computeIfAbsent(nameKey, k -> new HashSet<>());
+      if (taxKey != null) taxKeys.add(taxKey);
+    }
+    Map<String, Integer> firstByKey = new HashMap<>();
+    Map<Integer, Set<String>> reasons = new HashMap<>();
+    for (int i = 0; i < tenants.size(); i++) {
+      Tenant t = tenants.get(i);
+      String nameKey = nameKey(t.getName());
+      link(parent, firstByKey, reasons, i, "TAX_ID", taxKey(t.getTaxId()));
+      if (nameKey != null && taxKeysByName.get(nameKey).size() <= 1) {
+        link(parent, firstByKey, reasons, i, "NAME", nameKey);
+      }
+    }
+
+    Map<Integer, List<Tenant>> groups = new LinkedHashMap<>();
+    Map<Integer, Set<String>> groupReasons = new HashMap<>();
+    for (int i = 0; i < tenants.size(); i++) {
+      int root = find(parent, i);
+      groups.computeIfAbsent(root, k -> new ArrayList<>()).add(tenants.get(i));
+      groupReasons
+          .computeIfAbsent(root, k -> new LinkedHashSet<>())
+          .addAll(reasons.getOrDefault(i, Set.of()));
+    }
+
+    List<Map<String, Object>> result = new ArrayList<>();
+    groups.forEach(
+        (root, members) -> {
+          if (members.size() < 2) return;
+          Map<String, Object> group = new LinkedHashMap<>();
+          group.put("survivorId", members.get(0).getId());
+          group.put("matchedBy", groupReasons.get(root));
+          group.put(
+              "tenants",
+              members.stream()
+                  .map(
+                      t -> {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        row.put("id", t.getId());
+                        row.put("name", t.getName());
+                        row.put("taxId", t.getTaxId());
+                        row.put("isActive", t.getIsActive());
+                        row.put("createdAt", t.getCreatedAt());
+                        return row;
+                      })
+                  .toList());
+          result.add(group);
+        });
+    return result;
+  }
+
+  /**
+   * Folds the duplicates into the survivor: their leases and occupancies are re-pointed with two
+   * bulk updates, blank survivor fields are filled from them, and the duplicate rows are deleted.
+   * All the tenant rows are locked first, and tenants holding different tax ids are never merged.
+   */
+  @Transactional
+  public Map<String, Object> merge(UUID survivorId, List<UUID> duplicateIds) {
+    Set<UUID> ids = new LinkedHashSet<>(duplicateIds);
+    if (ids.contains(survivorId)) {
+      throw new ApiException("INVALID_MERGE", "不可將租戶合併至自身", HttpStatus.BAD_REQUEST);
+    }
+    Set<UUID> all = new LinkedHashSet<>(ids);
+    all.add(survivorId);
+    Map<UUID, Tenant> locked = new HashMap<>();
+    tenantRepo.lockByIds(all).forEach(t -> locked.put(t.getId(), t));
+    if (locked.size() != all.size()) {
+      throw new ApiException("NOT_FOUND", "找不到租戶", HttpStatus.NOT_FOUND);
+    }
+    Tenant survivor = locked.get(survivorId);
+    List<Tenant> duplicates = new ArrayList<>(ids.stream().map(locked::get).toList());
+    Set<String> taxKeys = new HashSet<>();
+    for (Tenant t : locked.values()) {
+      if (!t.getBuildingId().equals(survivor.getBuildingId())) {
+        throw new ApiException("INVALID_MERGE", "僅能合併同一大樓的租戶", HttpStatus.BAD_REQUEST);
+      }
+      String taxKey = taxKey(t.getTaxId());
+      if (taxKey != null) taxKeys.add(taxKey);
+    }
+    if (taxKeys.size() > 1) {
+      throw new ApiException(
+          "TAX_ID_CONFLICT",
+          "統一編號不同的租戶不可合併",
+          HttpStatus.CONFLICT,
+          Map.of("taxIds", taxKeys.stream().sorted().toList()));
+    }
+
+    duplicates.sort(Comparator.comparing(Tenant::getCreatedAt));
+    for (Tenant d : duplicates) {
+      if (isBlank(survivor.getTaxId())) survivor.setTaxId(d.getTaxId());
+      if (isBlank(survivor.getContactName())) survivor.setContactName(d.getContactName());
+      if (isBlank(survivor.getContactPhone())) survivor.setContactPhone(d.getContactPhone());
+      if (isBlank(survivor.getContactEmail())) survivor.setContactEmail(d.getContactEmail());
+      if (isBlank(survivor.getNotes())) survivor.setNotes(d.getNotes());
+    }
+
+    OffsetDateTime now = OffsetDateTime.now();
+    int leases = leaseRepo.reassignTenant(ids, survivorId, now);
+    int occupancies = occupancyRepo.reassignTenant(ids, survivorId, now);
+    tenantRepo.deleteAll(duplicates);
+    Tenant saved = tenantRepo.save(survivor);
+
+    UUID buildingId = saved.getBuildingId();
+    TransactionHooks.afterCommit(
+        () -> {
+          rentRollProjection.onTenantsMerged(buildingId);
+          duplicates.forEach(buildingSearchIndex::onTenantDeleted);
+          buildingSearchIndex.onTenantWritten(saved);
+        });
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("tenant", saved);
+    payload.put("mergedTenantIds", List.copyOf(ids));
+    payload.put("leasesMoved", leases);
+    payload.put("occupanciesMoved", occupancies);
+    return payload;
+  }
+
+  static String taxKey(String taxId) {
+    if (taxId == null) return null;
+    StringBuilder digits = new StringBuilder();
+    Normalizer.normalize(taxId, Normalizer.Form.NFKC)
+        .chars()
+        .filter(c -> c >= '0' && c <= '9')
+        .forEach(c -> digits.append((char) c));
+    return digits.isEmpty() ? null : digits.toString();
+  }
+
+  /**
+   * 「日商丹下都市建築設計(股)公司台北辦事處」 and 「日商丹下都市建築設計股份有限公司台北辦事處」 share a key,
+   * as do 「台灣安士克精密股份有限公司」 and 「臺灣安士克精密 」; 「台灣安士克」 does not.
+   */
+  static String nameKey(String name) {
+    if (name == null) return null;
+    String folded =
+        Normalizer.normalize(name, Normalizer.Form.NFKC)
+            .toLowerCase(Locale.ROOT)
+            .replace('臺', '台')
+            .replace("(股)公司", "股份有限公司")
+            .replace("(股)", "股份");
+    StringBuilder kept = new StringBuilder(folded.length());
+    folded.codePoints().filter(Character::isLetterOrDigit).forEach(kept::appendCodePoint);
+    String key = kept.toString();
+    boolean stripped = true;
+    while (stripped) {
+      stripped = false;
+      for (String suffix : LEGAL_SUFFIXES) {
+        if (key.length() > suffix.length() && key.endsWith(suffix)) {
+          key = key.substring(0, key.length() - suffix.length());
+          stripped = true;
+        }
+      }
+    }
+    return key.isEmpty() ? null : key;
+  }
+
+  private List<Tenant> oldestFirst(UUID buildingId) {
+    List<Tenant> tenants =
+        new ArrayList<>(tenantRepo.findByBuildingIdOrderByCreatedAtDesc(buildingId));
+    Collections.reverse(tenants);
+    return tenants;
+  }
+
+  private static void register(
+      Tenant t, Map<String, Tenant> byTaxId, Map<String, List<Tenant>> byName) {
+    String taxKey = taxKey(t.getTaxId());
+    String nameKey = nameKey(t.getName());
+    if (taxKey != null) byTaxId.putIfAbsent(taxKey, t);
+    if (nameKey != null) byName.computeIfAbsent(nameKey, k -> new ArrayList<>()).add(t);
+  }
+
+  /**
+   * Picks the oldest of {@code named} that the name alone may join: one side has no tax id, and
+   * the candidates left do not carry two different tax ids. Otherwise a name shared only with
+   * parties holding other tax ids is a conflict, and no name shared at all is neither.
+   */
+  private static <T> NameMatch<T> nameMatch(
+      String taxKey, List<T> named, Function<T, String> taxOf) {
+    List<T> joinable =
+        named.stream().filter(c -> taxKey == null || taxOf.apply(c) == null).toList();
+    Set<String> taxKeys = new HashSet<>();
+    joinable.stream().map(taxOf).filter(Objects::nonNull).forEach(taxKeys::add);
+    if (taxKeys.size() > 1 || (joinable.isEmpty() && !named.isEmpty())) {
+      return new NameMatch<>(null, named);
+    }
+    return new NameMatch<>(joinable.isEmpty() ? null : joinable.get(0), List.of());
+  }
+
+  private static void link(
+      int[] parent,
+      Map<String, Integer> firstByKey,
+      Map<Integer, Set<String>> reasons,
+      int index,
+      String kind,
+      String key) {
+    if (key == null) return;
+    Integer first = firstByKey.putIfAbsent(kind + ":" + key, index);
+    if (first == null) return;
+    int a = find(parent, first);
+    int b = find(parent, index);
+    if (a != b) parent[Math.max(a, b)] = Math.min(a, b);
+    reasons.computeIfAbsent(index, k -> new LinkedHashSet<>()).add(kind);
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  private record NameMatch<T>(T match, List<T> conflicts) {
+    boolean isConflict() {
+      return !conflicts.isEmpty();
+    }
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+}
@@ -0,0 +1,96 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.repo.UnitRepo;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit-scoped write locks for lease activation. Unit ids hash onto a fixed set of stripes that are
+ * taken in ascending order, so writers on disjoint units proceed in parallel and writers sharing a
+ * unit serialize without deadlocking. The unit rows are also locked FOR UPDATE in id order, which
+ * serializes writers on other instances. Both are held until the surrounding transaction
+ * completes, after the after-commit index updates have run.
+ */
+@Component
+public class UnitLocks {
+  private static final int STRIPES = 1024;
+
+  private final UnitRepo unitRepo;
+  private final Duration timeout;
+  private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+  public UnitLocks(UnitRepo unitRepo, @Value("${leaseos.unit-locks.timeout:PT10S}") Duration timeout) {
+    this.unitRepo = unitRepo;
+    this.timeout = timeout;
+    for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+  }
+
+  public void lockForTransaction(Collection<UUID> unitIds) {
+    if (unitIds.isEmpty()) return;
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("Unit locks must be taken inside a transaction");
+    }
+    Held held = acquire(unitIds);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            held.close();
+          }
+        });
+    unitRepo.lockByIds(new TreeSet<>(unitIds));
+  }
+
+  Held acquire(Collection<UUID> unitIds) {
+    TreeSet<Integer> indexes = new TreeSet<>();
+    for (UUID unitId : unitIds) indexes.add(stripe(unitId));
+
+    List<ReentrantLock> taken = new ArrayList<>();
+    Held held = new Held(taken);
+    try {
+      for (int index : indexes) {
+        ReentrantLock lock = stripes[index];
+        if (!lock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+          held.close();
+          throw new ApiException("UNIT_LOCKED", "單位正由其他作業處理中，請稍後再試", HttpStatus.CONFLICT);
+        }
+        taken.add(lock);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      held.close();
+      throw new ApiException("UNIT_LOCKED", "單位正由其他作業處理中，請稍後再試", HttpStatus.CONFLICT);
+    }
+    return held;
+  }
+
+  static int stripe(UUID unitId) {
+    return Math.floorMod(unitId.hashCode(), STRIPES);
+  }
+
+  static final class Held implements AutoCloseable {
+    private final List<ReentrantLock> locks;
+
+    private Held(List<ReentrantLock> locks) {
+      this.locks = locks;
+    }
+
+    @Override
+    public void close() {
+      for (int i = locks.size() - 1; i >= 0; i--) locks.get(i).unlock();
+      locks.clear();
+    }
+  }
+}
@@ -1,18 +1,33 @@
 package com.cre.leaseos.service;
 
 import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.common.TransactionHooks;
+import com.cre.leaseos.domain.Enums.OutboxEventType;
 import com.cre.leaseos.domain.Floor;
 import com.cre.leaseos.domain.Unit;
+import com.cre.leaseos.domain.UnitLineage;
+import com.cre.leaseos.dto.UnitDtos.UnitBulkError;
+import com.cre.leaseos.dto.UnitDtos.UnitBulkRow;
 import com.cre.leaseos.dto.UnitDtos.UnitCreateReq;
 import com.cre.leaseos.dto.UnitDtos.UnitMergeReq;
 import com.cre.leaseos.dto.UnitDtos.UnitPatchReq;
 import com.cre.leaseos.dto.UnitDtos.UnitSplitReq;
+import com.cre.leaseos.repo.LeaseRepo;
+import com.cre.leaseos.repo.UnitLineageRepo;
 import com.cre.leaseos.repo.UnitRepo;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,8 +37,16 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 public class UnitService {
+  public static final int MAX_BULK_UNITS = 2000;
+
   private final UnitRepo unitRepo;
   private final BuildingService buildingService;
+  private final RentRollProjection rentRollProjection;
+  private final OutboxService outboxService;
+  private final UnitLineageRepo unitLineageRepo;
+  private final LeaseRepo leaseRepo;
+  private final AreaRollups areaRollups;
+  private final BuildingSearchIndex buildingSearchIndex;
 
   public Floor getFloorWithUnits(UUID floorId) {
     return buildingService.getFloor(floorId);
@@ -33,6 +56,7 @@ public class UnitService {
     return unitRepo.findByFloorIdAndIsCurrentTrueOrderByCodeAsc(floorId);
   }
 
+  @Transactional
   public Unit createUnit(UUID floorId, UnitCreateReq req) {
     Floor floor = buildingService.getFloor(floorId);
     Unit unit = new Unit();
@@ -43,19 +67,124 @@ public class UnitService {
     unit.setNetArea(req.netArea());
     unit.setBalconyArea(req.balconyArea());
     unit.setIsCurrent(true);
-    return unitRepo.save(unit);
+    Unit saved = unitRepo.save(unit);
+    recordLineage(List.of(), List.of(saved));
+    areaRollups.apply(areaRollups.delta(saved.getBuildingId()).add(saved));
+    afterUnitsCommit(saved.getBuildingId(), List.of(), List.of(saved));
+    return saved;
+  }
+
+  /** All-or-nothing import onto one floor; a row's floorLabel, if given, must match the floor. */
+  @Transactional
+  public List<Unit> bulkCreateOnFloor(UUID floorId, List<UnitBulkRow> rows) {
+    Floor floor = buildingService.getFloor(floorId);
+    return bulkCreate(
+        floor.getBuildingId(),
+        rows,
+        row ->
+            row.floorLabel() == null
+                    || row.floorLabel().isBlank()
+                    || row.floorLabel().equals(floor.getLabel())
+                ? floor
+                : null,
+        unitRepo.findByFloorIdAndIsCurrentTrueOrderByCodeAsc(floorId));
   }
 
+  /** All-or-nothing import across a building, placing each row by its floorLabel. */
+  @Transactional
+  public List<Unit> bulkCreateInBuilding(UUID buildingId, List<UnitBulkRow> rows) {
+    buildingService.getBuilding(buildingId);
+    Map<String, Floor> floors = new HashMap<>();
+    buildingService.listFloors(buildingId).forEach(f -> floors.put(f.getLabel(), f));
+    return bulkCreate(
+        buildingId,
+        rows,
+        row -> row.floorLabel() == null ? null : floors.get(row.floorLabel()),
+        unitRepo.findByBuildingIdAndIsCurrentTrueOrderByCreatedAtDesc(buildingId));
+  }
+
+  /**
+   * Checks every row against the current units and earlier rows in memory, mirroring the
+   * (floor_id, code, is_current) constraint, then inserts through one batched saveAll. Any invalid
+   * row rejects the whole batch so a corrected file can simply be posted again.
+   */
+  private List<Unit> bulkCreate(
+      UUID buildingId,
+      List<UnitBulkRow> rows,
+      Function<UnitBulkRow, Floor> floorOf,
+      List<Unit> currentUnits) {
+    if (rows == null || rows.isEmpty() || rows.size() > MAX_BULK_UNITS) {
+      throw new ApiException(
+          "INVALID_BATCH_SIZE", "批次筆數需介於 1 到 " + MAX_BULK_UNITS, HttpStatus.BAD_REQUEST);
+    }
+
+    Set<String> taken = new HashSet<>();
+    currentUnits.forEach(u -> taken.add(u.getFloorId() + "|" + u.getCode()));
+    List<UnitBulkError> errors = new ArrayList<>();
+    List<Unit> units = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i++) {
+      UnitBulkRow row = rows.get(i);
+      if (row == null || row.code() == null || row.code().isBlank()) {
+        errors.add(new UnitBulkError(i, null, "VALIDATION", "code 不可為空"));
+        continue;
+      }
+      if (row.grossArea() == null || row.grossArea().signum() <= 0) {
+        errors.add(new UnitBulkError(i, row.code(), "VALIDATION", "grossArea 必須為正數"));
+        continue;
+      }
+      Floor floor = floorOf.apply(row);
+      if (floor == null) {
+        errors.add(new UnitBulkError(i, row.code(), "INVALID_FLOOR", "找不到樓層"));
+        continue;
+      }
+      if (!taken.add(floor.getId() + "|" + row.code())) {
+        errors.add(new UnitBulkError(i, row.code(), "DUPLICATE_CODE", "同樓層單位代碼重複"));
+        continue;
+      }
+      Unit unit = new Unit();
+      unit.setBuildingId(buildingId);
+      unit.setFloorId(floor.getId());
+      unit.setCode(row.code());
+      unit.setGrossArea(row.grossArea());
+      unit.setNetArea(row.netArea());
+      unit.setBalconyArea(row.balconyArea());
+      unit.setIsCurrent(true);
+      units.add(unit);
+    }
+    if (!errors.isEmpty()) {
+      throw new ApiException(
+          "INVALID_UNITS",
+          "批次單位資料有誤，未建立任何單位",
+          HttpStatus.BAD_REQUEST,
+          Map.of("errors", errors));
+    }
+
+    List<Unit> saved = unitRepo.saveAll(units);
+    recordLineage(List.of(), saved);
+    AreaRollups.Delta delta = areaRollups.delta(buildingId);
+    saved.forEach(delta::add);
+    areaRollups.apply(delta);
+    afterUnitsCommit(buildingId, List.of(), saved);
+    return saved;
+  }
+
+  @Transactional
   public Unit patchUnit(UUID unitId, UnitPatchReq req) {
     Unit unit =
         unitRepo
             .findById(unitId)
             .orElseThrow(() -> new ApiException("NOT_FOUND", "找不到單位", HttpStatus.NOT_FOUND));
+    boolean current = Boolean.TRUE.equals(unit.getIsCurrent());
+    AreaRollups.Delta delta = areaRollups.delta(unit.getBuildingId());
+    if (current) delta.remove(unit);
     if (req.code() != null) unit.setCode(req.code());
     if (req.grossArea() != null) unit.setGrossArea(req.grossArea());
     if (req.netArea() != null) unit.setNetArea(req.netArea());
     if (req.balconyArea() != null) unit.setBalconyArea(req.balconyArea());
-    return unitRepo.save(unit);
+    Unit saved = unitRepo.save(unit);
+    if (current) areaRollups.apply(delta.add(saved));
+    afterUnitsCommit(saved.getBuildingId(), List.of(), List.of(saved));
+    return saved;
   }
 
   @Transactional
@@ -79,6 +208,7 @@ public class UnitService {
       throw new ApiException("INVALID_AREA", "分割後 G 坪數總和需等於原單位", HttpStatus.BAD_REQUEST);
     }
 
+    AreaRollups.Delta delta = areaRollups.delta(source.getBuildingId()).remove(source);
     source.setIsCurrent(false);
     source.setReplacedAt(OffsetDateTime.now());
     unitRepo.save(source);
@@ -96,7 +226,13 @@ public class UnitService {
       child.setIsCurrent(true);
       result.add(unitRepo.save(child));
     }
+    result.forEach(delta::add);
+    areaRollups.apply(delta);
 
+    recordLineage(List.of(source.getId()), result);
+    publishUnitEvent(
+        OutboxEventType.UNIT_SPLIT, source.getId(), source, List.of(source.getId()), result);
+    afterUnitsCommit(source.getBuildingId(), List.of(source.getId()), result);
     return result;
   }
 
@@ -129,13 +265,119 @@ public class UnitService {
     merged.setIsCurrent(true);
     merged = unitRepo.save(merged);
 
+    AreaRollups.Delta delta = areaRollups.delta(buildingId).add(merged);
     for (Unit old : units) {
+      delta.remove(old);
       old.setIsCurrent(false);
       old.setReplacedAt(OffsetDateTime.now());
       old.setReplacedByUnitId(merged.getId());
       unitRepo.save(old);
     }
 
+    areaRollups.apply(delta);
+    recordLineage(req.unitIds(), List.of(merged));
+    publishUnitEvent(
+        OutboxEventType.UNIT_MERGED, merged.getId(), merged, req.unitIds(), List.of(merged));
+    afterUnitsCommit(buildingId, req.unitIds(), List.of(merged));
     return merged;
   }
+
+  /**
+   * Ancestors (nearest first) and descendants of a unit from the lineage closure, plus every lease
+   * ever signed on the unit or on the space it was carved from.
+   */
+  @Transactional(readOnly = true)
+  public Map<String, Object> getLineage(UUID unitId) {
+    Unit unit =
+        unitRepo
+            .findById(unitId)
+            .orElseThrow(() -> new ApiException("NOT_FOUND", "找不到單位", HttpStatus.NOT_FOUND));
+    List<UnitLineage> ancestors = unitLineageRepo.findByDescendantIdOrderByDepthAsc(unitId);
+    List<UnitLineage> descendants = unitLineageRepo.findByAncestorIdOrderByDepthAsc(unitId);
+
+    Set<UUID> related = new HashSet<>();
+    ancestors.forEach(l -> related.add(l.getAncestorId()));
+    descendants.forEach(l -> related.add(l.getDescendantId()));
+    // A unit deleted after the lineage rows were read has no row here; leave it out.
+    Map<UUID, Unit> units = new HashMap<>();
+    unitRepo.findAllById(related).forEach(u -> units.put(u.getId(), u));
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("unit", unit);
+    payload.put(
+        "ancestors",
+        ancestors.stream()
+            .filter(l -> l.getDepth() > 0 && units.containsKey(l.getAncestorId()))
+            .map(l -> lineageRow(units.get(l.getAncestorId()), l.getDepth()))
+            .toList());
+    payload.put(
+        "descendants",
+        descendants.stream()
+            .filter(l -> l.getDepth() > 0 && units.containsKey(l.getDescendantId()))
+            .map(l -> lineageRow(units.get(l.getDescendantId()), l.getDepth()))
+            .toList());
+    payload.put("leases", leaseRepo.findByUnitLineage(unitId));
+    return payload;
+  }
+
+  private Map<String, Object> lineageRow(Unit unit, int depth) {
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("unitId", unit.getId());
+    row.put("code", unit.getCode());
+    row.put("depth", depth);
+    row.put("isCurrent", unit.getIsCurrent());
+    row.put("replacedAt", unit.getReplacedAt());
+    return row;
+  }
+
+  /** Links each child to its parents and to all of their ancestors, keeping the shortest depth. */
+  private void recordLineage(Collection<UUID> parentIds, List<Unit> children) {
+    Map<UUID, Integer> ancestors = new HashMap<>();
+    parentIds.forEach(id -> ancestors.put(id, 0));
+    if (!parentIds.isEmpty()) {
+      for (UnitLineage l : unitLineageRepo.findByDescendantIdIn(parentIds)) {
+        ancestors.merge(l.getAncestorId(), l.getDepth(), Math::min);
+      }
+    }
+
+    List<UnitLineage> rows = new ArrayList<>();
+    for (Unit child : children) {
+      rows.add(lineage(child.getId(), child.getId(), 0));
+      ancestors.forEach(
+          (ancestorId, depth) -> rows.add(lineage(ancestorId, child.getId(), depth + 1)));
+    }
+    unitLineageRepo.saveAll(rows);
+  }
+
+  private static UnitLineage lineage(UUID ancestorId, UUID descendantId, int depth) {
+    UnitLineage l = new UnitLineage();
+    l.setAncestorId(ancestorId);
+    l.setDescendantId(descendantId);
+    l.setDepth(depth);
+    return l;
+  }
+
+  /** Occupancies on the retired units are carried onto their successors by the outbox. */
+  private void publishUnitEvent(
+      OutboxEventType type,
+      UUID aggregateId,
+      Unit unit,
+      List<UUID> retiredUnitIds,
+      List<Unit> units) {
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", unit.getBuildingId());
+    payload.put("floorId", unit.getFloorId());
+    payload.put("retiredUnitIds", retiredUnitIds);
+    payload.put("unitIds", units.stream().map(Unit::getId).toList());
+    payload.put("replacedOn", LocalDate.now().toString());
+    outboxService.publish(type, aggregateId, payload);
+  }
+
+  private void afterUnitsCommit(UUID buildingId, List<UUID> retiredUnitIds, List<Unit> units) {
+    TransactionHooks.afterCommit(
+        () -> {
+          rentRollProjection.onUnitsChanged(buildingId, retiredUnitIds, units);
+          buildingSearchIndex.onUnitsChanged(buildingId, retiredUnitIds, units);
+        });
+  }
 }
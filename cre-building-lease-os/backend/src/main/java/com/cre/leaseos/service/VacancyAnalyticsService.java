@@ -0,0 +1,198 @@
+package com.cre.leaseos.service;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.domain.Floor;
+import com.cre.leaseos.domain.Unit;
+import com.cre.leaseos.repo.FloorRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Leased vs vacant gross area of current units, per floor and per building. A unit counts as
+ * occupied while an occupancy or ACTIVE lease covers the day, and as committed when it is vacant
+ * but a lease or occupancy starts later.
+ */
+@Service
+@RequiredArgsConstructor
+public class VacancyAnalyticsService {
+  private static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+  private static final int MAX_SERIES_MONTHS = 120;
+
+  private final UnitRepo unitRepo;
+  private final FloorRepo floorRepo;
+  private final OccupancySnapshotService occupancySnapshotService;
+
+  @Transactional(readOnly = true)
+  public Map<String, Object> vacancy(UUID buildingId, LocalDate asOf) {
+    LocalDate day = asOf == null ? LocalDate.now() : asOf;
+    Layout layout = layout(buildingId);
+    OccupancySweep sweep = occupancySnapshotService.load(buildingId, day, OPEN_END);
+    sweep.advanceTo(day);
+    Set<UUID> pending = sweep.pendingUnits();
+
+    Map<UUID, Area> byFloor = new LinkedHashMap<>();
+    layout.floors().forEach(f -> byFloor.put(f.getId(), new Area()));
+    Area total = new Area();
+    for (Unit u : layout.units()) {
+      boolean occupied = sweep.occupant(u.getId()) != null;
+      boolean committed = !occupied && pending.contains(u.getId());
+      byFloor
+          .computeIfAbsent(u.getFloorId(), k -> new Area())
+          .add(u.getGrossArea(), occupied, committed);
+      total.add(u.getGrossArea(), occupied, committed);
+    }
+
+    List<Map<String, Object>> floors = new ArrayList<>();
+    for (Floor f : layout.floors()) {
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("floorId", f.getId());
+      row.put("label", f.getLabel());
+      row.put("sortIndex", f.getSortIndex());
+      row.putAll(byFloor.get(f.getId()).toMap());
+      floors.add(row);
+    }
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", buildingId);
+    payload.put("asOf", day);
+    payload.put("floors", floors);
+    payload.put("totals", total.toMap());
+    return payload;
+  }
+
+  /**
+   * Month-end occupancy from {@code from} to {@code to}, measured against today's unit layout.
+   * The sweep is advanced one month at a time and only units whose spans changed in that month
+   * adjust the running per-floor totals.
+   */
+  @Transactional(readOnly = true)
+  public Map<String, Object> monthlySeries(UUID buildingId, YearMonth from, YearMonth to) {
+    if (from == null || to == null || to.isBefore(from)) {
+      throw new ApiException(
+          "INVALID_DATE_RANGE", "需提供 from 與 to，且 to 不可早於 from", HttpStatus.BAD_REQUEST);
+    }
+    if (from.plusMonths(MAX_SERIES_MONTHS).isBefore(to.plusMonths(1))) {
+      throw new ApiException(
+          "INVALID_DATE_RANGE", "區間最多 " + MAX_SERIES_MONTHS + " 個月", HttpStatus.BAD_REQUEST);
+    }
+
+    Layout layout = layout(buildingId);
+    Map<UUID, Unit> units =
+        layout.units().stream().collect(Collectors.toMap(Unit::getId, Function.identity()));
+    BigDecimal grossArea = BigDecimal.ZERO;
+    Map<UUID, BigDecimal> floorGross = new HashMap<>();
+    for (Unit u : layout.units()) {
+      grossArea = grossArea.add(u.getGrossArea());
+      floorGross.merge(u.getFloorId(), u.getGrossArea(), BigDecimal::add);
+    }
+
+    OccupancySweep sweep =
+        occupancySnapshotService.load(buildingId, from.atEndOfMonth(), to.atEndOfMonth());
+    Set<UUID> occupied = new HashSet<>();
+    Map<UUID, BigDecimal> floorOccupied = new HashMap<>();
+    BigDecimal occupiedArea = BigDecimal.ZERO;
+
+    List<Map<String, Object>> months = new ArrayList<>();
+    for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+      LocalDate monthEnd = month.atEndOfMonth();
+      for (UUID unitId : sweep.advanceTo(monthEnd)) {
+        Unit u = units.get(unitId);
+        if (u == null) continue;
+        boolean now = sweep.occupant(unitId) != null;
+        if (now == occupied.contains(unitId)) continue;
+        BigDecimal delta = now ? u.getGrossArea() : u.getGrossArea().negate();
+        if (now) occupied.add(unitId);
+        else occupied.remove(unitId);
+        occupiedArea = occupiedArea.add(delta);
+        floorOccupied.merge(u.getFloorId(), delta, BigDecimal::add);
+      }
+
+      List<Map<String, Object>> floors = new ArrayList<>();
+      for (Floor f : layout.floors()) {
+        BigDecimal gross = floorGross.getOrDefault(f.getId(), BigDecimal.ZERO);
+        BigDecimal occ = floorOccupied.getOrDefault(f.getId(), BigDecimal.ZERO);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("floorId", f.getId());
+        row.put("label", f.getLabel());
+        row.put("occupiedArea", occ);
+        row.put("occupancyRate", percent(occ, gross));
+        floors.add(row);
+      }
+
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("month", month.toString());
+      row.put("asOf", monthEnd);
+      row.put("grossArea", grossArea);
+      row.put("occupiedArea", occupiedArea);
+      row.put("vacantArea", grossArea.subtract(occupiedArea));
+      row.put("occupancyRate", percent(occupiedArea, grossArea));
+      row.put("floors", floors);
+      months.add(row);
+    }
+
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("buildingId", buildingId);
+    payload.put("from", from.toString());
+    payload.put("to", to.toString());
+    payload.put("months", months);
+    return payload;
+  }
+
+  private Layout layout(UUID buildingId) {
+    return new Layout(
+        floorRepo.findByBuildingIdOrderBySortIndexAsc(buildingId),
+        unitRepo.findByBuildingIdAndIsCurrentTrueOrderByCreatedAtDesc(buildingId));
+  }
+
+  private static BigDecimal percent(BigDecimal part, BigDecimal whole) {
+    if (whole.signum() == 0) return BigDecimal.ZERO;
+    return part.multiply(BigDecimal.valueOf(100)).divide(whole, 2, RoundingMode.HALF_UP);
+  }
+
+  private record Layout(List<Floor> floors, List<Unit> units) {}
+
+  private static final class Area {
+    private int units;
+    private BigDecimal gross = BigDecimal.ZERO;
+    private BigDecimal occupied = BigDecimal.ZERO;
+    private BigDecimal committed = BigDecimal.ZERO;
+
+    void add(BigDecimal area, boolean isOccupied, boolean isCommitted) {
+      units++;
+      gross = gross.add(area);
+      if (isOccupied) occupied = occupied.add(area);
+      if (isCommitted) committed = committed.add(area);
+    }
+
+    Map<String, Object> toMap() {
+      BigDecimal vacant = gross.subtract(occupied);
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("units", units);
+      row.put("grossArea", gross);
+      row.put("occupiedArea", occupied);
+      row.put("vacantArea", vacant);
+      row.put("committedArea", committed);
+      row.put("occupancyRate", percent(occupied, gross));
+      row.put("vacancyRate", percent(vacant, gross));
+      row.put("committedRate", percent(committed, gross));
+      return row;
+    }
+  }
+}
@@ -1,19 +1,27 @@
 package com.cre.leaseos.web;
 
 import com.cre.leaseos.common.ApiResponse;
+import com.cre.leaseos.common.ResourceVersion;
 import com.cre.leaseos.domain.Building;
 import com.cre.leaseos.domain.Floor;
 import com.cre.leaseos.dto.BuildingDtos.BuildingCreateReq;
 import com.cre.leaseos.dto.BuildingDtos.BuildingPatchReq;
 import com.cre.leaseos.dto.BuildingDtos.FloorGenerateReq;
 import com.cre.leaseos.service.BuildingService;
+import com.cre.leaseos.service.DashboardService;
+import com.cre.leaseos.service.ResourceVersions;
 import com.cre.leaseos.service.UnitService;
+import com.cre.leaseos.service.VacancyAnalyticsService;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api")
@@ -21,9 +29,13 @@ import org.springframework.web.bind.annotation.*;
 public class BuildingController {
   private final BuildingService buildingService;
   private final UnitService unitService;
+  private final VacancyAnalyticsService vacancyAnalyticsService;
+  private final ResourceVersions resourceVersions;
+  private final DashboardService dashboardService;
 
   @GetMapping("/buildings")
-  public ApiResponse<List<Building>> listBuildings() {
+  public ApiResponse<List<Building>> listBuildings(WebRequest request) {
+    if (notModified(request, resourceVersions.buildings())) return null;
     return ApiResponse.ok(buildingService.listBuildings());
   }
 
@@ -33,10 +45,32 @@ public class BuildingController {
   }
 
   @GetMapping("/buildings/{id}")
-  public ApiResponse<Building> getBuilding(@PathVariable UUID id) {
+  public ApiResponse<Building> getBuilding(@PathVariable UUID id, WebRequest request) {
+    ResourceVersion version = resourceVersions.building(id);
+    if (!version.isEmpty() && notModified(request, version)) return null;
     return ApiResponse.ok(buildingService.getBuilding(id));
   }
 
+  @GetMapping("/buildings/{id}/dashboard")
+  public ApiResponse<Object> getDashboard(@PathVariable UUID id) {
+    return ApiResponse.ok(dashboardService.dashboard(id));
+  }
+
+  @GetMapping("/buildings/{id}/vacancy")
+  public ApiResponse<Object> getVacancy(
+      @PathVariable UUID id,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+    return ApiResponse.ok(vacancyAnalyticsService.vacancy(id, asOf));
+  }
+
+  @GetMapping("/buildings/{id}/vacancy/monthly")
+  public ApiResponse<Object> getMonthlyVacancy(
+      @PathVariable UUID id,
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+    return ApiResponse.ok(vacancyAnalyticsService.monthlySeries(id, from, to));
+  }
+
   @PatchMapping("/buildings/{id}")
   public ApiResponse<Building> patchBuilding(
       @PathVariable UUID id, @RequestBody BuildingPatchReq req) {
@@ -53,16 +87,27 @@ public class BuildingController {
   }
 
   @GetMapping("/buildings/{id}/floors")
-  public ApiResponse<List<Floor>> listFloors(@PathVariable UUID id) {
+  public ApiResponse<List<Floor>> listFloors(@PathVariable UUID id, WebRequest request) {
+    if (notModified(request, resourceVersions.floors(id))) return null;
     return ApiResponse.ok(buildingService.listFloors(id));
   }
 
   @GetMapping("/floors/{id}")
-  public ApiResponse<Object> getFloor(@PathVariable UUID id) {
+  public ApiResponse<Object> getFloor(@PathVariable UUID id, WebRequest request) {
+    ResourceVersion version = resourceVersions.floor(id);
+    if (!version.isEmpty() && notModified(request, version)) return null;
     Floor floor = buildingService.getFloor(id);
     return ApiResponse.ok(
         java.util.Map.of(
             "floor", floor,
             "units", unitService.listCurrentUnits(id)));
   }
+
+  /**
+   * Sets ETag/Last-Modified from the aggregate version and reports whether the client's copy is
+   * still current; Spring then completes the 304 when the handler returns null.
+   */
+  private static boolean notModified(WebRequest request, ResourceVersion version) {
+    return request.checkNotModified(version.etag(), version.lastModifiedMillis());
+  }
 }
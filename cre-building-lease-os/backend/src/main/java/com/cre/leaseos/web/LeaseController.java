@@ -5,21 +5,21 @@ import com.cre.leaseos.common.PageRequestFactory;
 import com.cre.leaseos.common.PageResponse;
 import com.cre.leaseos.domain.Lease;
 import com.cre.leaseos.domain.LeaseAttachment;
-import com.cre.leaseos.domain.LeaseUnit;
 import com.cre.leaseos.domain.Occupancy;
+import com.cre.leaseos.dto.OccupancyLeaseDtos.LeaseBatchResult;
 import com.cre.leaseos.dto.OccupancyLeaseDtos.LeaseCreateReq;
 import com.cre.leaseos.dto.OccupancyLeaseDtos.LeasePatchReq;
 import com.cre.leaseos.dto.OccupancyLeaseDtos.OccupancyPatchReq;
 import com.cre.leaseos.dto.OccupancyLeaseDtos.OccupancyReq;
-import com.cre.leaseos.repo.LeaseUnitRepo;
-import com.cre.leaseos.repo.OccupancyRepo;
 import com.cre.leaseos.service.LeaseService;
+import com.cre.leaseos.service.OccupancySnapshotService;
+import com.cre.leaseos.service.RentRollProjection;
 import jakarta.validation.Valid;
-import java.util.LinkedHashMap;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -29,8 +29,8 @@ import org.springframework.web.multipart.MultipartFile;
 @RequiredArgsConstructor
 public class LeaseController {
   private final LeaseService leaseService;
-  private final LeaseUnitRepo leaseUnitRepo;
-  private final OccupancyRepo occupancyRepo;
+  private final RentRollProjection rentRollProjection;
+  private final OccupancySnapshotService occupancySnapshotService;
 
   @PostMapping("/occupancies")
   public ResponseEntity<ApiResponse<Occupancy>> createOccupancy(@Valid @RequestBody OccupancyReq req) {
@@ -48,44 +48,77 @@ public class LeaseController {
     return ApiResponse.ok(leaseService.listOccupancies(id));
   }
 
+  @GetMapping("/buildings/{id}/occupancy")
+  public ApiResponse<Object> getOccupancySnapshot(
+      @PathVariable UUID id,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    if (from != null || to != null) {
+      return ApiResponse.ok(occupancySnapshotService.changes(id, from, to));
+    }
+    return ApiResponse.ok(occupancySnapshotService.snapshot(id, asOf));
+  }
+
   @PostMapping("/leases")
   public ResponseEntity<ApiResponse<Lease>> createLease(@Valid @RequestBody LeaseCreateReq req) {
     return ResponseEntity.status(201).body(ApiResponse.ok(leaseService.createLease(req)));
   }
 
+  @PostMapping("/leases:batch")
+  public ApiResponse<LeaseBatchResult> createLeases(@RequestBody List<LeaseCreateReq> reqs) {
+    return ApiResponse.ok(leaseService.createLeases(reqs));
+  }
+
   @GetMapping("/buildings/{id}/leases")
   public ApiResponse<Object> listBuildingLeases(
       @PathVariable UUID id,
       @RequestParam(required = false) Integer page,
       @RequestParam(required = false) Integer size,
-      @RequestParam(required = false) String sort) {
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Boolean withTotal) {
+    if (cursor != null) {
+      return ApiResponse.ok(
+          leaseService.scrollLeaseRows(id, sort, cursor, size, Boolean.TRUE.equals(withTotal)));
+    }
     if (page == null && size == null && sort == null) {
-      List<Object> rows = new java.util.ArrayList<>();
-      for (Lease lease : leaseService.listLeases(id)) {
-        rows.add(toLeaseRow(lease));
-      }
-      return ApiResponse.ok(rows);
+      return ApiResponse.ok(leaseService.listLeaseRows(id));
     }
 
-    var pageable = PageRequestFactory.build(page, size, sort, "createdAt");
-    var leasePage = leaseService.listLeases(id, pageable);
-    return ApiResponse.ok(PageResponse.from(leasePage.map(this::toLeaseRow)));
+    var pageable = PageRequestFactory.build(page, size, LeaseService.LEASE_SORT.sort(sort));
+    return ApiResponse.ok(PageResponse.from(leaseService.listLeaseRows(id, pageable)));
+  }
+
+  @GetMapping("/buildings/{id}/leases/expiring")
+  public ApiResponse<Object> listExpiringLeases(
+      @PathVariable UUID id,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+      @RequestParam(required = false) Integer days,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    return ApiResponse.ok(leaseService.listExpiringLeases(id, asOf, days, cursor, size));
+  }
+
+  @GetMapping("/portfolio/leases/expiring")
+  public ApiResponse<Object> listPortfolioExpiringLeases(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+      @RequestParam(required = false) Integer days,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    return ApiResponse.ok(leaseService.listExpiringLeases(null, asOf, days, cursor, size));
+  }
+
+  @GetMapping("/buildings/{id}/rent-roll")
+  public ApiResponse<Object> getRentRoll(
+      @PathVariable UUID id,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+    return ApiResponse.ok(rentRollProjection.getRentRoll(id, asOf));
   }
 
   @GetMapping("/leases/{id}")
   public ApiResponse<Object> getLease(@PathVariable UUID id) {
-    Lease lease = leaseService.getLease(id);
-    List<LeaseUnit> leaseUnits = leaseUnitRepo.findByLeaseId(id);
-    List<Occupancy> occupancies =
-        occupancyRepo.findAll().stream().filter(o -> id.equals(o.getLeaseId())).toList();
-
-    Map<String, Object> payload = new LinkedHashMap<>();
-    payload.put("lease", lease);
-    payload.put("leaseUnits", leaseUnits);
-    payload.put("occupancies", occupancies);
-    payload.put("attachments", leaseService.listAttachments(id));
-    payload.put("effectiveManagementFee", leaseService.effectiveManagementFee(lease));
-    return ApiResponse.ok(payload);
+    return ApiResponse.ok(leaseService.getLeaseDetail(id));
   }
 
   @PatchMapping("/leases/{id}")
@@ -109,13 +142,4 @@ public class LeaseController {
     leaseService.deleteAttachment(id);
     return ApiResponse.ok(java.util.Map.of("deleted", true));
   }
-
-  private Map<String, Object> toLeaseRow(Lease lease) {
-    Map<String, Object> row = new LinkedHashMap<>();
-    row.put("lease", lease);
-    row.put(
-        "unitIds", leaseUnitRepo.findByLeaseId(lease.getId()).stream().map(LeaseUnit::getUnitId).toList());
-    row.put("effectiveManagementFee", leaseService.effectiveManagementFee(lease));
-    return row;
-  }
 }
@@ -9,11 +9,16 @@ import com.cre.leaseos.dto.RepairDtos.CommonAreaReq;
 import com.cre.leaseos.dto.TenantOwnerVendorDtos.FloorOwnerAssignReq;
 import com.cre.leaseos.dto.TenantOwnerVendorDtos.PartyPatchReq;
 import com.cre.leaseos.dto.TenantOwnerVendorDtos.PartyReq;
+import com.cre.leaseos.dto.TenantOwnerVendorDtos.TenantMergeReq;
+import com.cre.leaseos.dto.TenantOwnerVendorDtos.TenantResolveReq;
 import com.cre.leaseos.service.PartyService;
+import com.cre.leaseos.service.TenantIdentityService;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,18 +27,25 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class PartyController {
   private final PartyService partyService;
+  private final TenantIdentityService tenantIdentityService;
 
   @GetMapping("/buildings/{id}/tenants")
   public ApiResponse<Object> listTenants(
       @PathVariable UUID id,
       @RequestParam(required = false) Integer page,
       @RequestParam(required = false) Integer size,
-      @RequestParam(required = false) String sort) {
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Boolean withTotal) {
+    if (cursor != null) {
+      return ApiResponse.ok(
+          partyService.scrollTenants(id, sort, cursor, size, Boolean.TRUE.equals(withTotal)));
+    }
     if (page == null && size == null && sort == null) {
       return ApiResponse.ok(partyService.listTenants(id));
     }
 
-    var pageable = PageRequestFactory.build(page, size, sort, "createdAt");
+    var pageable = PageRequestFactory.build(page, size, PartyService.TENANT_SORT.sort(sort));
     return ApiResponse.ok(PageResponse.from(partyService.listTenants(id, pageable)));
   }
 
@@ -43,6 +55,25 @@ public class PartyController {
     return ResponseEntity.status(201).body(ApiResponse.ok(partyService.createTenant(id, req)));
   }
 
+  @PostMapping("/buildings/{id}/tenants:resolve")
+  public ApiResponse<List<java.util.Map<String, Object>>> resolveTenants(
+      @PathVariable UUID id, @Valid @RequestBody TenantResolveReq req) {
+    return ApiResponse.ok(
+        tenantIdentityService.resolve(id, req.tenants(), Boolean.TRUE.equals(req.create())));
+  }
+
+  @GetMapping("/buildings/{id}/tenants/duplicates")
+  public ApiResponse<List<java.util.Map<String, Object>>> listDuplicateTenants(
+      @PathVariable UUID id) {
+    return ApiResponse.ok(tenantIdentityService.duplicates(id));
+  }
+
+  @PostMapping("/tenants/{id}/merge")
+  public ApiResponse<Object> mergeTenants(
+      @PathVariable UUID id, @Valid @RequestBody TenantMergeReq req) {
+    return ApiResponse.ok(tenantIdentityService.merge(id, req.duplicateIds()));
+  }
+
   @GetMapping("/tenants/{id}")
   public ApiResponse<Tenant> getTenant(@PathVariable UUID id) {
     return ApiResponse.ok(partyService.getTenant(id));
@@ -76,6 +107,14 @@ public class PartyController {
     return ResponseEntity.status(201).body(ApiResponse.ok(partyService.assignFloorOwner(floorId, req)));
   }
 
+  @GetMapping("/buildings/{buildingId}/ownership-matrix")
+  public ApiResponse<Object> getOwnershipMatrix(
+      @PathVariable UUID buildingId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    return ApiResponse.ok(partyService.ownershipMatrix(buildingId, from, to));
+  }
+
   @GetMapping("/floors/{floorId}/owners")
   public ApiResponse<List<java.util.Map<String, Object>>> listFloorOwners(@PathVariable UUID floorId) {
     return ApiResponse.ok(partyService.listFloorOwnersDetailed(floorId));
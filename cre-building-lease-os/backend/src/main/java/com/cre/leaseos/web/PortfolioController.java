@@ -0,0 +1,29 @@
+package com.cre.leaseos.web;
+
+import com.cre.leaseos.common.ApiResponse;
+import com.cre.leaseos.service.PortfolioService;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class PortfolioController {
+  private final PortfolioService portfolioService;
+
+  @GetMapping("/portfolio/summary")
+  public ApiResponse<Object> getSummary(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+    return ApiResponse.ok(portfolioService.summary(asOf));
+  }
+
+  @GetMapping("/portfolio/buildings")
+  public ApiResponse<Object> listBuildings(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+    return ApiResponse.ok(portfolioService.buildings(asOf, cursor, size));
+  }
+}
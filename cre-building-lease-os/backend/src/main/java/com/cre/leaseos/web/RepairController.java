@@ -9,11 +9,17 @@ import com.cre.leaseos.domain.Enums.RepairScopeType;
 import com.cre.leaseos.domain.Enums.RepairStatus;
 import com.cre.leaseos.dto.RepairDtos.RepairPatchReq;
 import com.cre.leaseos.dto.RepairDtos.RepairReq;
+import com.cre.leaseos.repo.RepairFilter;
+import com.cre.leaseos.service.RepairCostRollups;
 import com.cre.leaseos.service.RepairService;
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -23,6 +29,7 @@ import org.springframework.web.multipart.MultipartFile;
 @RequiredArgsConstructor
 public class RepairController {
   private final RepairService repairService;
+  private final RepairCostRollups repairCostRollups;
 
   @PostMapping("/repairs")
   public ResponseEntity<ApiResponse<RepairRecord>> createRepair(@Valid @RequestBody RepairReq req) {
@@ -36,16 +43,59 @@ public class RepairController {
       @RequestParam(required = false) RepairScopeType scopeType,
       @RequestParam(required = false) UUID floorId,
       @RequestParam(required = false) UUID commonAreaId,
+      @RequestParam(required = false) UUID vendorId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate reportedFrom,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate reportedTo,
+      @RequestParam(required = false) BigDecimal minAmount,
+      @RequestParam(required = false) BigDecimal maxAmount,
+      @RequestParam(required = false) String q,
       @RequestParam(required = false) Integer page,
       @RequestParam(required = false) Integer size,
-      @RequestParam(required = false) String sort) {
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Boolean withTotal) {
+    var filter =
+        new RepairFilter(
+            id,
+            status,
+            scopeType,
+            floorId,
+            commonAreaId,
+            vendorId,
+            reportedFrom,
+            reportedTo,
+            minAmount,
+            maxAmount,
+            q);
+    if (cursor != null) {
+      return ApiResponse.ok(
+          repairService.scrollRepairs(
+              filter, sort, cursor, size, Boolean.TRUE.equals(withTotal)));
+    }
     if (page == null && size == null && sort == null) {
-      return ApiResponse.ok(repairService.listRepairs(id, status, scopeType, floorId, commonAreaId));
+      return ApiResponse.ok(repairService.listRepairs(filter));
     }
 
-    var pageable = PageRequestFactory.build(page, size, sort, "createdAt");
-    return ApiResponse.ok(
-        PageResponse.from(repairService.listRepairs(id, status, scopeType, floorId, commonAreaId, pageable)));
+    var pageable = PageRequestFactory.build(page, size, RepairService.REPAIR_SORT.sort(sort));
+    return ApiResponse.ok(PageResponse.from(repairService.listRepairs(filter, pageable)));
+  }
+
+  @GetMapping("/buildings/{id}/repair-costs")
+  public ApiResponse<Object> getRepairCosts(
+      @PathVariable UUID id,
+      @RequestParam(required = false) String groupBy,
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+    return ApiResponse.ok(repairCostRollups.report(id, groupBy, from, to));
+  }
+
+  @GetMapping("/portfolio/repair-costs")
+  public ApiResponse<Object> getPortfolioRepairCosts(
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+      @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+    return ApiResponse.ok(repairCostRollups.portfolio(from, to));
   }
 
   @GetMapping("/repairs/{id}")
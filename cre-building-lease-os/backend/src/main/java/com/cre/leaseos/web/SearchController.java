@@ -0,0 +1,22 @@
+package com.cre.leaseos.web;
+
+import com.cre.leaseos.common.ApiResponse;
+import com.cre.leaseos.service.BuildingSearchIndex;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class SearchController {
+  private final BuildingSearchIndex buildingSearchIndex;
+
+  @GetMapping("/buildings/{id}/search")
+  public ApiResponse<Object> search(
+      @PathVariable UUID id,
+      @RequestParam(required = false) String q,
+      @RequestParam(required = false) Integer limit) {
+    return ApiResponse.ok(buildingSearchIndex.search(id, q, limit));
+  }
+}
@@ -2,15 +2,23 @@ package com.cre.leaseos.web;
 
 import com.cre.leaseos.common.ApiResponse;
 import com.cre.leaseos.domain.Unit;
+import com.cre.leaseos.dto.UnitDtos.UnitBulkRow;
 import com.cre.leaseos.dto.UnitDtos.UnitCreateReq;
 import com.cre.leaseos.dto.UnitDtos.UnitMergeReq;
 import com.cre.leaseos.dto.UnitDtos.UnitPatchReq;
 import com.cre.leaseos.dto.UnitDtos.UnitSplitReq;
+import com.cre.leaseos.service.LayoutHistoryService;
 import com.cre.leaseos.service.UnitService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,6 +27,8 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class UnitController {
   private final UnitService unitService;
+  private final LayoutHistoryService layoutHistoryService;
+  private final ObjectMapper objectMapper;
 
   @PostMapping("/floors/{id}/units")
   public ResponseEntity<ApiResponse<Unit>> createUnit(
@@ -26,11 +36,60 @@ public class UnitController {
     return ResponseEntity.status(201).body(ApiResponse.ok(unitService.createUnit(id, req)));
   }
 
+  @PostMapping(path = "/floors/{id}/units:bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<ApiResponse<List<Unit>>> bulkCreateUnits(
+      @PathVariable UUID id, InputStream body) throws IOException {
+    List<UnitBulkRow> rows = UnitJsonReader.read(body, objectMapper, UnitService.MAX_BULK_UNITS);
+    return ResponseEntity.status(201).body(ApiResponse.ok(unitService.bulkCreateOnFloor(id, rows)));
+  }
+
+  @PostMapping(path = "/floors/{id}/units:bulk", consumes = "text/csv")
+  public ResponseEntity<ApiResponse<List<Unit>>> bulkCreateUnitsCsv(
+      @PathVariable UUID id, InputStream body) throws IOException {
+    List<UnitBulkRow> rows = UnitCsvReader.read(body, UnitService.MAX_BULK_UNITS);
+    return ResponseEntity.status(201).body(ApiResponse.ok(unitService.bulkCreateOnFloor(id, rows)));
+  }
+
+  @PostMapping(path = "/buildings/{id}/units:bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<ApiResponse<List<Unit>>> bulkCreateBuildingUnits(
+      @PathVariable UUID id, InputStream body) throws IOException {
+    List<UnitBulkRow> rows = UnitJsonReader.read(body, objectMapper, UnitService.MAX_BULK_UNITS);
+    return ResponseEntity.status(201)
+        .body(ApiResponse.ok(unitService.bulkCreateInBuilding(id, rows)));
+  }
+
+  @PostMapping(path = "/buildings/{id}/units:bulk", consumes = "text/csv")
+  public ResponseEntity<ApiResponse<List<Unit>>> bulkCreateBuildingUnitsCsv(
+      @PathVariable UUID id, InputStream body) throws IOException {
+    List<UnitBulkRow> rows = UnitCsvReader.read(body, UnitService.MAX_BULK_UNITS);
+    return ResponseEntity.status(201)
+        .body(ApiResponse.ok(unitService.bulkCreateInBuilding(id, rows)));
+  }
+
   @PatchMapping("/units/{id}")
   public ApiResponse<Unit> patchUnit(@PathVariable UUID id, @RequestBody UnitPatchReq req) {
     return ApiResponse.ok(unitService.patchUnit(id, req));
   }
 
+  @GetMapping("/floors/{id}/layout")
+  public ApiResponse<Object> getFloorLayout(
+      @PathVariable UUID id,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+    return ApiResponse.ok(layoutHistoryService.floorLayout(id, asOf));
+  }
+
+  @GetMapping("/buildings/{id}/layout")
+  public ApiResponse<Object> getBuildingLayout(
+      @PathVariable UUID id,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+    return ApiResponse.ok(layoutHistoryService.buildingLayout(id, asOf));
+  }
+
+  @GetMapping("/units/{id}/lineage")
+  public ApiResponse<Object> getLineage(@PathVariable UUID id) {
+    return ApiResponse.ok(unitService.getLineage(id));
+  }
+
   @PostMapping("/units/{id}/split")
   public ResponseEntity<ApiResponse<List<Unit>>> splitUnit(
       @PathVariable UUID id, @Valid @RequestBody UnitSplitReq req) {
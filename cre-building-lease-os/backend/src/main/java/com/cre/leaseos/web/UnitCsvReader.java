@@ -0,0 +1,115 @@
+package com.cre.leaseos.web;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.dto.UnitDtos.UnitBulkRow;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Reads a unit import CSV line by line from the request stream. The header names the columns
+ * (floorLabel, code, grossArea, netArea, balconyArea; any order, case-insensitive); code and
+ * grossArea are required. Fields are comma separated; a field may be double-quoted to hold commas,
+ * with {@code ""} for a literal quote. Quoted fields cannot span lines.
+ */
+final class UnitCsvReader {
+  private UnitCsvReader() {}
+
+  static List<UnitBulkRow> read(InputStream in, int maxRows) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    String header = reader.readLine();
+    if (header == null || header.isBlank()) {
+      throw new ApiException("INVALID_CSV", "CSV 缺少標題列", HttpStatus.BAD_REQUEST);
+    }
+    if (header.startsWith("\uFEFF")) header = header.substring(1);
+
+    Map<String, Integer> columns = new HashMap<>();
+    List<String> names = split(header, 1);
+    for (int i = 0; i < names.size(); i++) {
+      columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+    }
+    if (!columns.containsKey("code") || !columns.containsKey("grossarea")) {
+      throw new ApiException("INVALID_CSV", "CSV 需包含 code 與 grossArea 欄位", HttpStatus.BAD_REQUEST);
+    }
+
+    List<UnitBulkRow> rows = new ArrayList<>();
+    String line;
+    int lineNo = 1;
+    while ((line = reader.readLine()) != null) {
+      lineNo++;
+      if (line.isBlank()) continue;
+      if (rows.size() == maxRows) {
+        throw new ApiException(
+            "INVALID_BATCH_SIZE", "批次筆數需介於 1 到 " + maxRows, HttpStatus.BAD_REQUEST);
+      }
+      List<String> fields = split(line, lineNo);
+      try {
+        rows.add(
+            new UnitBulkRow(
+                field(fields, columns, "floorlabel"),
+                field(fields, columns, "code"),
+                decimal(field(fields, columns, "grossarea")),
+                decimal(field(fields, columns, "netarea")),
+                decimal(field(fields, columns, "balconyarea"))));
+      } catch (NumberFormatException e) {
+        throw new ApiException(
+            "INVALID_CSV", "CSV 第 " + lineNo + " 行數值格式錯誤", HttpStatus.BAD_REQUEST);
+      }
+    }
+    return rows;
+  }
+
+  /** One record per line, RFC 4180 quoting. */
+  static List<String> split(String line, int lineNo) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"' && field.toString().isBlank()) {
+        field.setLength(0);
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new ApiException(
+          "INVALID_CSV", "CSV 第 " + lineNo + " 行引號未結束", HttpStatus.BAD_REQUEST);
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+    Integer idx = columns.get(name);
+    if (idx == null || idx >= fields.size()) return null;
+    String value = fields.get(idx).trim();
+    return value.isEmpty() ? null : value;
+  }
+
+  private static BigDecimal decimal(String value) {
+    return value == null ? null : new BigDecimal(value);
+  }
+}
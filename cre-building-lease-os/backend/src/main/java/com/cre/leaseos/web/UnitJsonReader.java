@@ -0,0 +1,45 @@
+package com.cre.leaseos.web;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.dto.UnitDtos.UnitBulkRow;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Reads a JSON array of unit rows element by element from the request stream, so an oversized
+ * batch is rejected at row {@code maxRows + 1} instead of after the whole body is buffered.
+ */
+final class UnitJsonReader {
+  private UnitJsonReader() {}
+
+  static List<UnitBulkRow> read(InputStream in, ObjectMapper objectMapper, int maxRows)
+      throws IOException {
+    List<UnitBulkRow> rows = new ArrayList<>();
+    try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) throw invalid();
+      JsonToken token;
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+        if (token != JsonToken.START_OBJECT) throw invalid();
+        if (rows.size() == maxRows) {
+          throw new ApiException(
+              "INVALID_BATCH_SIZE", "批次筆數需介於 1 到 " + maxRows, HttpStatus.BAD_REQUEST);
+        }
+        rows.add(objectMapper.readValue(parser, UnitBulkRow.class));
+      }
+    } catch (JsonProcessingException e) {
+      throw invalid();
+    }
+    return rows;
+  }
+
+  private static ApiException invalid() {
+    return new ApiException("INVALID_JSON", "請提供單位資料陣列", HttpStatus.BAD_REQUEST);
+  }
+}
@@ -0,0 +1,32 @@
+CREATE TABLE IF NOT EXISTS unit_lineage (
+  id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  ancestor_id UUID NOT NULL REFERENCES units(id) ON DELETE CASCADE,
+  descendant_id UUID NOT NULL REFERENCES units(id) ON DELETE CASCADE,
+  depth INT NOT NULL,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  created_by TEXT NOT NULL DEFAULT 'system',
+  updated_by TEXT NOT NULL DEFAULT 'system',
+  CONSTRAINT uq_unit_lineage_ancestor_descendant UNIQUE (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_unit_lineage_descendant ON unit_lineage(descendant_id, depth);
+
+-- Backfill from the split (source_unit_id) and merge (replaced_by_unit_id) pointers.
+WITH RECURSIVE edges AS (
+  SELECT source_unit_id AS parent_id, id AS child_id FROM units WHERE source_unit_id IS NOT NULL
+  UNION
+  SELECT id AS parent_id, replaced_by_unit_id AS child_id FROM units WHERE replaced_by_unit_id IS NOT NULL
+),
+closure(ancestor_id, descendant_id, depth) AS (
+  SELECT id, id, 0 FROM units
+  UNION ALL
+  SELECT c.ancestor_id, e.child_id, c.depth + 1
+  FROM closure c
+  JOIN edges e ON e.parent_id = c.descendant_id
+)
+INSERT INTO unit_lineage (ancestor_id, descendant_id, depth)
+SELECT ancestor_id, descendant_id, MIN(depth)
+FROM closure
+GROUP BY ancestor_id, descendant_id
+ON CONFLICT (ancestor_id, descendant_id) DO NOTHING;
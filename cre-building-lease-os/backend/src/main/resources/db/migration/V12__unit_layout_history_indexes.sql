@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_units_floor_created ON units(floor_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_units_building_created ON units(building_id, created_at);
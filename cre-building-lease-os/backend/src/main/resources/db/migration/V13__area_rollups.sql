@@ -0,0 +1,46 @@
+ALTER TABLE floors
+  ADD COLUMN unit_count INT NOT NULL DEFAULT 0,
+  ADD COLUMN total_gross_area NUMERIC(14,2) NOT NULL DEFAULT 0,
+  ADD COLUMN total_net_area NUMERIC(14,2) NOT NULL DEFAULT 0,
+  ADD COLUMN total_balcony_area NUMERIC(14,2) NOT NULL DEFAULT 0;
+
+ALTER TABLE buildings
+  ADD COLUMN unit_count INT NOT NULL DEFAULT 0,
+  ADD COLUMN total_gross_area NUMERIC(14,2) NOT NULL DEFAULT 0,
+  ADD COLUMN total_net_area NUMERIC(14,2) NOT NULL DEFAULT 0,
+  ADD COLUMN total_balcony_area NUMERIC(14,2) NOT NULL DEFAULT 0;
+
+-- Seed the totals from the current units; from here on UnitService applies deltas.
+UPDATE floors f
+SET unit_count = s.unit_count,
+    total_gross_area = s.gross_area,
+    total_net_area = s.net_area,
+    total_balcony_area = s.balcony_area
+FROM (
+  SELECT floor_id,
+         COUNT(*) AS unit_count,
+         COALESCE(SUM(gross_area), 0) AS gross_area,
+         COALESCE(SUM(net_area), 0) AS net_area,
+         COALESCE(SUM(balcony_area), 0) AS balcony_area
+  FROM units
+  WHERE is_current
+  GROUP BY floor_id
+) s
+WHERE s.floor_id = f.id;
+
+UPDATE buildings b
+SET unit_count = s.unit_count,
+    total_gross_area = s.gross_area,
+    total_net_area = s.net_area,
+    total_balcony_area = s.balcony_area
+FROM (
+  SELECT building_id,
+         COUNT(*) AS unit_count,
+         COALESCE(SUM(gross_area), 0) AS gross_area,
+         COALESCE(SUM(net_area), 0) AS net_area,
+         COALESCE(SUM(balcony_area), 0) AS balcony_area
+  FROM units
+  WHERE is_current
+  GROUP BY building_id
+) s
+WHERE s.building_id = b.id;
@@ -0,0 +1,8 @@
+-- Seek pagination: one (building_id, sort field, id) index per allowed sort.
+CREATE INDEX IF NOT EXISTS idx_tenants_building_created_id ON tenants(building_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tenants_building_name_id ON tenants(building_id, name, id);
+CREATE INDEX IF NOT EXISTS idx_leases_building_created_id ON leases(building_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_leases_building_start_id ON leases(building_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_leases_building_end_id ON leases(building_id, end_date, id);
+CREATE INDEX IF NOT EXISTS idx_repair_records_building_created_id ON repair_records(building_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_repair_records_building_reported_id ON repair_records(building_id, reported_at, id);
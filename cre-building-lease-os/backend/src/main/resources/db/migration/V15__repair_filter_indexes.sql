@@ -0,0 +1,4 @@
+-- Repair list filters are emitted only when present, so each selective one can use its own index.
+CREATE INDEX IF NOT EXISTS idx_repair_records_building_status_created ON repair_records(building_id, status, created_at);
+CREATE INDEX IF NOT EXISTS idx_repair_records_building_floor ON repair_records(building_id, floor_id);
+CREATE INDEX IF NOT EXISTS idx_repair_records_building_common_area ON repair_records(building_id, common_area_id);
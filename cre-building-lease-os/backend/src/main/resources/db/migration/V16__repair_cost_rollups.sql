@@ -0,0 +1,44 @@
+CREATE TABLE IF NOT EXISTS repair_cost_rollups (
+  id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  building_id UUID NOT NULL REFERENCES buildings(id) ON DELETE CASCADE,
+  dimension TEXT NOT NULL,
+  dimension_id UUID NOT NULL,
+  month_start DATE NOT NULL,
+  repair_count BIGINT NOT NULL DEFAULT 0,
+  quote_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  approved_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  final_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  approved_quote_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  settled_approved_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  settled_final_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  created_by TEXT NOT NULL DEFAULT 'system',
+  updated_by TEXT NOT NULL DEFAULT 'system',
+  CONSTRAINT uq_repair_cost_rollups_key UNIQUE (building_id, dimension, dimension_id, month_start)
+);
+
+-- Seed from the existing repairs; from here on RepairService applies deltas.
+INSERT INTO repair_cost_rollups (
+  building_id, dimension, dimension_id, month_start, repair_count, quote_amount, approved_amount,
+  final_amount, approved_quote_amount, settled_approved_amount, settled_final_amount)
+SELECT building_id, dimension, dimension_id, month_start,
+       count(*),
+       sum(quote_amount),
+       coalesce(sum(approved_amount), 0),
+       coalesce(sum(final_amount), 0),
+       coalesce(sum(quote_amount) FILTER (WHERE approved_amount IS NOT NULL), 0),
+       coalesce(sum(approved_amount) FILTER (WHERE final_amount IS NOT NULL), 0),
+       coalesce(sum(final_amount) FILTER (WHERE approved_amount IS NOT NULL), 0)
+FROM (
+  SELECT r.*, d.dimension, d.dimension_id, date_trunc('month', r.reported_at)::date AS month_start
+  FROM repair_records r
+  CROSS JOIN LATERAL (VALUES
+    ('BUILDING', r.building_id),
+    ('FLOOR', r.floor_id),
+    ('COMMON_AREA', r.common_area_id),
+    ('VENDOR', r.vendor_id)
+  ) AS d(dimension, dimension_id)
+  WHERE r.status <> 'REJECTED' AND d.dimension_id IS NOT NULL
+) AS contributions
+GROUP BY building_id, dimension, dimension_id, month_start;
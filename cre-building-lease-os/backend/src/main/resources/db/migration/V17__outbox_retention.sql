@@ -0,0 +1,2 @@
+-- Serves the purge of DONE rows past the retention window.
+CREATE INDEX IF NOT EXISTS idx_outbox_events_status_processed ON outbox_events(status, processed_at);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_occupancies_lease_id ON occupancies(lease_id);
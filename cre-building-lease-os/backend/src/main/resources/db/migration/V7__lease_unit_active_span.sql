@@ -0,0 +1,56 @@
+-- Requires btree_gist, which needs elevated privileges to install: run
+-- deploy/postgres/01-extensions.sql as a superuser first.
+DO $$
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'btree_gist') THEN
+    RAISE EXCEPTION 'btree_gist is not installed; run deploy/postgres/01-extensions.sql as a superuser';
+  END IF;
+END $$;
+
+ALTER TABLE lease_units
+  ADD COLUMN active_start_date DATE,
+  ADD COLUMN active_end_date DATE;
+
+UPDATE lease_units lu
+SET active_start_date = l.start_date,
+    active_end_date = l.end_date
+FROM leases l
+WHERE l.id = lu.lease_id AND l.status = 'ACTIVE';
+
+CREATE INDEX IF NOT EXISTS idx_lease_units_unit_id ON lease_units(unit_id);
+
+-- ACTIVE leases that already overlap on a unit would make the constraint below fail with a bare
+-- exclusion error. Name them instead, so they can be ended or terminated before retrying.
+DO $$
+DECLARE
+  overlaps BIGINT;
+  sample TEXT;
+BEGIN
+  WITH pairs AS (
+    SELECT a.unit_id, a.lease_id AS first_lease_id, b.lease_id AS second_lease_id
+    FROM lease_units a
+    JOIN lease_units b
+      ON b.unit_id = a.unit_id
+     AND b.lease_id > a.lease_id
+     AND daterange(a.active_start_date, a.active_end_date, '[]')
+         && daterange(b.active_start_date, b.active_end_date, '[]')
+    WHERE a.active_start_date IS NOT NULL AND b.active_start_date IS NOT NULL
+  )
+  SELECT count(*),
+         string_agg(format('unit %s: leases %s, %s', unit_id, first_lease_id, second_lease_id), '; ')
+           FILTER (WHERE rn <= 20)
+  INTO overlaps, sample
+  FROM (SELECT p.*, row_number() OVER (ORDER BY unit_id, first_lease_id) AS rn FROM pairs p) ranked;
+
+  IF overlaps > 0 THEN
+    RAISE EXCEPTION '% overlapping ACTIVE lease pair(s) must be resolved before V7: %', overlaps, sample;
+  END IF;
+END $$;
+
+-- Two ACTIVE leases may never cover the same unit on the same day, whichever transaction wins.
+ALTER TABLE lease_units
+  ADD CONSTRAINT ex_lease_units_active_overlap
+  EXCLUDE USING gist (
+    unit_id WITH =,
+    daterange(active_start_date, active_end_date, '[]') WITH &&
+  ) WHERE (active_start_date IS NOT NULL);
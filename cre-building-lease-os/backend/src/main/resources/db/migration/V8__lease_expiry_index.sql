@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_leases_building_status_end ON leases(building_id, status, end_date, id);
+CREATE INDEX IF NOT EXISTS idx_leases_status_end ON leases(status, end_date, id);
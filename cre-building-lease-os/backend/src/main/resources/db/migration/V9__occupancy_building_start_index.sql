@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_occupancies_building_start ON occupancies(building_id, start_date);
@@ -0,0 +1,46 @@
+package com.cre.leaseos.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class AuditContextTaskDecoratorTest {
+
+  @Test
+  void decoratedTask_shouldRunAsSubmitterAndLeaveWorkerClean() throws Exception {
+    AuditContextTaskDecorator decorator = new AuditContextTaskDecorator();
+    ExecutorService worker = Executors.newSingleThreadExecutor();
+    try {
+      AuditContext.setUser("alice");
+      CompletableFuture<String> seen = new CompletableFuture<>();
+      worker.submit(decorator.decorate(() -> seen.complete(AuditContext.getCurrentUser()))).get();
+      assertEquals("alice", seen.get());
+
+      CompletableFuture<String> after = new CompletableFuture<>();
+      worker.submit(() -> after.complete(AuditContext.getCurrentUser())).get();
+      assertEquals("system", after.get());
+    } finally {
+      AuditContext.clear();
+      worker.shutdown();
+    }
+  }
+
+  @Test
+  void decoratedTask_shouldRestoreActorWhenRunOnSubmittingThread() {
+    AuditContextTaskDecorator decorator = new AuditContextTaskDecorator();
+    try {
+      AuditContext.setUser("alice");
+      CompletableFuture<String> seen = new CompletableFuture<>();
+      Runnable task = decorator.decorate(() -> seen.complete(AuditContext.getCurrentUser()));
+      AuditContext.setUser("bob");
+      task.run();
+      assertEquals("alice", seen.join());
+      assertEquals("bob", AuditContext.getCurrentUser());
+    } finally {
+      AuditContext.clear();
+    }
+  }
+}
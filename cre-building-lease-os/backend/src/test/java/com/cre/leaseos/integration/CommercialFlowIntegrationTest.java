@@ -2,30 +2,56 @@ package com.cre.leaseos.integration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.domain.Enums.LeaseStatus;
+import com.cre.leaseos.domain.Lease;
 import com.cre.leaseos.domain.Unit;
+import com.cre.leaseos.dto.OccupancyLeaseDtos.LeaseCreateReq;
+import com.cre.leaseos.dto.OccupancyLeaseDtos.LeasePatchReq;
 import com.cre.leaseos.repo.UnitRepo;
+import com.cre.leaseos.service.AreaRollupVerifier;
+import com.cre.leaseos.service.LeaseService;
+import com.cre.leaseos.service.OutboxDispatcher;
+import com.cre.leaseos.service.UnitService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -35,6 +61,11 @@ class CommercialFlowIntegrationTest {
   @Autowired private MockMvc mockMvc;
   @Autowired private ObjectMapper objectMapper;
   @Autowired private UnitRepo unitRepo;
+  @Autowired private OutboxDispatcher outboxDispatcher;
+  @Autowired private LeaseService leaseService;
+  @Autowired private AreaRollupVerifier areaRollupVerifier;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private PlatformTransactionManager transactionManager;
 
   @Test
   void floorGeneration_shouldKeepBasementOrder() throws Exception {
@@ -55,6 +86,55 @@ class CommercialFlowIntegrationTest {
         .andExpect(jsonPath("$.data[4].label").value("2F"));
   }
 
+  @Test
+  void floorRegeneration_shouldKeepFloorsThatAnythingPointsAt() throws Exception {
+    UUID buildingId = createBuilding("Regenerate Tower");
+    String generate = "/api/buildings/" + buildingId + "/floors/generate";
+    postJson(generate, Map.of("basementFloors", 1, "aboveGroundFloors", 5), status().isCreated());
+
+    UUID floor2F = getFloorIdByLabel(buildingId, "2F");
+    createUnit(floor2F, "O1");
+    postJson(generate, Map.of("basementFloors", 1, "aboveGroundFloors", 1), status().isConflict());
+    mockMvc
+        .perform(
+            post(generate)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"basementFloors\": 1, \"aboveGroundFloors\": 4}"))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.data.length()").value(5))
+        .andExpect(jsonPath("$.data[0].label").value("B1"))
+        .andExpect(jsonPath("$.data[4].label").value("4F"));
+    assertEquals(floor2F, getFloorIdByLabel(buildingId, "2F"));
+
+    UUID owner = createOwner(buildingId, "Regenerate Owner");
+    postJson(
+        "/api/floors/" + getFloorIdByLabel(buildingId, "4F") + "/owners/assign",
+        Map.of(
+            "ownerId", owner,
+            "sharePercent", new BigDecimal("100"),
+            "startDate", OffsetDateTime.parse("2026-01-01T00:00:00+08:00")),
+        status().isCreated());
+    postJson(
+        "/api/buildings/" + buildingId + "/common-areas",
+        Map.of("floorId", getFloorIdByLabel(buildingId, "3F").toString(), "name", "Lobby"),
+        status().isCreated());
+    for (int above : List.of(3, 2)) {
+      mockMvc
+          .perform(
+              post(generate)
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(
+                      objectMapper.writeValueAsString(
+                          Map.of("basementFloors", 1, "aboveGroundFloors", above))))
+          .andExpect(status().isConflict())
+          .andExpect(jsonPath("$.error.details.reasonCode").value("FLOORS_IN_USE"))
+          .andExpect(jsonPath("$.error.details.meta.floors[0]").value(above == 3 ? "4F" : "3F"));
+    }
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/floors"))
+        .andExpect(jsonPath("$.data.length()").value(5));
+  }
+
   @Test
   void unitSplitAndMerge_shouldKeepHistory() throws Exception {
     UUID buildingId = createBuilding("Split Merge Tower");
@@ -71,6 +151,16 @@ class CommercialFlowIntegrationTest {
             Map.of("code", "A1", "grossArea", new BigDecimal("100.00")),
             status().isCreated());
     UUID sourceId = UUID.fromString(getData(createdUnit).get("id").toString());
+    postJson(
+        "/api/leases",
+        Map.of(
+            "buildingId", buildingId,
+            "tenantId", createTenant(buildingId, "Lineage Tenant"),
+            "unitIds", List.of(sourceId),
+            "status", "DRAFT",
+            "startDate", "2024-01-01",
+            "endDate", "2024-12-31"),
+        status().isCreated());
 
     MvcResult split =
         postJson(
@@ -86,13 +176,28 @@ class CommercialFlowIntegrationTest {
     UUID child1 = UUID.fromString(splitUnits.get(0).get("id").toString());
     UUID child2 = UUID.fromString(splitUnits.get(1).get("id").toString());
 
-    postJson(
-        "/api/units/merge",
-        Map.of(
-            "unitIds", List.of(child1, child2),
-            "code", "A1-M",
-            "grossArea", new BigDecimal("100.00")),
-        status().isCreated());
+    MvcResult merged =
+        postJson(
+            "/api/units/merge",
+            Map.of(
+                "unitIds", List.of(child1, child2),
+                "code", "A1-M",
+                "grossArea", new BigDecimal("100.00")),
+            status().isCreated());
+    UUID mergedId = UUID.fromString(getData(merged).get("id").toString());
+
+    mockMvc
+        .perform(get("/api/units/" + mergedId + "/lineage"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.ancestors.length()").value(3))
+        .andExpect(jsonPath("$.data.ancestors[2].unitId").value(sourceId.toString()))
+        .andExpect(jsonPath("$.data.ancestors[2].depth").value(2))
+        .andExpect(jsonPath("$.data.leases.length()").value(1));
+    mockMvc
+        .perform(get("/api/units/" + sourceId + "/lineage"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.descendants.length()").value(3))
+        .andExpect(jsonPath("$.data.descendants[2].code").value("A1-M"));
 
     mockMvc
         .perform(get("/api/floors/" + floorId))
@@ -158,8 +263,29 @@ class CommercialFlowIntegrationTest {
     mockMvc
         .perform(get("/api/leases/" + leaseId))
         .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.occupancies.length()").value(0));
+
+    assertTrue(outboxDispatcher.dispatchPending() >= 1);
+    assertEquals(0, outboxDispatcher.dispatchPending());
+
+    mockMvc
+        .perform(get("/api/leases/" + leaseId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.occupancies.length()").value(1))
         .andExpect(jsonPath("$.data.occupancies[0].status").value("ACTIVE"));
 
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/leases"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].unitIds[0]").value(unitId.toString()))
+        .andExpect(jsonPath("$.data[0].effectiveManagementFee").value(50.00));
+
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/leases?page=0&size=10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.items[0].unitIds[0]").value(unitId.toString()))
+        .andExpect(jsonPath("$.data.totalElements").value(1));
+
     mockMvc
         .perform(
             post("/api/leases")
@@ -179,6 +305,1365 @@ class CommercialFlowIntegrationTest {
         .andExpect(jsonPath("$.error.details.reasonCode").value("OVERLAPPING_ACTIVE_LEASE"));
   }
 
+  @Test
+  void leaseBatch_shouldCreateValidItemsAndReportRejected() throws Exception {
+    UUID buildingId = createBuilding("Batch Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    UUID unitA = createUnit(floorId, "A1");
+    UUID unitB = createUnit(floorId, "A2");
+    UUID tenant = createTenant(buildingId, "Batch Tenant");
+
+    Map<String, Object> first = new LinkedHashMap<>();
+    first.put("buildingId", buildingId);
+    first.put("tenantId", tenant);
+    first.put("unitIds", List.of(unitA));
+    first.put("status", "ACTIVE");
+    first.put("startDate", "2026-01-01");
+    first.put("endDate", "2026-12-31");
+    Map<String, Object> overlapping = new LinkedHashMap<>(first);
+    overlapping.put("startDate", "2026-06-01");
+    Map<String, Object> other = new LinkedHashMap<>(first);
+    other.put("unitIds", List.of(unitB));
+    Map<String, Object> invalid = new LinkedHashMap<>(first);
+    invalid.remove("tenantId");
+
+    mockMvc
+        .perform(
+            post("/api/leases:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Actor-Id", "it-user")
+                .content(objectMapper.writeValueAsString(List.of(first, overlapping, other, invalid))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.created").value(2))
+        .andExpect(jsonPath("$.data.rejected").value(2))
+        .andExpect(jsonPath("$.data.items[0].created").value(true))
+        .andExpect(jsonPath("$.data.items[1].code").value("OVERLAPPING_ACTIVE_LEASE"))
+        .andExpect(jsonPath("$.data.items[2].created").value(true))
+        .andExpect(jsonPath("$.data.items[3].code").value("VALIDATION"));
+    outboxDispatcher.dispatchPending();
+
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/occupancies"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(2))
+        .andExpect(jsonPath("$.data[0].status").value("ACTIVE"));
+  }
+
+  @Test
+  void unitSplit_shouldCarryActiveOccupanciesOntoPartsViaOutbox() throws Exception {
+    UUID buildingId = createBuilding("Carry Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID unitId = createUnit(getFloorIdByLabel(buildingId, "1F"), "C1");
+    MvcResult lease =
+        postJson(
+            "/api/leases",
+            Map.of(
+                "buildingId", buildingId,
+                "tenantId", createTenant(buildingId, "Carry Tenant"),
+                "unitIds", List.of(unitId),
+                "status", "ACTIVE",
+                "startDate", "2026-01-01",
+                "endDate", "2027-12-31"),
+            status().isCreated());
+    UUID leaseId = UUID.fromString(getData(lease).get("id").toString());
+    outboxDispatcher.dispatchPending();
+
+    List<Map<String, Object>> parts =
+        getDataList(
+            postJson(
+                "/api/units/" + unitId + "/split",
+                Map.of(
+                    "parts",
+                    List.of(
+                        Map.of("code", "C1-1", "grossArea", new BigDecimal("20.00")),
+                        Map.of("code", "C1-2", "grossArea", new BigDecimal("30.00")))),
+                status().isCreated()));
+    assertTrue(outboxDispatcher.dispatchPending() >= 1);
+
+    List<Map<String, Object>> occupancies =
+        (List<Map<String, Object>>)
+            getData(mockMvc.perform(get("/api/leases/" + leaseId)).andReturn()).get("occupancies");
+    Set<String> active = new HashSet<>();
+    for (Map<String, Object> o : occupancies) {
+      if ("ACTIVE".equals(o.get("status"))) active.add(o.get("unitId").toString());
+      if (unitId.toString().equals(o.get("unitId"))) assertEquals("ENDED", o.get("status"));
+    }
+    assertEquals(
+        Set.of(parts.get(0).get("id").toString(), parts.get(1).get("id").toString()), active);
+  }
+
+  @Test
+  void rentRoll_shouldFollowLeaseAndBuildingWrites() throws Exception {
+    UUID buildingId = createBuilding("Roll Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    UUID unitA = createUnit(floorId, "A1");
+    createUnit(floorId, "A2");
+    UUID tenant = createTenant(buildingId, "Roll Tenant");
+
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/rent-roll"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.totals.units").value(2))
+        .andExpect(jsonPath("$.data.totals.leasedUnits").value(0));
+
+    Map<String, Object> lease = new LinkedHashMap<>();
+    lease.put("buildingId", buildingId);
+    lease.put("tenantId", tenant);
+    lease.put("unitIds", List.of(unitA));
+    lease.put("status", "ACTIVE");
+    lease.put("startDate", "2026-01-01");
+    lease.put("endDate", "2026-12-31");
+    lease.put("rent", new BigDecimal("1000.00"));
+    postJson("/api/leases", lease, status().isCreated());
+
+    mockMvc
+        .perform(
+            patch("/api/buildings/" + buildingId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Actor-Id", "it-user")
+                .content(objectMapper.writeValueAsString(Map.of("managementFee", 80))))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/rent-roll").param("asOf", "2026-03-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.totals.leasedUnits").value(1))
+        .andExpect(jsonPath("$.data.totals.rent").value(1000.0))
+        .andExpect(jsonPath("$.data.rows[0].unitCode").value("A1"))
+        .andExpect(jsonPath("$.data.rows[0].tenantName").value("Roll Tenant"))
+        .andExpect(jsonPath("$.data.rows[0].managementFee").value(80))
+        .andExpect(jsonPath("$.data.rows[1].leaseId").doesNotExist());
+
+    // A write that skips this instance's hooks, as one from another instance would.
+    jdbcTemplate.update(
+        "update leases set rent = ?, updated_at = current_timestamp where building_id = ?",
+        new BigDecimal("1500.00"),
+        buildingId);
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/rent-roll").param("asOf", "2026-03-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.totals.rent").value(1500.0));
+  }
+
+  @Test
+  void expiringLeases_shouldPageByEndDateCursor() throws Exception {
+    UUID buildingId = createBuilding("Expiry Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    UUID tenant = createTenant(buildingId, "Expiry Tenant");
+    for (String[] spec : new String[][] {{"E1", "2026-06-30"}, {"E2", "2026-03-31"}, {"E3", "2027-06-30"}}) {
+      Map<String, Object> lease = new LinkedHashMap<>();
+      lease.put("buildingId", buildingId);
+      lease.put("tenantId", tenant);
+      lease.put("unitIds", List.of(createUnit(floorId, spec[0])));
+      lease.put("status", "ACTIVE");
+      lease.put("startDate", "2025-01-01");
+      lease.put("endDate", spec[1]);
+      postJson("/api/leases", lease, status().isCreated());
+    }
+
+    String path = "/api/buildings/" + buildingId + "/leases/expiring";
+    MvcResult first =
+        mockMvc
+            .perform(get(path).param("asOf", "2026-01-01").param("days", "180").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.items.length()").value(1))
+            .andExpect(jsonPath("$.data.items[0].lease.endDate").value("2026-03-31"))
+            .andExpect(jsonPath("$.data.items[0].daysUntilExpiry").value(89))
+            .andExpect(jsonPath("$.data.hasNext").value(true))
+            .andReturn();
+    String cursor = getData(first).get("nextCursor").toString();
+
+    mockMvc
+        .perform(
+            get(path)
+                .param("asOf", "2026-01-01")
+                .param("days", "180")
+                .param("size", "1")
+                .param("cursor", cursor))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.items[0].lease.endDate").value("2026-06-30"))
+        .andExpect(jsonPath("$.data.hasNext").value(false));
+
+    mockMvc
+        .perform(get(path).param("cursor", "not-a-cursor"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_CURSOR"));
+  }
+
+  @Test
+  void occupancySnapshot_shouldReplayHandoverAsOfAndOverRange() throws Exception {
+    UUID buildingId = createBuilding("Snapshot Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID unitId = createUnit(getFloorIdByLabel(buildingId, "1F"), "S1");
+    UUID first = createTenant(buildingId, "First Tenant");
+    UUID second = createTenant(buildingId, "Second Tenant");
+    for (Object[] spec :
+        new Object[][] {{first, "2026-01-01", "2026-06-30"}, {second, "2026-07-01", "2026-12-31"}}) {
+      Map<String, Object> lease = new LinkedHashMap<>();
+      lease.put("buildingId", buildingId);
+      lease.put("tenantId", spec[0]);
+      lease.put("unitIds", List.of(unitId));
+      lease.put("status", "ACTIVE");
+      lease.put("startDate", spec[1]);
+      lease.put("endDate", spec[2]);
+      postJson("/api/leases", lease, status().isCreated());
+    }
+
+    String path = "/api/buildings/" + buildingId + "/occupancy";
+    mockMvc
+        .perform(get(path).param("asOf", "2026-03-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.occupiedUnits").value(1))
+        .andExpect(jsonPath("$.data.units[0].tenantName").value("First Tenant"));
+    mockMvc
+        .perform(get(path).param("asOf", "2027-03-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.occupiedUnits").value(0));
+
+    mockMvc
+        .perform(get(path).param("from", "2025-12-01").param("to", "2027-01-31"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.initial.length()").value(0))
+        .andExpect(jsonPath("$.data.changes.length()").value(3))
+        .andExpect(jsonPath("$.data.changes[0].date").value("2026-01-01"))
+        .andExpect(jsonPath("$.data.changes[0].toTenantName").value("First Tenant"))
+        .andExpect(jsonPath("$.data.changes[1].date").value("2026-07-01"))
+        .andExpect(jsonPath("$.data.changes[1].fromTenantName").value("First Tenant"))
+        .andExpect(jsonPath("$.data.changes[1].toTenantName").value("Second Tenant"))
+        .andExpect(jsonPath("$.data.changes[2].date").value("2027-01-01"))
+        .andExpect(jsonPath("$.data.changes[2].toTenantId").doesNotExist());
+  }
+
+  @Test
+  void vacancy_shouldSplitOccupiedCommittedAndTrackMonths() throws Exception {
+    UUID buildingId = createBuilding("Vacancy Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    UUID tenant = createTenant(buildingId, "Vacancy Tenant");
+    for (String[] spec : new String[][] {{"V1", "2026-01-01", "2026-12-31"}, {"V2", "2026-09-01", "2027-08-31"}}) {
+      Map<String, Object> lease = new LinkedHashMap<>();
+      lease.put("buildingId", buildingId);
+      lease.put("tenantId", tenant);
+      lease.put("unitIds", List.of(createUnit(floorId, spec[0])));
+      lease.put("status", "ACTIVE");
+      lease.put("startDate", spec[1]);
+      lease.put("endDate", spec[2]);
+      postJson("/api/leases", lease, status().isCreated());
+    }
+
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/vacancy").param("asOf", "2026-03-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.totals.units").value(2))
+        .andExpect(jsonPath("$.data.totals.occupiedArea").value(50.0))
+        .andExpect(jsonPath("$.data.totals.committedArea").value(50.0))
+        .andExpect(jsonPath("$.data.totals.occupancyRate").value(50.0))
+        .andExpect(jsonPath("$.data.floors[0].label").value("1F"))
+        .andExpect(jsonPath("$.data.floors[0].vacantArea").value(50.0));
+
+    mockMvc
+        .perform(
+            get("/api/buildings/" + buildingId + "/vacancy/monthly")
+                .param("from", "2025-12")
+                .param("to", "2027-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.months.length()").value(14))
+        .andExpect(jsonPath("$.data.months[0].occupiedArea").value(0))
+        .andExpect(jsonPath("$.data.months[1].occupiedArea").value(50.0))
+        .andExpect(jsonPath("$.data.months[9].month").value("2026-09"))
+        .andExpect(jsonPath("$.data.months[9].occupancyRate").value(100.0))
+        .andExpect(jsonPath("$.data.months[13].occupiedArea").value(50.0))
+        .andExpect(jsonPath("$.data.months[13].floors[0].occupancyRate").value(50.0));
+  }
+
+  @Test
+  void concurrentActivations_shouldSerializeOnSharedUnitOnly() throws Exception {
+    UUID buildingId = createBuilding("Race Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    UUID tenant = createTenant(buildingId, "Race Tenant");
+    UUID shared = createUnit(floorId, "R0");
+    List<UUID> disjoint = new ArrayList<>();
+    for (int i = 1; i <= 8; i++) disjoint.add(createUnit(floorId, "R" + i));
+    // Half of the shared-unit writers activate through patchLease, half through createLease.
+    List<UUID> drafts = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      drafts.add(
+          leaseService.createLease(raceLease(buildingId, tenant, shared, LeaseStatus.DRAFT)).getId());
+    }
+
+    List<Callable<Object>> writes = new ArrayList<>();
+    for (UUID draft : drafts) {
+      writes.add(
+          () ->
+              leaseService.patchLease(
+                  draft,
+                  new LeasePatchReq(LeaseStatus.ACTIVE, null, null, null, null, null, null)));
+    }
+    for (int i = 0; i < 4; i++) {
+      writes.add(
+          () -> leaseService.createLease(raceLease(buildingId, tenant, shared, LeaseStatus.ACTIVE)));
+    }
+    for (UUID unitId : disjoint) {
+      writes.add(
+          () -> leaseService.createLease(raceLease(buildingId, tenant, unitId, LeaseStatus.ACTIVE)));
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(writes.size());
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<String>> outcomes = new ArrayList<>();
+    try {
+      for (Callable<Object> write : writes) {
+        outcomes.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  try {
+                    write.call();
+                    return "OK";
+                  } catch (ApiException e) {
+                    return e.getCode();
+                  }
+                }));
+      }
+      start.countDown();
+
+      Map<String, Integer> sharedOutcomes = new HashMap<>();
+      for (int i = 0; i < outcomes.size(); i++) {
+        String outcome = outcomes.get(i).get(30, TimeUnit.SECONDS);
+        if (i < 8) sharedOutcomes.merge(outcome, 1, Integer::sum);
+        else assertEquals("OK", outcome);
+      }
+      assertEquals(Map.of("OK", 1, "OVERLAPPING_ACTIVE_LEASE", 7), sharedOutcomes);
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(
+        1,
+        jdbcTemplate.queryForObject(
+            "select count(*) from lease_units where unit_id = ? and active_start_date is not null",
+            Integer.class,
+            shared));
+  }
+
+  @Test
+  void activations_shouldWaitOnlyForRowLocksOfTheirOwnUnits() throws Exception {
+    UUID buildingId = createBuilding("Row Lock Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    UUID tenant = createTenant(buildingId, "Row Lock Tenant");
+    UUID held = createUnit(floorId, "H1");
+    UUID free = createUnit(floorId, "H2");
+    UUID draft =
+        leaseService.createLease(raceLease(buildingId, tenant, held, LeaseStatus.DRAFT)).getId();
+
+    // Another instance's writer: holds the unit row FOR UPDATE without this JVM's stripe locks.
+    CountDownLatch locked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> holder =
+          pool.submit(
+              () ->
+                  tx.executeWithoutResult(
+                      status -> {
+                        unitRepo.lockByIds(List.of(held));
+                        locked.countDown();
+                        try {
+                          release.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                          Thread.currentThread().interrupt();
+                        }
+                      }));
+      assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+      Future<Lease> blocked =
+          pool.submit(
+              () ->
+                  leaseService.patchLease(
+                      draft,
+                      new LeasePatchReq(LeaseStatus.ACTIVE, null, null, null, null, null, null)));
+      leaseService.createLease(raceLease(buildingId, tenant, free, LeaseStatus.ACTIVE));
+      assertThrows(TimeoutException.class, () -> blocked.get(300, TimeUnit.MILLISECONDS));
+
+      release.countDown();
+      holder.get(10, TimeUnit.SECONDS);
+      assertEquals(LeaseStatus.ACTIVE, blocked.get(10, TimeUnit.SECONDS).getStatus());
+    } finally {
+      release.countDown();
+      pool.shutdownNow();
+    }
+  }
+
+  private static LeaseCreateReq raceLease(
+      UUID buildingId, UUID tenant, UUID unitId, LeaseStatus status) {
+    return new LeaseCreateReq(
+        buildingId,
+        tenant,
+        List.of(unitId),
+        status,
+        LocalDate.of(2026, 1, 1),
+        LocalDate.of(2026, 12, 31),
+        null,
+        null,
+        null);
+  }
+
+  @Test
+  void floorAndBuildingReads_shouldAnswerNotModifiedUntilRowsChange() throws Exception {
+    UUID buildingId = createBuilding("ETag Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    createUnit(floorId, "E1");
+
+    MvcResult first =
+        mockMvc
+            .perform(get("/api/floors/" + floorId))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("Last-Modified"))
+            .andReturn();
+    String etag = first.getResponse().getHeader("ETag");
+    assertNotNull(etag);
+
+    mockMvc
+        .perform(get("/api/floors/" + floorId).header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", etag))
+        .andExpect(content().string(""));
+
+    createUnit(floorId, "E2");
+    mockMvc
+        .perform(get("/api/floors/" + floorId).header("If-None-Match", etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.units.length()").value(2));
+
+    String listEtag =
+        mockMvc
+            .perform(get("/api/buildings"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+    mockMvc
+        .perform(get("/api/buildings").header("If-None-Match", listEtag))
+        .andExpect(status().isNotModified());
+
+    mockMvc
+        .perform(get("/api/floors/" + UUID.randomUUID()))
+        .andExpect(status().isNotFound())
+        .andExpect(header().doesNotExist("ETag"));
+  }
+
+  @Test
+  void bulkUnits_shouldImportJsonAndCsvAllOrNothing() throws Exception {
+    UUID buildingId = createBuilding("Bulk Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 2),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    createUnit(floorId, "B1");
+
+    postJson(
+        "/api/floors/" + floorId + "/units:bulk",
+        List.of(
+            Map.of("code", "B2", "grossArea", new BigDecimal("30.00")),
+            Map.of("code", "B3", "grossArea", new BigDecimal("20.00"))),
+        status().isCreated());
+
+    mockMvc
+        .perform(
+            post("/api/floors/" + floorId + "/units:bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        List.of(
+                            Map.of("code", "B4", "grossArea", new BigDecimal("10.00")),
+                            Map.of("code", "B1", "grossArea", new BigDecimal("10.00")),
+                            Map.of("code", "B4", "grossArea", new BigDecimal("10.00"))))))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_UNITS"))
+        .andExpect(jsonPath("$.error.details.meta.errors.length()").value(2))
+        .andExpect(jsonPath("$.error.details.meta.errors[0].index").value(1))
+        .andExpect(jsonPath("$.error.details.meta.errors[1].reasonCode").value("DUPLICATE_CODE"));
+
+    String csv = "floorLabel,code,grossArea,netArea\n1F,C1,40,35\n2F,C1,60,\n2F,C2,25.5,20\n";
+    mockMvc
+        .perform(
+            post("/api/buildings/" + buildingId + "/units:bulk")
+                .contentType("text/csv")
+                .content(csv))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.data.length()").value(3))
+        .andExpect(jsonPath("$.data[2].grossArea").value(25.5));
+
+    mockMvc
+        .perform(get("/api/floors/" + floorId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.units.length()").value(4));
+    mockMvc
+        .perform(get("/api/floors/" + getFloorIdByLabel(buildingId, "2F")))
+        .andExpect(jsonPath("$.data.units.length()").value(2));
+
+    mockMvc
+        .perform(
+            post("/api/buildings/" + buildingId + "/units:bulk")
+                .contentType("text/csv")
+                .content("floorLabel,code,grossArea\n3F,X1,10\n"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.meta.errors[0].reasonCode").value("INVALID_FLOOR"));
+
+    mockMvc
+        .perform(
+            post("/api/floors/" + floorId + "/units:bulk")
+                .contentType("text/csv")
+                .content("code,grossArea,netArea\n\"Q,1\",10,\"8\"\n"))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.data[0].code").value("Q,1"))
+        .andExpect(jsonPath("$.data[0].netArea").value(8));
+    mockMvc
+        .perform(
+            post("/api/floors/" + floorId + "/units:bulk")
+                .contentType("text/csv")
+                .content("code,grossArea\n\"Q2,10\n"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_CSV"));
+
+    List<Map<String, Object>> oversized = new ArrayList<>();
+    for (int i = 0; i <= UnitService.MAX_BULK_UNITS; i++) {
+      oversized.add(Map.of("code", "Z" + i, "grossArea", 1));
+    }
+    mockMvc
+        .perform(
+            post("/api/floors/" + floorId + "/units:bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(oversized)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_BATCH_SIZE"));
+    mockMvc
+        .perform(
+            post("/api/floors/" + floorId + "/units:bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"code\":\"Z\"}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_JSON"));
+  }
+
+  @Test
+  void areaRollups_shouldFollowUnitWritesAndBeRepairedByVerifier() throws Exception {
+    UUID buildingId = createBuilding("Rollup Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 2),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    UUID r1 = createUnit(floorId, "R1");
+    UUID r2 = createUnit(floorId, "R2");
+    createUnit(getFloorIdByLabel(buildingId, "2F"), "R3");
+
+    postJson(
+        "/api/units/" + r1 + "/split",
+        Map.of(
+            "parts",
+            List.of(
+                Map.of("code", "R1-1", "grossArea", 20, "netArea", 15),
+                Map.of("code", "R1-2", "grossArea", 30, "netArea", 25))),
+        status().isCreated());
+    mockMvc
+        .perform(
+            patch("/api/units/" + r2)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"grossArea\": 70}"))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/floors"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].label").value("1F"))
+        .andExpect(jsonPath("$.data[0].unitCount").value(3))
+        .andExpect(jsonPath("$.data[0].totalGrossArea").value(120.0))
+        .andExpect(jsonPath("$.data[0].totalNetArea").value(40.0))
+        .andExpect(jsonPath("$.data[1].unitCount").value(1));
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId))
+        .andExpect(jsonPath("$.data.unitCount").value(4))
+        .andExpect(jsonPath("$.data.totalGrossArea").value(170.0));
+
+    jdbcTemplate.update(
+        "update floors set unit_count = 9, total_gross_area = 1 where id = ?", floorId);
+    assertTrue(areaRollupVerifier.verifyAll() >= 1);
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/floors"))
+        .andExpect(jsonPath("$.data[0].unitCount").value(3))
+        .andExpect(jsonPath("$.data[0].totalGrossArea").value(120.0));
+    assertEquals(0, areaRollupVerifier.verifyAll());
+  }
+
+  @Test
+  void dashboard_shouldMergeSectionCounts() throws Exception {
+    UUID buildingId = createBuilding("Dashboard Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 1, "aboveGroundFloors", 2),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    UUID tenant = createTenant(buildingId, "Dashboard Tenant");
+    createTenant(buildingId, "Dashboard Tenant Two");
+    Map<String, Object> lease = new LinkedHashMap<>();
+    lease.put("buildingId", buildingId);
+    lease.put("tenantId", tenant);
+    lease.put("unitIds", List.of(createUnit(floorId, "D1")));
+    lease.put("status", "ACTIVE");
+    lease.put("startDate", LocalDate.now().minusMonths(11).toString());
+    lease.put("endDate", LocalDate.now().plusDays(30).toString());
+    postJson("/api/leases", lease, status().isCreated());
+    createUnit(floorId, "D2");
+
+    mockMvc
+        .perform(get("/api/buildings/" + buildingId + "/dashboard"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.floors").value(3))
+        .andExpect(jsonPath("$.data.units.count").value(2))
+        .andExpect(jsonPath("$.data.units.grossArea").value(100.0))
+        .andExpect(jsonPath("$.data.tenants").value(2))
+        .andExpect(jsonPath("$.data.leases.byStatus.ACTIVE").value(1))
+        .andExpect(jsonPath("$.data.leases.byStatus.DRAFT").value(0))
+        .andExpect(jsonPath("$.data.leases.expiringWithin90Days").value(1))
+        .andExpect(jsonPath("$.data.repairs.open").value(0))
+        .andExpect(jsonPath("$.data.vendors").value(0));
+
+    mockMvc
+        .perform(get("/api/buildings/" + UUID.randomUUID() + "/dashboard"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void portfolio_shouldGroupMetricsAcrossBuildingsWithKeysetPages() throws Exception {
+    UUID leasedBuilding = createBuilding("Portfolio Leased");
+    UUID emptyBuilding = createBuilding("Portfolio Empty");
+    postJson(
+        "/api/buildings/" + leasedBuilding + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(leasedBuilding, "1F");
+    UUID tenant = createTenant(leasedBuilding, "Portfolio Tenant");
+    LocalDate today = LocalDate.now();
+    String asOf = today.plusMonths(1).toString();
+    Map<String, Object> lease = new LinkedHashMap<>();
+    lease.put("buildingId", leasedBuilding);
+    lease.put("tenantId", tenant);
+    lease.put("unitIds", List.of(createUnit(floorId, "P1")));
+    lease.put("status", "ACTIVE");
+    lease.put("startDate", today.minusMonths(1).toString());
+    lease.put("endDate", today.plusYears(1).toString());
+    lease.put("rent", new BigDecimal("1200.00"));
+    postJson("/api/leases", lease, status().isCreated());
+    createUnit(floorId, "P2");
+
+    Map<String, Map<String, Object>> rows = new HashMap<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      var request = get("/api/portfolio/buildings").param("asOf", asOf).param("size", "3");
+      if (cursor != null) request.param("cursor", cursor);
+      Map<String, Object> page = getData(mockMvc.perform(request).andReturn());
+      for (Map<String, Object> row : (List<Map<String, Object>>) page.get("items")) {
+        assertNull(rows.put(row.get("buildingId").toString(), row));
+      }
+      cursor = (String) page.get("nextCursor");
+      pages++;
+    } while (cursor != null && pages < 100);
+
+    Map<String, Object> leased = rows.get(leasedBuilding.toString());
+    assertEquals(1, ((Number) leased.get("activeLeases")).intValue());
+    assertEquals(1200.0, ((Number) leased.get("rent")).doubleValue());
+    assertEquals(50.0, ((Number) leased.get("leasedArea")).doubleValue());
+    assertEquals(50.0, ((Number) leased.get("vacancyRate")).doubleValue());
+    assertEquals(0, ((Number) rows.get(emptyBuilding.toString()).get("units")).intValue());
+
+    Map<String, Object> summary =
+        getData(
+            mockMvc.perform(get("/api/portfolio/summary").param("asOf", asOf)).andReturn());
+    assertEquals(rows.size(), ((Number) summary.get("buildings")).intValue());
+    assertTrue(((Number) summary.get("activeLeases")).intValue() >= 1);
+
+    mockMvc
+        .perform(get("/api/portfolio/summary").param("asOf", today.minusDays(1).toString()))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_DATE_RANGE"));
+  }
+
+  @Test
+  void ownershipMatrix_shouldGridSharesByFloorAndOwnerForWindow() throws Exception {
+    UUID buildingId = createBuilding("Matrix Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 2),
+        status().isCreated());
+    UUID first = getFloorIdByLabel(buildingId, "1F");
+    UUID second = getFloorIdByLabel(buildingId, "2F");
+    UUID ownerA = createOwner(buildingId, "Matrix A");
+    UUID ownerB = createOwner(buildingId, "Matrix B");
+    UUID ownerC = createOwner(buildingId, "Matrix C");
+
+    postJson(
+        "/api/floors/" + first + "/owners/assign",
+        Map.of(
+            "ownerId", ownerA,
+            "sharePercent", new BigDecimal("60"),
+            "startDate", OffsetDateTime.parse("2026-01-01T00:00:00+08:00"),
+            "endDate", OffsetDateTime.parse("2026-03-31T00:00:00+08:00")),
+        status().isCreated());
+    postJson(
+        "/api/floors/" + first + "/owners/assign",
+        Map.of(
+            "ownerId", ownerB,
+            "sharePercent", new BigDecimal("40"),
+            "startDate", OffsetDateTime.parse("2026-01-01T00:00:00+08:00")),
+        status().isCreated());
+    postJson(
+        "/api/floors/" + second + "/owners/assign",
+        Map.of(
+            "ownerId", ownerC,
+            "sharePercent", new BigDecimal("100"),
+            "startDate", OffsetDateTime.parse("2026-06-01T00:00:00+08:00")),
+        status().isCreated());
+
+    mockMvc
+        .perform(get("/api/floors/" + first + "/owners"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(2))
+        .andExpect(jsonPath("$.data[0].owner.name").exists());
+
+    String matrix = "/api/buildings/" + buildingId + "/ownership-matrix";
+    mockMvc
+        .perform(get(matrix).param("from", "2026-02-01").param("to", "2026-02-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.owners[0].id").value(ownerA.toString()))
+        .andExpect(jsonPath("$.data.owners[2].id").value(ownerC.toString()))
+        .andExpect(jsonPath("$.data.floors[0].label").value("1F"))
+        .andExpect(jsonPath("$.data.floors[0].shares[0]").value(60))
+        .andExpect(jsonPath("$.data.floors[0].shares[1]").value(40))
+        .andExpect(jsonPath("$.data.floors[0].allocatedPercent").value(100))
+        .andExpect(jsonPath("$.data.floors[1].label").value("2F"))
+        .andExpect(jsonPath("$.data.floors[1].allocatedPercent").value(0));
+
+    mockMvc
+        .perform(get(matrix).param("from", "2026-06-02").param("to", "2026-06-30"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.floors[0].shares[0]").value(0))
+        .andExpect(jsonPath("$.data.floors[0].shares[1]").value(40))
+        .andExpect(jsonPath("$.data.floors[1].shares[2]").value(100));
+
+    // Re-assigned within the window: A's two spans add up to the time held, not to 120%.
+    postJson(
+        "/api/floors/" + first + "/owners/assign",
+        Map.of(
+            "ownerId", ownerA,
+            "sharePercent", new BigDecimal("60"),
+            "startDate", OffsetDateTime.parse("2026-03-31T00:00:01+08:00")),
+        status().isCreated());
+    mockMvc
+        .perform(get(matrix).param("from", "2026-01-02").param("to", "2026-06-30"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.floors[0].shares[0]").value(60))
+        .andExpect(jsonPath("$.data.floors[0].shares[1]").value(40))
+        .andExpect(jsonPath("$.data.floors[0].allocatedPercent").value(100));
+
+    mockMvc
+        .perform(get(matrix).param("from", "2026-06-30").param("to", "2026-06-01"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_DATE_RANGE"));
+  }
+
+  @Test
+  void search_shouldMatchCjkNgramsAndFollowWrites() throws Exception {
+    UUID buildingId = createBuilding("Search Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    MvcResult created =
+        postJson(
+            "/api/buildings/" + buildingId + "/tenants",
+            Map.of("name", "星宇航空股份有限公司", "taxId", "24681357"),
+            status().isCreated());
+    UUID airline = UUID.fromString(getData(created).get("id").toString());
+    String search = "/api/buildings/" + buildingId + "/search";
+
+    mockMvc
+        .perform(get(search).param("q", "宇航"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.total").value(1))
+        .andExpect(jsonPath("$.data.hits[0].id").value(airline.toString()))
+        .andExpect(jsonPath("$.data.hits[0].type").value("TENANT"));
+
+    postJson(
+        "/api/buildings/" + buildingId + "/tenants",
+        Map.of("name", "星宇"),
+        status().isCreated());
+    UUID unitId = createUnit(floorId, "A-101");
+
+    mockMvc
+        .perform(get(search).param("q", "星 宇"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.total").value(2))
+        .andExpect(jsonPath("$.data.hits[0].label").value("星宇"))
+        .andExpect(jsonPath("$.data.hits[1].id").value(airline.toString()));
+    mockMvc
+        .perform(get(search).param("q", "ａ－１０"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.hits[0].id").value(unitId.toString()))
+        .andExpect(jsonPath("$.data.hits[0].matchedField").value("code"));
+    mockMvc
+        .perform(get(search).param("q", "8135"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.hits[0].matchedField").value("taxId"));
+
+    mockMvc
+        .perform(
+            patch("/api/tenants/" + airline)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Actor-Id", "it-user")
+                .content(objectMapper.writeValueAsString(Map.of("name", "長榮航空"))))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(get(search).param("q", "宇航"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.total").value(0));
+
+    // A write that skips this instance's hooks, as one from another instance would.
+    jdbcTemplate.update(
+        "update tenants set name = ?, updated_at = current_timestamp where id = ?",
+        "星宇航空",
+        airline);
+    mockMvc
+        .perform(get(search).param("q", "宇航"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.total").value(1))
+        .andExpect(jsonPath("$.data.hits[0].id").value(airline.toString()));
+    mockMvc
+        .perform(get(search).param("q", " "))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_QUERY"));
+  }
+
+  @Test
+  void tenantIdentity_shouldResolveImportsAndMergeDuplicates() throws Exception {
+    UUID buildingId = createBuilding("Identity Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    String tenants = "/api/buildings/" + buildingId + "/tenants";
+    UUID original =
+        UUID.fromString(
+            getData(
+                    postJson(
+                        tenants,
+                        Map.of("name", "日商丹下都市建築設計(股)公司台北辦事處"),
+                        status().isCreated()))
+                .get("id")
+                .toString());
+    UUID duplicate =
+        UUID.fromString(
+            getData(
+                    postJson(
+                        tenants,
+                        Map.of("name", "日商丹下都市建築設計股份有限公司 台北辦事處", "taxId", "12345678"),
+                        status().isCreated()))
+                .get("id")
+                .toString());
+
+    Map<String, Object> lease = new LinkedHashMap<>();
+    lease.put("buildingId", buildingId);
+    lease.put("tenantId", duplicate);
+    lease.put("unitIds", List.of(createUnit(floorId, "D1")));
+    lease.put("status", "ACTIVE");
+    lease.put("startDate", "2026-01-01");
+    lease.put("endDate", "2026-12-31");
+    lease.put("rent", new BigDecimal("900.00"));
+    postJson("/api/leases", lease, status().isCreated());
+    String rentRoll = "/api/buildings/" + buildingId + "/rent-roll";
+    mockMvc
+        .perform(get(rentRoll).param("asOf", "2026-06-01"))
+        .andExpect(jsonPath("$.data.rows[0].tenantId").value(duplicate.toString()));
+
+    mockMvc
+        .perform(get(tenants + "/duplicates"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(1))
+        .andExpect(jsonPath("$.data[0].survivorId").value(original.toString()))
+        .andExpect(jsonPath("$.data[0].matchedBy[0]").value("NAME"))
+        .andExpect(jsonPath("$.data[0].tenants.length()").value(2));
+
+    postJson(
+        "/api/tenants/" + original + "/merge",
+        Map.of("duplicateIds", List.of(duplicate)),
+        status().isOk());
+    mockMvc.perform(get("/api/tenants/" + duplicate)).andExpect(status().isNotFound());
+    mockMvc
+        .perform(get("/api/tenants/" + original))
+        .andExpect(jsonPath("$.data.taxId").value("12345678"));
+    mockMvc
+        .perform(get(rentRoll).param("asOf", "2026-06-01"))
+        .andExpect(jsonPath("$.data.rows[0].tenantId").value(original.toString()));
+    mockMvc
+        .perform(get(tenants + "/duplicates"))
+        .andExpect(jsonPath("$.data.length()").value(0));
+
+    List<Map<String, Object>> rows =
+        List.of(
+            Map.of("name", "臺北市都市更新處"),
+            Map.of("name", "ＡＢＣ", "taxId", "1234-5678"),
+            Map.of("name", "台北市 都市更新處"));
+    Map<String, Object> body = Map.of("tenants", rows, "create", true);
+    mockMvc
+        .perform(
+            post(tenants + ":resolve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Actor-Id", "it-user")
+                .content(objectMapper.writeValueAsString(body)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].status").value("CREATED"))
+        .andExpect(jsonPath("$.data[1].status").value("MATCHED"))
+        .andExpect(jsonPath("$.data[1].matchedBy").value("TAX_ID"))
+        .andExpect(jsonPath("$.data[1].tenantId").value(original.toString()))
+        .andExpect(jsonPath("$.data[2].status").value("DUPLICATE_IN_BATCH"))
+        .andExpect(jsonPath("$.data[2].duplicateOf").value(0));
+    mockMvc
+        .perform(
+            post(tenants + ":resolve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Actor-Id", "it-user")
+                .content(objectMapper.writeValueAsString(body)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].status").value("MATCHED"))
+        .andExpect(jsonPath("$.data[0].matchedBy").value("NAME"));
+  }
+
+  @Test
+  void tenantIdentity_shouldNotJoinDifferentTaxIdsBySharedName() throws Exception {
+    UUID buildingId = createBuilding("Identity Conflict Tower");
+    String tenants = "/api/buildings/" + buildingId + "/tenants";
+    UUID first =
+        UUID.fromString(
+            getData(
+                    postJson(
+                        tenants,
+                        Map.of("name", "大同股份有限公司", "taxId", "11111111"),
+                        status().isCreated()))
+                .get("id")
+                .toString());
+    UUID second =
+        UUID.fromString(
+            getData(
+                    postJson(
+                        tenants,
+                        Map.of("name", "大同公司", "taxId", "22222222"),
+                        status().isCreated()))
+                .get("id")
+                .toString());
+
+    mockMvc
+        .perform(get(tenants + "/duplicates"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(0));
+
+    List<Map<String, Object>> rows =
+        List.of(
+            Map.of("name", "大同有限公司", "taxId", "33333333"),
+            Map.of("name", "大同"),
+            Map.of("name", "新光公司", "taxId", "44444444"),
+            Map.of("name", "新光股份有限公司", "taxId", "55555555"));
+    mockMvc
+        .perform(
+            post(tenants + ":resolve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Actor-Id", "it-user")
+                .content(
+                    objectMapper.writeValueAsString(Map.of("tenants", rows, "create", true))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].status").value("CONFLICT"))
+        .andExpect(jsonPath("$.data[0].reason").value("TAX_ID_MISMATCH"))
+        .andExpect(jsonPath("$.data[0].conflictsWith.length()").value(2))
+        .andExpect(jsonPath("$.data[0].tenantId").doesNotExist())
+        .andExpect(jsonPath("$.data[1].status").value("CONFLICT"))
+        .andExpect(jsonPath("$.data[2].status").value("CREATED"))
+        .andExpect(jsonPath("$.data[3].status").value("CONFLICT"))
+        .andExpect(jsonPath("$.data[3].conflictsWithIndex[0]").value(2));
+
+    mockMvc
+        .perform(
+            post("/api/tenants/" + first + "/merge")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Actor-Id", "it-user")
+                .content(objectMapper.writeValueAsString(Map.of("duplicateIds", List.of(second)))))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("TAX_ID_CONFLICT"));
+    mockMvc.perform(get("/api/tenants/" + second)).andExpect(status().isOk());
+  }
+
+  @Test
+  void keysetPages_shouldSeekByAllowedSortAndRejectMismatchedCursors() throws Exception {
+    UUID buildingId = createBuilding("Keyset Tower");
+    for (String name : List.of("Delta", "Alpha", "Echo", "Charlie", "Bravo")) {
+      createTenant(buildingId, name);
+    }
+    String tenants = "/api/buildings/" + buildingId + "/tenants";
+
+    List<String> names = new ArrayList<>();
+    String cursor = "";
+    int pages = 0;
+    do {
+      Map<String, Object> page =
+          getData(
+              mockMvc
+                  .perform(
+                      get(tenants)
+                          .param("sort", "name,asc")
+                          .param("size", "2")
+                          .param("cursor", cursor)
+                          .param("withTotal", String.valueOf(pages == 0)))
+                  .andExpect(status().isOk())
+                  .andReturn());
+      if (pages == 0) assertEquals(5, ((Number) page.get("total")).intValue());
+      else assertNull(page.get("total"));
+      for (Map<String, Object> row : (List<Map<String, Object>>) page.get("items")) {
+        names.add(row.get("name").toString());
+      }
+      cursor = (String) page.get("nextCursor");
+      pages++;
+    } while (cursor != null && pages < 10);
+    assertEquals(List.of("Alpha", "Bravo", "Charlie", "Delta", "Echo"), names);
+    assertEquals(3, pages);
+
+    String second =
+        (String)
+            getData(
+                    mockMvc
+                        .perform(
+                            get(tenants)
+                                .param("sort", "name,asc")
+                                .param("size", "2")
+                                .param("cursor", ""))
+                        .andReturn())
+                .get("nextCursor");
+    mockMvc
+        .perform(get(tenants).param("sort", "createdAt,desc").param("cursor", second))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_CURSOR"));
+    mockMvc
+        .perform(get(tenants).param("sort", "taxId,asc").param("cursor", ""))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_SORT"));
+    mockMvc
+        .perform(get(tenants).param("page", "0").param("sort", "contactName,asc"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_SORT"));
+
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 1),
+        status().isCreated());
+    UUID floorId = getFloorIdByLabel(buildingId, "1F");
+    Set<Object> repairIds = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      Map<String, Object> repair = new LinkedHashMap<>();
+      repair.put("buildingId", buildingId);
+      repair.put("scopeType", "FLOOR");
+      repair.put("floorId", floorId);
+      repair.put("item", "Item " + i);
+      repair.put("vendorName", "Vendor");
+      repair.put("quoteAmount", 100);
+      repair.put("status", "DRAFT");
+      repair.put("reportedAt", "2026-0" + (i + 1) + "-01");
+      postJson("/api/repairs", repair, status().isCreated());
+    }
+    cursor = "";
+    List<String> reported = new ArrayList<>();
+    do {
+      Map<String, Object> page =
+          getData(
+              mockMvc
+                  .perform(
+                      get("/api/buildings/" + buildingId + "/repairs")
+                          .param("floorId", floorId.toString())
+                          .param("sort", "reportedAt,desc")
+                          .param("size", "2")
+                          .param("cursor", cursor))
+                  .andReturn());
+      for (Map<String, Object> row : (List<Map<String, Object>>) page.get("items")) {
+        assertTrue(repairIds.add(row.get("id")));
+        reported.add(row.get("reportedAt").toString());
+      }
+      cursor = (String) page.get("nextCursor");
+    } while (cursor != null && repairIds.size() < 10);
+    assertEquals(List.of("2026-03-01", "2026-02-01", "2026-01-01"), reported);
+
+    Map<String, Object> lease = new LinkedHashMap<>();
+    lease.put("buildingId", buildingId);
+    lease.put("tenantId", createTenant(buildingId, "Foxtrot"));
+    lease.put("unitIds", List.of(createUnit(floorId, "K1")));
+    lease.put("status", "DRAFT");
+    lease.put("startDate", "2026-01-01");
+    lease.put("endDate", "2026-12-31");
+    postJson("/api/leases", lease, status().isCreated());
+    mockMvc
+        .perform(
+            get("/api/buildings/" + buildingId + "/leases")
+                .param("sort", "endDate,asc")
+                .param("cursor", "")
+                .param("withTotal", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.items.length()").value(1))
+        .andExpect(jsonPath("$.data.items[0].unitIds.length()").value(1))
+        .andExpect(jsonPath("$.data.total").value(1))
+        .andExpect(jsonPath("$.data.hasNext").value(false));
+  }
+
+  @Test
+  void repairFilters_shouldCombineOnlyThePresentPredicates() throws Exception {
+    UUID buildingId = createBuilding("Repair Filter Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 2),
+        status().isCreated());
+    UUID floor1 = getFloorIdByLabel(buildingId, "1F");
+    UUID floor2 = getFloorIdByLabel(buildingId, "2F");
+    UUID vendorA = UUID.randomUUID();
+    UUID vendorB = UUID.randomUUID();
+    Object[][] rows = {
+      {floor1, vendorA, "Elevator 100% check", "2026-01-10", 1000, null, null},
+      {floor1, vendorB, "Lobby lights", "2026-02-10", 500, 450, null},
+      {floor2, vendorA, "Chiller", "2026-03-10", 9000, 8800, 9500},
+    };
+    for (Object[] row : rows) {
+      Map<String, Object> repair = new LinkedHashMap<>();
+      repair.put("buildingId", buildingId);
+      repair.put("scopeType", "FLOOR");
+      repair.put("floorId", row[0]);
+      repair.put("vendorId", row[1]);
+      repair.put("vendorName", row[1] == vendorA ? "Acme Lifts" : "Bright Co");
+      repair.put("item", row[2]);
+      repair.put("reportedAt", row[3]);
+      repair.put("quoteAmount", row[4]);
+      repair.put("approvedAmount", row[5]);
+      repair.put("finalAmount", row[6]);
+      repair.put("status", "DRAFT");
+      postJson("/api/repairs", repair, status().isCreated());
+    }
+    String path = "/api/buildings/" + buildingId + "/repairs";
+
+    mockMvc
+        .perform(get(path).param("vendorId", vendorA.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(2));
+    mockMvc
+        .perform(
+            get(path)
+                .param("vendorId", vendorA.toString())
+                .param("reportedFrom", "2026-01-01")
+                .param("reportedTo", "2026-01-31"))
+        .andExpect(jsonPath("$.data.length()").value(1))
+        .andExpect(jsonPath("$.data[0].floorId").value(floor1.toString()));
+    // The latest amount counts: 450 approved for the lights, 9500 final for the chiller.
+    mockMvc
+        .perform(get(path).param("minAmount", "460").param("maxAmount", "9000"))
+        .andExpect(jsonPath("$.data.length()").value(1))
+        .andExpect(jsonPath("$.data[0].item").value("Elevator 100% check"));
+    mockMvc
+        .perform(get(path).param("q", "100%").param("page", "0"))
+        .andExpect(jsonPath("$.data.totalElements").value(1));
+    mockMvc
+        .perform(get(path).param("q", "ACME").param("floorId", floor2.toString()))
+        .andExpect(jsonPath("$.data.length()").value(1))
+        .andExpect(jsonPath("$.data[0].item").value("Chiller"));
+
+    mockMvc
+        .perform(get(path).param("reportedFrom", "2026-03-01").param("reportedTo", "2026-02-01"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_DATE_RANGE"));
+    mockMvc
+        .perform(get(path).param("minAmount", "10").param("maxAmount", "1").param("cursor", ""))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_AMOUNT_RANGE"));
+  }
+
+  @Test
+  void repairCosts_shouldRollUpAmountsAndFollowPatches() throws Exception {
+    UUID buildingId = createBuilding("Repair Cost Tower");
+    postJson(
+        "/api/buildings/" + buildingId + "/floors/generate",
+        Map.of("basementFloors", 0, "aboveGroundFloors", 2),
+        status().isCreated());
+    UUID floor1 = getFloorIdByLabel(buildingId, "1F");
+    UUID floor2 = getFloorIdByLabel(buildingId, "2F");
+    UUID vendorId =
+        UUID.fromString(
+            getData(
+                    postJson(
+                        "/api/buildings/" + buildingId + "/vendors",
+                        Map.of("name", "Cost Vendor"),
+                        status().isCreated()))
+                .get("id")
+                .toString());
+
+    List<UUID> repairIds = new ArrayList<>();
+    Object[][] rows = {
+      {floor1, "2026-01-05", 1000, 900, 990},
+      {floor1, "2026-02-05", 2000, 2000, null},
+      {floor2, "2026-02-20", 500, null, null},
+    };
+    for (Object[] row : rows) {
+      Map<String, Object> repair = new LinkedHashMap<>();
+      repair.put("buildingId", buildingId);
+      repair.put("scopeType", "FLOOR");
+      repair.put("floorId", row[0]);
+      repair.put("vendorId", vendorId);
+      repair.put("vendorName", "Cost Vendor");
+      repair.put("item", "Cost item");
+      repair.put("reportedAt", row[1]);
+      repair.put("quoteAmount", row[2]);
+      repair.put("approvedAmount", row[3]);
+      repair.put("finalAmount", row[4]);
+      repair.put("status", "APPROVED");
+      MvcResult created = postJson("/api/repairs", repair, status().isCreated());
+      repairIds.add(UUID.fromString(getData(created).get("id").toString()));
+    }
+    String path = "/api/buildings/" + buildingId + "/repair-costs";
+
+    mockMvc
+        .perform(get(path).param("from", "2026-01").param("to", "2026-12"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.totals.repairCount").value(3))
+        .andExpect(jsonPath("$.data.totals.quoteAmount").value(3500.0))
+        .andExpect(jsonPath("$.data.totals.approvedAmount").value(2900.0))
+        .andExpect(jsonPath("$.data.totals.finalAmount").value(990.0))
+        .andExpect(jsonPath("$.data.totals.approvalVarianceRate").value(-3.33))
+        .andExpect(jsonPath("$.data.totals.overrunRate").value(10.0));
+
+    mockMvc
+        .perform(
+            get(path)
+                .param("groupBy", "floor")
+                .param("from", "2026-01")
+                .param("to", "2026-12"))
+        .andExpect(jsonPath("$.data.groups.length()").value(2))
+        .andExpect(jsonPath("$.data.groups[0].label").value("1F"))
+        .andExpect(jsonPath("$.data.groups[0].quoteAmount").value(3000.0))
+        .andExpect(jsonPath("$.data.groups[1].overrunRate").doesNotExist());
+
+    // Raise the final amount of the first repair and reject the third one.
+    mockMvc
+        .perform(
+            patch("/api/repairs/" + repairIds.get(0))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Actor-Id", "it-user")
+                .content(objectMapper.writeValueAsString(Map.of("finalAmount", 1080))))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(
+            patch("/api/repairs/" + repairIds.get(2))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Actor-Id", "it-user")
+                .content(objectMapper.writeValueAsString(Map.of("status", "REJECTED"))))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(
+            get(path)
+                .param("groupBy", "MONTH")
+                .param("from", "2026-01")
+                .param("to", "2026-03"))
+        .andExpect(jsonPath("$.data.totals.repairCount").value(2))
+        .andExpect(jsonPath("$.data.totals.overrunRate").value(20.0))
+        .andExpect(jsonPath("$.data.groups.length()").value(2))
+        .andExpect(jsonPath("$.data.groups[0].month").value("2026-01"))
+        .andExpect(jsonPath("$.data.groups[0].finalAmount").value(1080.0))
+        .andExpect(jsonPath("$.data.groups[1].quoteAmount").value(2000.0));
+    mockMvc
+        .perform(
+            get(path)
+                .param("groupBy", "VENDOR")
+                .param("from", "2026-02")
+                .param("to", "2026-02"))
+        .andExpect(jsonPath("$.data.groups[0].label").value("Cost Vendor"))
+        .andExpect(jsonPath("$.data.groups[0].repairCount").value(1));
+
+    // The schema nulls out repairs of a deleted vendor; its stale group must not be reported.
+    jdbcTemplate.update("delete from vendors where id = ?", vendorId);
+    mockMvc
+        .perform(
+            get(path)
+                .param("groupBy", "VENDOR")
+                .param("from", "2026-01")
+                .param("to", "2026-12"))
+        .andExpect(jsonPath("$.data.groups.length()").value(0))
+        .andExpect(jsonPath("$.data.totals.repairCount").value(2));
+
+    List<Map<String, Object>> portfolio =
+        getDataList(
+            mockMvc
+                .perform(
+                    get("/api/portfolio/repair-costs")
+                        .param("from", "2026-01")
+                        .param("to", "2026-12"))
+                .andReturn());
+    Map<String, Object> mine =
+        portfolio.stream()
+            .filter(r -> buildingId.toString().equals(r.get("buildingId")))
+            .findFirst()
+            .orElseThrow();
+    assertEquals(3000.0, ((Number) mine.get("quoteAmount")).doubleValue());
+
+    mockMvc
+        .perform(
+            get(path)
+                .param("groupBy", "tenant")
+                .param("from", "2026-01")
+                .param("to", "2026-12"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_GROUP_BY"));
+    mockMvc
+        .perform(get(path).param("from", "2026-05").param("to", "2026-01"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error.details.reasonCode").value("INVALID_DATE_RANGE"));
+  }
+
   @Test
   void repairValidation_andAcceptedRequiredFields() throws Exception {
     UUID buildingId = createBuilding("Repair Tower");
@@ -320,6 +1805,15 @@ class CommercialFlowIntegrationTest {
     return UUID.fromString(getData(created).get("id").toString());
   }
 
+  private UUID createUnit(UUID floorId, String code) throws Exception {
+    MvcResult created =
+        postJson(
+            "/api/floors/" + floorId + "/units",
+            Map.of("code", code, "grossArea", new BigDecimal("50.00")),
+            status().isCreated());
+    return UUID.fromString(getData(created).get("id").toString());
+  }
+
   private UUID createTenant(UUID buildingId, String name) throws Exception {
     MvcResult created =
         postJson(
@@ -16,6 +16,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
 
 /**
  * CI-friendly Testcontainers integration sample.
@@ -28,7 +29,10 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 class CommercialFlowTestcontainersIT {
 
   @Container
-  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16")
+          .withCopyFileToContainer(
+              MountableFile.forHostPath("../deploy/postgres"), "/docker-entrypoint-initdb.d");
 
   @DynamicPropertySource
   static void configure(DynamicPropertyRegistry registry) {
@@ -0,0 +1,107 @@
+package com.cre.leaseos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+import com.cre.leaseos.domain.LeaseUnit;
+import com.cre.leaseos.repo.LeaseUnitRepo;
+import com.cre.leaseos.repo.UnitSpanVersion;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ActiveLeaseIndexTest {
+
+  @Test
+  void findOverlap_shouldSeekAcrossManyNonOverlappingLeases() {
+    LeaseUnitRepo leaseUnitRepo = mock(LeaseUnitRepo.class);
+    ActiveLeaseIndex index = new ActiveLeaseIndex(leaseUnitRepo, 1000);
+
+    UUID unitId = UUID.randomUUID();
+    List<LeaseUnit> spans = new ArrayList<>();
+    LocalDate start = LocalDate.of(2000, 1, 1);
+    for (int i = 0; i < 300; i++) {
+      LeaseUnit lu = new LeaseUnit();
+      lu.setLeaseId(UUID.randomUUID());
+      lu.setUnitId(unitId);
+      lu.setActiveStartDate(start.plusMonths(i));
+      lu.setActiveEndDate(start.plusMonths(i + 1).minusDays(1));
+      spans.add(lu);
+    }
+    when(leaseUnitRepo.findByUnitIdInAndActiveStartDateIsNotNull(anyCollection())).thenReturn(spans);
+
+    LeaseUnit target = spans.get(120);
+    assertEquals(
+        target.getLeaseId(),
+        index.findOverlap(
+            List.of(unitId), target.getActiveEndDate(), target.getActiveEndDate(), null));
+    assertEquals(
+        spans.get(121).getLeaseId(),
+        index.findOverlap(
+            List.of(unitId),
+            target.getActiveEndDate(),
+            target.getActiveEndDate().plusDays(1),
+            target.getLeaseId()));
+    assertNull(
+        index.findOverlap(
+            List.of(unitId),
+            target.getActiveStartDate(),
+            target.getActiveEndDate(),
+            target.getLeaseId()));
+    assertNull(index.findOverlap(List.of(unitId), LocalDate.of(2030, 1, 1), LocalDate.of(2031, 1, 1), null));
+
+    verify(leaseUnitRepo, times(1)).findByUnitIdInAndActiveStartDateIsNotNull(anyCollection());
+  }
+
+  @Test
+  void findOverlap_shouldReloadWhenAnotherInstanceWritesTheUnit() {
+    LeaseUnitRepo leaseUnitRepo = mock(LeaseUnitRepo.class);
+    ActiveLeaseIndex index = new ActiveLeaseIndex(leaseUnitRepo, 1000);
+    when(leaseUnitRepo.findByUnitIdInAndActiveStartDateIsNotNull(anyCollection())).thenReturn(List.of());
+
+    UUID unitId = UUID.randomUUID();
+    LocalDate from = LocalDate.of(2026, 1, 1);
+    LocalDate to = LocalDate.of(2026, 12, 31);
+    assertNull(index.findOverlap(List.of(unitId), from, to, null));
+    assertNull(index.findOverlap(List.of(unitId), from, to, null));
+    verify(leaseUnitRepo, times(1)).findByUnitIdInAndActiveStartDateIsNotNull(anyCollection());
+
+    // Written elsewhere: no onLeaseWritten here, only the unit's lease_units version moves.
+    LeaseUnit lu = new LeaseUnit();
+    lu.setLeaseId(UUID.randomUUID());
+    lu.setUnitId(unitId);
+    lu.setActiveStartDate(from);
+    lu.setActiveEndDate(to);
+    OffsetDateTime written = OffsetDateTime.now();
+    when(leaseUnitRepo.versionsOfUnits(anyCollection()))
+        .thenReturn(List.of(new UnitSpanVersion(unitId, 1L, written)));
+    when(leaseUnitRepo.findByUnitIdInAndActiveStartDateIsNotNull(anyCollection())).thenReturn(List.of(lu));
+    assertEquals(lu.getLeaseId(), index.findOverlap(List.of(unitId), to, to.plusYears(1), null));
+
+    when(leaseUnitRepo.versionsOfUnits(anyCollection()))
+        .thenReturn(List.of(new UnitSpanVersion(unitId, 1L, written.plusSeconds(1))));
+    when(leaseUnitRepo.findByUnitIdInAndActiveStartDateIsNotNull(anyCollection())).thenReturn(List.of());
+    assertNull(index.findOverlap(List.of(unitId), from, to, null));
+    verify(leaseUnitRepo, times(3)).findByUnitIdInAndActiveStartDateIsNotNull(anyCollection());
+  }
+
+  @Test
+  void resolve_shouldEvictLeastRecentlyUsedUnitsPastTheBound() {
+    LeaseUnitRepo leaseUnitRepo = mock(LeaseUnitRepo.class);
+    ActiveLeaseIndex index = new ActiveLeaseIndex(leaseUnitRepo, 1);
+    when(leaseUnitRepo.findByUnitIdInAndActiveStartDateIsNotNull(anyCollection())).thenReturn(List.of());
+
+    UUID unitA = UUID.randomUUID();
+    UUID unitB = UUID.randomUUID();
+    index.resolve(List.of(unitA));
+    index.resolve(List.of(unitA));
+    index.resolve(List.of(unitB));
+    index.resolve(List.of(unitA));
+
+    verify(leaseUnitRepo, times(3)).findByUnitIdInAndActiveStartDateIsNotNull(anyCollection());
+  }
+}
@@ -0,0 +1,77 @@
+package com.cre.leaseos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+import com.cre.leaseos.common.ResourceVersion;
+import com.cre.leaseos.domain.Tenant;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.CommonAreaRepo;
+import com.cre.leaseos.repo.OwnerRepo;
+import com.cre.leaseos.repo.TenantRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import com.cre.leaseos.repo.VendorRepo;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class BuildingSearchIndexTest {
+
+  @Test
+  void localWrites_shouldPatchIndexWhileForeignWritesReload() {
+    BuildingRepo buildingRepo = mock(BuildingRepo.class);
+    TenantRepo tenantRepo = mock(TenantRepo.class);
+    OwnerRepo ownerRepo = mock(OwnerRepo.class);
+    VendorRepo vendorRepo = mock(VendorRepo.class);
+    CommonAreaRepo commonAreaRepo = mock(CommonAreaRepo.class);
+    UnitRepo unitRepo = mock(UnitRepo.class);
+    BuildingSearchIndex index =
+        new BuildingSearchIndex(
+            buildingRepo,
+            tenantRepo,
+            ownerRepo,
+            vendorRepo,
+            commonAreaRepo,
+            unitRepo,
+            10,
+            Duration.ofMinutes(10));
+
+    UUID buildingId = UUID.randomUUID();
+    OffsetDateTime t0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+    when(buildingRepo.existsById(buildingId)).thenReturn(true);
+    when(ownerRepo.versionOfBuilding(buildingId)).thenReturn(ResourceVersion.EMPTY);
+    when(vendorRepo.versionOfBuilding(buildingId)).thenReturn(ResourceVersion.EMPTY);
+    when(commonAreaRepo.versionOfBuilding(buildingId)).thenReturn(ResourceVersion.EMPTY);
+    when(unitRepo.versionOfBuilding(buildingId)).thenReturn(ResourceVersion.EMPTY);
+    Tenant airline = tenant(buildingId, "長榮航空");
+    when(tenantRepo.findByBuildingIdOrderByCreatedAtDesc(buildingId)).thenReturn(List.of(airline));
+    when(tenantRepo.versionOfBuilding(buildingId)).thenReturn(new ResourceVersion(1L, t0));
+    assertEquals(1, index.search(buildingId, "航空", null).get("total"));
+
+    // A committed local write: the hook patches the index and restamps it with the new version.
+    Tenant bank = tenant(buildingId, "華南航空銀行");
+    when(tenantRepo.versionOfBuilding(buildingId))
+        .thenReturn(new ResourceVersion(2L, t0.plusSeconds(1)));
+    index.onTenantWritten(bank);
+    assertEquals(2, index.search(buildingId, "航空", null).get("total"));
+    verify(tenantRepo, times(1)).findByBuildingIdOrderByCreatedAtDesc(buildingId);
+
+    // A write that skipped this instance's hooks moves the version and forces a reload.
+    when(tenantRepo.versionOfBuilding(buildingId))
+        .thenReturn(new ResourceVersion(2L, t0.plusSeconds(2)));
+    when(tenantRepo.findByBuildingIdOrderByCreatedAtDesc(buildingId)).thenReturn(List.of(airline));
+    assertEquals(1, index.search(buildingId, "航空", null).get("total"));
+    verify(tenantRepo, times(2)).findByBuildingIdOrderByCreatedAtDesc(buildingId);
+  }
+
+  private static Tenant tenant(UUID buildingId, String name) {
+    Tenant t = new Tenant();
+    t.setId(UUID.randomUUID());
+    t.setBuildingId(buildingId);
+    t.setName(name);
+    t.setIsActive(true);
+    return t;
+  }
+}
@@ -1,9 +1,11 @@
 package com.cre.leaseos.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.cre.leaseos.common.ApiException;
 import com.cre.leaseos.domain.Building;
 import com.cre.leaseos.domain.Floor;
 import com.cre.leaseos.repo.BuildingRepo;
@@ -18,7 +20,9 @@ class BuildingServiceTest {
   void floorGenerationRule_shouldCreateB5ToB1And1F() {
     BuildingRepo buildingRepo = mock(BuildingRepo.class);
     FloorRepo floorRepo = mock(FloorRepo.class);
-    BuildingService service = new BuildingService(buildingRepo, floorRepo);
+    BuildingService service =
+        new BuildingService(
+            buildingRepo, floorRepo, mock(RentRollProjection.class), mock(RepairCostRollups.class));
 
     UUID buildingId = UUID.randomUUID();
     Building building = new Building();
@@ -34,6 +38,50 @@ class BuildingServiceTest {
     assertEquals(-1, result.get(4).getSortIndex());
     assertEquals("1F", result.get(5).getLabel());
     assertEquals(1, result.get(5).getSortIndex());
-    verify(floorRepo).deleteByBuildingId(buildingId);
+    verify(floorRepo, never()).deleteByIds(any());
+  }
+
+  @Test
+  void floorRegeneration_shouldInsertOnlyMissingAndRefuseRemovingUsedFloors() {
+    BuildingRepo buildingRepo = mock(BuildingRepo.class);
+    FloorRepo floorRepo = mock(FloorRepo.class);
+    BuildingService service =
+        new BuildingService(
+            buildingRepo, floorRepo, mock(RentRollProjection.class), mock(RepairCostRollups.class));
+
+    UUID buildingId = UUID.randomUUID();
+    Building building = new Building();
+    building.setId(buildingId);
+    when(buildingRepo.findById(buildingId)).thenReturn(java.util.Optional.of(building));
+    when(floorRepo.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+    Floor b1 = floor(buildingId, "B1", -1);
+    Floor f1 = floor(buildingId, "1F", 1);
+    Floor f2 = floor(buildingId, "2F", 2);
+    when(floorRepo.findByBuildingIdOrderBySortIndexAsc(buildingId)).thenReturn(List.of(b1, f1, f2));
+
+    List<Floor> grown = service.generateFloors(buildingId, 1, 3);
+    assertEquals(List.of("B1", "1F", "2F", "3F"), grown.stream().map(Floor::getLabel).toList());
+    assertEquals(b1, grown.get(0));
+    verify(floorRepo).saveAll(List.of(grown.get(3)));
+    verify(floorRepo, never()).deleteByIds(any());
+
+    when(floorRepo.findLabelsInUse(List.of(f2.getId()))).thenReturn(List.of("2F"));
+    ApiException ex =
+        assertThrows(ApiException.class, () -> service.generateFloors(buildingId, 1, 1));
+    assertEquals("FLOORS_IN_USE", ex.getCode());
+    verify(floorRepo, never()).deleteByIds(any());
+
+    List<Floor> shrunk = service.generateFloors(buildingId, 0, 2);
+    assertEquals(List.of("1F", "2F"), shrunk.stream().map(Floor::getLabel).toList());
+    verify(floorRepo).deleteByIds(List.of(b1.getId()));
+  }
+
+  private static Floor floor(UUID buildingId, String label, int sortIndex) {
+    Floor f = new Floor();
+    f.setId(UUID.randomUUID());
+    f.setBuildingId(buildingId);
+    f.setLabel(label);
+    f.setSortIndex(sortIndex);
+    return f;
   }
 }
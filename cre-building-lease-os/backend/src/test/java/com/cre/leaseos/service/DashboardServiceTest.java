@@ -0,0 +1,49 @@
+package com.cre.leaseos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.domain.Building;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.LeaseRepo;
+import com.cre.leaseos.repo.OccupancyRepo;
+import com.cre.leaseos.repo.RepairRecordRepo;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class DashboardServiceTest {
+
+  @Test
+  void dashboard_shouldAnswer503WhenExecutorIsSaturated() {
+    BuildingService buildingService = mock(BuildingService.class);
+    BuildingRepo buildingRepo = mock(BuildingRepo.class);
+    DashboardService service =
+        new DashboardService(
+            buildingService,
+            buildingRepo,
+            mock(LeaseRepo.class),
+            mock(OccupancyRepo.class),
+            mock(RepairRecordRepo.class),
+            task -> {
+              throw new RejectedExecutionException("saturated");
+            },
+            mock(PlatformTransactionManager.class),
+            Duration.ofSeconds(5));
+
+    UUID buildingId = UUID.randomUUID();
+    Building building = new Building();
+    building.setId(buildingId);
+    when(buildingService.getBuilding(buildingId)).thenReturn(building);
+
+    ApiException ex = assertThrows(ApiException.class, () -> service.dashboard(buildingId));
+    assertEquals("DASHBOARD_BUSY", ex.getCode());
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+    verifyNoInteractions(buildingRepo);
+  }
+}
@@ -0,0 +1,98 @@
+package com.cre.leaseos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+import com.cre.leaseos.common.ResourceVersion;
+import com.cre.leaseos.domain.FloorOwner;
+import com.cre.leaseos.repo.FloorOwnerRepo;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class FloorShareLedgerTest {
+  private static final OffsetDateTime BASE = OffsetDateTime.parse("2020-01-01T00:00:00+08:00");
+
+  @Test
+  void maxAllocated_shouldTakePeakAcrossConsecutiveAndOverlappingAssignments() {
+    FloorOwnerRepo floorOwnerRepo = mock(FloorOwnerRepo.class);
+    FloorShareLedger ledger = new FloorShareLedger(floorOwnerRepo);
+    UUID floorId = UUID.randomUUID();
+
+    List<FloorOwner> rows = new ArrayList<>();
+    for (int i = 0; i < 120; i++) {
+      rows.add(assignment(floorId, "60", BASE.plusMonths(i), BASE.plusMonths(i + 1).minusDays(1)));
+    }
+    rows.add(assignment(floorId, "30", BASE.plusMonths(50), BASE.plusMonths(52)));
+    ResourceVersion version = new ResourceVersion((long) rows.size(), BASE);
+    when(floorOwnerRepo.versionOfFloor(floorId)).thenReturn(version);
+    when(floorOwnerRepo.findByFloorIdOrderByStartDateDesc(floorId)).thenReturn(rows);
+
+    assertEquals(0, new BigDecimal("60").compareTo(ledger.maxAllocated(floorId, BASE, BASE)));
+    assertEquals(
+        0,
+        new BigDecimal("90")
+            .compareTo(ledger.maxAllocated(floorId, BASE.plusMonths(40), BASE.plusMonths(60))));
+    // The 30% assignment ends inclusively on its end day and is gone just after it.
+    assertEquals(
+        0,
+        new BigDecimal("90")
+            .compareTo(ledger.maxAllocated(floorId, BASE.plusMonths(52), BASE.plusMonths(53))));
+    assertEquals(
+        0,
+        new BigDecimal("60")
+            .compareTo(
+                ledger.maxAllocated(floorId, BASE.plusMonths(52).plusSeconds(1), null)));
+    assertEquals(
+        0,
+        BigDecimal.ZERO.compareTo(ledger.maxAllocated(floorId, BASE.plusYears(20), null)));
+    assertEquals(
+        0,
+        BigDecimal.ZERO.compareTo(
+            ledger.maxAllocated(floorId, BASE.minusYears(1), BASE.minusDays(1))));
+
+    verify(floorOwnerRepo, times(1)).findByFloorIdOrderByStartDateDesc(floorId);
+  }
+
+  @Test
+  void onAssigned_shouldKeepLedgerUntilTheFloorVersionMovesElsewhere() {
+    FloorOwnerRepo floorOwnerRepo = mock(FloorOwnerRepo.class);
+    FloorShareLedger ledger = new FloorShareLedger(floorOwnerRepo);
+    UUID floorId = UUID.randomUUID();
+
+    when(floorOwnerRepo.versionOfFloor(floorId)).thenReturn(ResourceVersion.EMPTY);
+    when(floorOwnerRepo.findByFloorIdOrderByStartDateDesc(floorId)).thenReturn(List.of());
+    assertEquals(0, BigDecimal.ZERO.compareTo(ledger.maxAllocated(floorId, BASE, null)));
+
+    FloorOwner written = assignment(floorId, "40", BASE, null);
+    ResourceVersion afterWrite = new ResourceVersion(1L, BASE);
+    ledger.onAssigned(written, afterWrite);
+    when(floorOwnerRepo.versionOfFloor(floorId)).thenReturn(afterWrite);
+    assertEquals(0, new BigDecimal("40").compareTo(ledger.maxAllocated(floorId, BASE, null)));
+    verify(floorOwnerRepo, times(1)).findByFloorIdOrderByStartDateDesc(floorId);
+
+    // Another instance assigned 20% more: the version no longer matches and the ledger reloads.
+    FloorOwner remote = assignment(floorId, "20", BASE.plusDays(1), null);
+    when(floorOwnerRepo.versionOfFloor(floorId))
+        .thenReturn(new ResourceVersion(2L, BASE.plusMinutes(1)));
+    when(floorOwnerRepo.findByFloorIdOrderByStartDateDesc(floorId))
+        .thenReturn(List.of(remote, written));
+    assertEquals(0, new BigDecimal("60").compareTo(ledger.maxAllocated(floorId, BASE, null)));
+    verify(floorOwnerRepo, times(2)).findByFloorIdOrderByStartDateDesc(floorId);
+  }
+
+  private static FloorOwner assignment(
+      UUID floorId, String share, OffsetDateTime start, OffsetDateTime end) {
+    FloorOwner fo = new FloorOwner();
+    fo.setId(UUID.randomUUID());
+    fo.setFloorId(floorId);
+    fo.setOwnerId(UUID.randomUUID());
+    fo.setSharePercent(new BigDecimal(share));
+    fo.setStartDate(start);
+    fo.setEndDate(end);
+    return fo;
+  }
+}
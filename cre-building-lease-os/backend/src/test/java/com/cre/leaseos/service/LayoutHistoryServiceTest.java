@@ -0,0 +1,79 @@
+package com.cre.leaseos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+import com.cre.leaseos.domain.Floor;
+import com.cre.leaseos.domain.Unit;
+import com.cre.leaseos.repo.FloorRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class LayoutHistoryServiceTest {
+
+  @Test
+  void floorLayout_shouldReplaySplitAndMergeUpToTheDay() {
+    BuildingService buildingService = mock(BuildingService.class);
+    UnitRepo unitRepo = mock(UnitRepo.class);
+    LayoutHistoryService service =
+        new LayoutHistoryService(buildingService, mock(FloorRepo.class), unitRepo);
+
+    UUID floorId = UUID.randomUUID();
+    Floor floor = new Floor();
+    floor.setId(floorId);
+    floor.setLabel("3F");
+    when(buildingService.getFloor(floorId)).thenReturn(floor);
+
+    // A1 (2024-01) split into A1-1/A1-2 (2024-06), merged back into A1-M (2025-01).
+    Unit a1 = unit("A1", "100.00", at(2024, 1, 10), at(2024, 6, 1));
+    Unit a11 = unit("A1-1", "40.00", at(2024, 6, 1), at(2025, 1, 15));
+    Unit a12 = unit("A1-2", "60.00", at(2024, 6, 1), at(2025, 1, 15));
+    Unit a1m = unit("A1-M", "100.00", at(2025, 1, 15), null);
+    List<Unit> all = List.of(a1, a11, a12, a1m);
+    when(unitRepo.findByFloorIdAndCreatedAtLessThanOrderByCreatedAtAsc(eq(floorId), any()))
+        .thenAnswer(
+            inv -> {
+              OffsetDateTime cutoff = inv.getArgument(1);
+              return all.stream().filter(u -> u.getCreatedAt().isBefore(cutoff)).toList();
+            });
+
+    assertEquals(List.of(), codes(service.floorLayout(floorId, LocalDate.of(2023, 12, 31))));
+    assertEquals(List.of("A1"), codes(service.floorLayout(floorId, LocalDate.of(2024, 3, 1))));
+    Map<String, Object> split = service.floorLayout(floorId, LocalDate.of(2024, 6, 1));
+    assertEquals(List.of("A1-1", "A1-2"), codes(split));
+    assertEquals(new BigDecimal("100.00"), split.get("grossArea"));
+    assertEquals(List.of("A1-M"), codes(service.floorLayout(floorId, LocalDate.of(2025, 2, 1))));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> codes(Map<String, Object> layout) {
+    return ((List<Map<String, Object>>) layout.get("units"))
+        .stream().map(r -> (String) r.get("code")).toList();
+  }
+
+  private static OffsetDateTime at(int year, int month, int day) {
+    return LocalDate.of(year, month, day)
+        .atTime(10, 0)
+        .atZone(ZoneId.systemDefault())
+        .toOffsetDateTime();
+  }
+
+  private static Unit unit(
+      String code, String area, OffsetDateTime created, OffsetDateTime replaced) {
+    Unit u = new Unit();
+    u.setId(UUID.randomUUID());
+    u.setCode(code);
+    u.setGrossArea(new BigDecimal(area));
+    u.setCreatedAt(created);
+    u.setReplacedAt(replaced);
+    u.setIsCurrent(replaced == null);
+    return u;
+  }
+}
@@ -10,15 +10,25 @@ import com.cre.leaseos.domain.LeaseUnit;
 import com.cre.leaseos.domain.Occupancy;
 import com.cre.leaseos.domain.Enums.LeaseStatus;
 import com.cre.leaseos.domain.Enums.OccupancyStatus;
+import com.cre.leaseos.domain.Enums.OutboxEventType;
 import com.cre.leaseos.dto.OccupancyLeaseDtos.LeaseCreateReq;
 import com.cre.leaseos.repo.LeaseAttachmentRepo;
 import com.cre.leaseos.repo.LeaseRepo;
 import com.cre.leaseos.repo.LeaseUnitRepo;
 import com.cre.leaseos.repo.OccupancyRepo;
+import com.cre.leaseos.repo.TenantRepo;
+import com.cre.leaseos.repo.UnitRepo;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 class LeaseServiceTest {
 
@@ -31,22 +41,35 @@ class LeaseServiceTest {
     LeaseAttachmentRepo leaseAttachmentRepo = mock(LeaseAttachmentRepo.class);
 
     LeaseService service =
-        new LeaseService(buildingService, leaseRepo, leaseUnitRepo, occupancyRepo, leaseAttachmentRepo);
+        new LeaseService(
+            buildingService,
+            leaseRepo,
+            leaseUnitRepo,
+            occupancyRepo,
+            leaseAttachmentRepo,
+            new ActiveLeaseIndex(leaseUnitRepo, 1000),
+            mock(RentRollProjection.class),
+            mock(OutboxService.class),
+            mock(UnitLocks.class),
+            mock(UnitRepo.class),
+            mock(TenantRepo.class),
+            mock(Validator.class));
 
-    Lease existing = new Lease();
-    existing.setId(UUID.randomUUID());
-    existing.setStatus(LeaseStatus.ACTIVE);
-    existing.setStartDate(LocalDate.of(2026, 1, 1));
-    existing.setEndDate(LocalDate.of(2026, 12, 31));
+    UUID unitId = UUID.randomUUID();
+    LeaseUnit existing = new LeaseUnit();
+    existing.setLeaseId(UUID.randomUUID());
+    existing.setUnitId(unitId);
+    existing.setActiveStartDate(LocalDate.of(2026, 1, 1));
+    existing.setActiveEndDate(LocalDate.of(2026, 12, 31));
 
-    when(leaseUnitRepo.findLeasesByUnitIdsAndStatus(anyList(), eq(LeaseStatus.ACTIVE)))
+    when(leaseUnitRepo.findByUnitIdInAndActiveStartDateIsNotNull(anyCollection()))
         .thenReturn(List.of(existing));
 
     LeaseCreateReq req =
         new LeaseCreateReq(
             UUID.randomUUID(),
             UUID.randomUUID(),
-            List.of(UUID.randomUUID()),
+            List.of(unitId),
             LeaseStatus.ACTIVE,
             LocalDate.of(2026, 6, 1),
             LocalDate.of(2027, 5, 31),
@@ -59,23 +82,33 @@ class LeaseServiceTest {
   }
 
   @Test
-  void createActiveLease_shouldPromoteDraftOccupancyToActive() {
+  void createActiveLease_shouldPublishEventThatPromotesDraftOccupancy() {
     BuildingService buildingService = mock(BuildingService.class);
     LeaseRepo leaseRepo = mock(LeaseRepo.class);
     LeaseUnitRepo leaseUnitRepo = mock(LeaseUnitRepo.class);
     OccupancyRepo occupancyRepo = mock(OccupancyRepo.class);
     LeaseAttachmentRepo leaseAttachmentRepo = mock(LeaseAttachmentRepo.class);
+    OutboxService outboxService = mock(OutboxService.class);
 
     LeaseService service =
-        new LeaseService(buildingService, leaseRepo, leaseUnitRepo, occupancyRepo, leaseAttachmentRepo);
+        new LeaseService(
+            buildingService,
+            leaseRepo,
+            leaseUnitRepo,
+            occupancyRepo,
+            leaseAttachmentRepo,
+            new ActiveLeaseIndex(leaseUnitRepo, 1000),
+            mock(RentRollProjection.class),
+            outboxService,
+            mock(UnitLocks.class),
+            mock(UnitRepo.class),
+            mock(TenantRepo.class),
+            mock(Validator.class));
 
     UUID buildingId = UUID.randomUUID();
     UUID unitId = UUID.randomUUID();
     UUID tenantId = UUID.randomUUID();
 
-    when(leaseUnitRepo.findLeasesByUnitIdsAndStatus(anyList(), eq(LeaseStatus.ACTIVE)))
-        .thenReturn(List.of());
-
     when(leaseRepo.save(any(Lease.class)))
         .thenAnswer(
             inv -> {
@@ -83,7 +116,6 @@ class LeaseServiceTest {
               if (lease.getId() == null) lease.setId(UUID.randomUUID());
               return lease;
             });
-    when(leaseUnitRepo.save(any(LeaseUnit.class))).thenAnswer(inv -> inv.getArgument(0));
 
     Occupancy draft = new Occupancy();
     draft.setId(UUID.randomUUID());
@@ -92,10 +124,9 @@ class LeaseServiceTest {
     draft.setTenantId(tenantId);
     draft.setStatus(OccupancyStatus.DRAFT);
 
-    when(occupancyRepo.findFirstByUnitIdAndTenantIdAndStatusOrderByCreatedAtDesc(
-            unitId, tenantId, OccupancyStatus.DRAFT))
-        .thenReturn(draft);
-    when(occupancyRepo.save(any(Occupancy.class))).thenAnswer(inv -> inv.getArgument(0));
+    when(occupancyRepo.findByUnitIdInAndStatusOrderByCreatedAtDesc(
+            anyCollection(), eq(OccupancyStatus.DRAFT)))
+        .thenReturn(List.of(draft));
 
     Lease lease =
         service.createLease(
@@ -111,8 +142,80 @@ class LeaseServiceTest {
                 null));
 
     assertEquals(LeaseStatus.ACTIVE, lease.getStatus());
+    verify(outboxService)
+        .publish(eq(OutboxEventType.LEASE_ACTIVATED), eq(lease.getId()), anyMap());
+    verify(occupancyRepo, never()).saveAll(anyList());
+
+    LeaseUnit leaseUnit = new LeaseUnit();
+    leaseUnit.setLeaseId(lease.getId());
+    leaseUnit.setUnitId(unitId);
+    when(leaseRepo.findAllById(List.of(lease.getId()))).thenReturn(List.of(lease));
+    when(leaseUnitRepo.findByLeaseIdIn(List.of(lease.getId()))).thenReturn(List.of(leaseUnit));
+
+    service.applyLeaseActivations(List.of(lease.getId()));
+
     assertEquals(OccupancyStatus.ACTIVE, draft.getStatus());
     assertEquals(lease.getId(), draft.getLeaseId());
-    verify(occupancyRepo, atLeastOnce()).save(any(Occupancy.class));
+    verify(occupancyRepo, times(1)).saveAll(List.of(draft));
+  }
+
+  @Test
+  void listLeaseRows_shouldBatchUnitsAndBuildingFee() {
+    BuildingService buildingService = mock(BuildingService.class);
+    LeaseRepo leaseRepo = mock(LeaseRepo.class);
+    LeaseUnitRepo leaseUnitRepo = mock(LeaseUnitRepo.class);
+    OccupancyRepo occupancyRepo = mock(OccupancyRepo.class);
+    LeaseAttachmentRepo leaseAttachmentRepo = mock(LeaseAttachmentRepo.class);
+
+    LeaseService service =
+        new LeaseService(
+            buildingService,
+            leaseRepo,
+            leaseUnitRepo,
+            occupancyRepo,
+            leaseAttachmentRepo,
+            new ActiveLeaseIndex(leaseUnitRepo, 1000),
+            mock(RentRollProjection.class),
+            mock(OutboxService.class),
+            mock(UnitLocks.class),
+            mock(UnitRepo.class),
+            mock(TenantRepo.class),
+            mock(Validator.class));
+
+    UUID buildingId = UUID.randomUUID();
+    List<Lease> leases = new ArrayList<>();
+    List<LeaseUnit> leaseUnits = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      Lease lease = new Lease();
+      lease.setId(UUID.randomUUID());
+      lease.setBuildingId(buildingId);
+      lease.setManagementFee(i == 0 ? new BigDecimal("99.00") : null);
+      leases.add(lease);
+
+      LeaseUnit lu = new LeaseUnit();
+      lu.setLeaseId(lease.getId());
+      lu.setUnitId(UUID.randomUUID());
+      leaseUnits.add(lu);
+    }
+
+    var pageable = PageRequest.of(0, 50);
+    when(leaseRepo.findByBuildingId(buildingId, pageable))
+        .thenReturn(new PageImpl<>(leases, pageable, 120));
+    when(leaseUnitRepo.findByLeaseIdIn(anyList())).thenReturn(leaseUnits);
+    when(buildingService.getManagementFees(anySet()))
+        .thenReturn(Map.of(buildingId, new BigDecimal("50.00")));
+
+    Page<Map<String, Object>> rows = service.listLeaseRows(buildingId, pageable);
+
+    assertEquals(50, rows.getContent().size());
+    assertEquals(120, rows.getTotalElements());
+    assertEquals(new BigDecimal("99.00"), rows.getContent().get(0).get("effectiveManagementFee"));
+    assertEquals(new BigDecimal("50.00"), rows.getContent().get(1).get("effectiveManagementFee"));
+    assertEquals(
+        List.of(leaseUnits.get(1).getUnitId()), rows.getContent().get(1).get("unitIds"));
+    verify(leaseUnitRepo, times(1)).findByLeaseIdIn(anyList());
+    verify(leaseUnitRepo, never()).findByLeaseId(any());
+    verify(buildingService, times(1)).getManagementFees(anySet());
+    verify(buildingService, never()).getBuilding(any());
   }
 }
@@ -13,6 +13,7 @@ import com.cre.leaseos.repo.*;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
@@ -39,7 +40,10 @@ class PartyServiceTest {
             floorOwnerRepo,
             vendorRepo,
             commonAreaRepo,
-            repairRecordRepo);
+            repairRecordRepo,
+            new FloorShareLedger(floorOwnerRepo),
+            mock(BuildingSearchIndex.class),
+            mock(RepairCostRollups.class));
 
     UUID floorId = UUID.randomUUID();
     UUID buildingId = UUID.randomUUID();
@@ -53,7 +57,7 @@ class PartyServiceTest {
     owner.setId(ownerId);
     owner.setBuildingId(buildingId);
 
-    when(floorRepo.findById(floorId)).thenReturn(Optional.of(floor));
+    when(floorRepo.lockById(floorId)).thenReturn(Optional.of(floor));
     when(ownerRepo.findById(ownerId)).thenReturn(Optional.of(owner));
 
     OffsetDateTime start = OffsetDateTime.now();
@@ -97,7 +101,10 @@ class PartyServiceTest {
             floorOwnerRepo,
             vendorRepo,
             commonAreaRepo,
-            repairRecordRepo);
+            repairRecordRepo,
+            new FloorShareLedger(floorOwnerRepo),
+            mock(BuildingSearchIndex.class),
+            mock(RepairCostRollups.class));
 
     UUID floorId = UUID.randomUUID();
     UUID buildingId = UUID.randomUUID();
@@ -116,7 +123,7 @@ class PartyServiceTest {
     existing.setStartDate(OffsetDateTime.parse("2026-01-01T00:00:00+08:00"));
     existing.setEndDate(null);
 
-    when(floorRepo.findById(floorId)).thenReturn(Optional.of(floor));
+    when(floorRepo.lockById(floorId)).thenReturn(Optional.of(floor));
     when(ownerRepo.findById(ownerId)).thenReturn(Optional.of(owner));
     when(floorOwnerRepo.findByFloorIdOrderByStartDateDesc(floorId)).thenReturn(List.of(existing));
 
@@ -135,4 +142,48 @@ class PartyServiceTest {
 
     assertEquals("OWNER_SHARE_OVER_ALLOCATED", ex.getCode());
   }
+
+  @Test
+  void listFloorOwnersDetailed_shouldLoadOwnersInOneBatch() {
+    OwnerRepo ownerRepo = mock(OwnerRepo.class);
+    FloorOwnerRepo floorOwnerRepo = mock(FloorOwnerRepo.class);
+    PartyService service =
+        new PartyService(
+            mock(BuildingService.class),
+            mock(FloorRepo.class),
+            mock(TenantRepo.class),
+            ownerRepo,
+            floorOwnerRepo,
+            mock(VendorRepo.class),
+            mock(CommonAreaRepo.class),
+            mock(RepairRecordRepo.class),
+            new FloorShareLedger(floorOwnerRepo),
+            mock(BuildingSearchIndex.class),
+            mock(RepairCostRollups.class));
+
+    UUID floorId = UUID.randomUUID();
+    Owner owner = new Owner();
+    owner.setId(UUID.randomUUID());
+    owner.setName("Owner A");
+    List<FloorOwner> rows =
+        List.of(share(floorId, owner.getId(), "30"), share(floorId, owner.getId(), "20"));
+    when(floorOwnerRepo.findByFloorIdOrderByStartDateDesc(floorId)).thenReturn(rows);
+    when(ownerRepo.findAllById(List.of(owner.getId()))).thenReturn(List.of(owner));
+
+    List<Map<String, Object>> result = service.listFloorOwnersDetailed(floorId);
+
+    assertEquals(2, result.size());
+    assertEquals("Owner A", ((Map<?, ?>) result.get(1).get("owner")).get("name"));
+    verify(ownerRepo, never()).findById(any());
+  }
+
+  private static FloorOwner share(UUID floorId, UUID ownerId, String percent) {
+    FloorOwner fo = new FloorOwner();
+    fo.setId(UUID.randomUUID());
+    fo.setFloorId(floorId);
+    fo.setOwnerId(ownerId);
+    fo.setSharePercent(new BigDecimal(percent));
+    fo.setStartDate(OffsetDateTime.parse("2026-01-01T00:00:00+08:00"));
+    return fo;
+  }
 }
@@ -13,6 +13,7 @@ import com.cre.leaseos.domain.Enums.RepairStatus;
 import com.cre.leaseos.dto.RepairDtos.RepairPatchReq;
 import com.cre.leaseos.dto.RepairDtos.RepairReq;
 import com.cre.leaseos.repo.RepairAttachmentRepo;
+import com.cre.leaseos.repo.RepairFilter;
 import com.cre.leaseos.repo.RepairRecordRepo;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -22,12 +23,17 @@ import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 
 class RepairServiceTest {
 
   @Test
   void floorScopeRequiresFloorId() {
-    RepairService service = new RepairService(mock(RepairRecordRepo.class), mock(RepairAttachmentRepo.class));
+    RepairService service =
+        new RepairService(
+            mock(RepairRecordRepo.class),
+            mock(RepairAttachmentRepo.class),
+            mock(RepairCostRollups.class));
 
     RepairReq req =
         new RepairReq(
@@ -58,7 +64,11 @@ class RepairServiceTest {
 
   @Test
   void acceptedStatusRequiresAcceptanceFields() {
-    RepairService service = new RepairService(mock(RepairRecordRepo.class), mock(RepairAttachmentRepo.class));
+    RepairService service =
+        new RepairService(
+            mock(RepairRecordRepo.class),
+            mock(RepairAttachmentRepo.class),
+            mock(RepairCostRollups.class));
 
     RepairReq req =
         new RepairReq(
@@ -115,7 +125,11 @@ class RepairServiceTest {
   @Test
   void createAndPatchPersistVendorTaxIdAndFinalAmount() {
     RepairRecordRepo repo = mock(RepairRecordRepo.class);
-    RepairService service = new RepairService(repo, mock(RepairAttachmentRepo.class));
+    RepairService service =
+        new RepairService(
+            repo,
+            mock(RepairAttachmentRepo.class),
+            mock(RepairCostRollups.class));
 
     when(repo.save(any(RepairRecord.class)))
         .thenAnswer(invocation -> invocation.getArgument(0));
@@ -184,17 +198,21 @@ class RepairServiceTest {
   @Test
   void listRepairsCanReadVendorTaxIdAndFinalAmount() {
     RepairRecordRepo repo = mock(RepairRecordRepo.class);
-    RepairService service = new RepairService(repo, mock(RepairAttachmentRepo.class));
+    RepairService service =
+        new RepairService(
+            repo,
+            mock(RepairAttachmentRepo.class),
+            mock(RepairCostRollups.class));
 
     UUID buildingId = UUID.randomUUID();
     RepairRecord row = new RepairRecord();
     row.setVendorTaxId("10293847");
     row.setFinalAmount(new BigDecimal("8800"));
 
-    when(repo.filter(eq(buildingId), eq(null), eq(null), eq(null), eq(null), any(PageRequest.class)))
+    when(repo.findAll(any(Specification.class), any(PageRequest.class)))
         .thenReturn(new PageImpl<>(List.of(row)));
 
-    List<RepairRecord> records = service.listRepairs(buildingId, null, null, null, null);
+    List<RepairRecord> records = service.listRepairs(RepairFilter.of(buildingId));
     assertEquals(1, records.size());
     assertEquals("10293847", records.get(0).getVendorTaxId());
     assertEquals(new BigDecimal("8800"), records.get(0).getFinalAmount());
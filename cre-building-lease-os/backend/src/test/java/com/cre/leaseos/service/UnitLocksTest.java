@@ -0,0 +1,99 @@
+package com.cre.leaseos.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import com.cre.leaseos.repo.UnitRepo;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class UnitLocksTest {
+
+  @Test
+  void disjointUnits_shouldHoldLocksAtTheSameTime() throws Exception {
+    UnitLocks locks = new UnitLocks(mock(UnitRepo.class), Duration.ofSeconds(5));
+    int threads = 8;
+    List<UUID> units = distinctStripeUnits(threads);
+    CyclicBarrier allInside = new CyclicBarrier(threads);
+
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (UUID unitId : units) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  try (UnitLocks.Held held = locks.acquire(List.of(unitId))) {
+                    // Only passes if every thread holds its lock concurrently.
+                    allInside.await(5, TimeUnit.SECONDS);
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void sharedUnit_shouldSerializeWithoutDeadlock() throws Exception {
+    UnitLocks locks = new UnitLocks(mock(UnitRepo.class), Duration.ofSeconds(5));
+    UUID shared = UUID.randomUUID();
+    List<UUID> others = distinctStripeUnits(4);
+    int threads = 16;
+    int rounds = 200;
+    AtomicInteger inside = new AtomicInteger();
+    AtomicInteger maxInside = new AtomicInteger();
+    int[] counter = new int[1];
+
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        UUID other = others.get(t % others.size());
+        // Alternate argument order; acquisition order must not depend on it.
+        List<UUID> unitIds = t % 2 == 0 ? List.of(shared, other) : List.of(other, shared);
+        futures.add(
+            pool.submit(
+                () -> {
+                  for (int r = 0; r < rounds; r++) {
+                    try (UnitLocks.Held held = locks.acquire(unitIds)) {
+                      maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                      counter[0]++;
+                      inside.decrementAndGet();
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+
+    assertEquals(1, maxInside.get());
+    assertEquals(threads * rounds, counter[0]);
+  }
+
+  private static List<UUID> distinctStripeUnits(int count) {
+    List<UUID> units = new ArrayList<>();
+    Set<Integer> stripes = new HashSet<>();
+    while (units.size() < count) {
+      UUID id = UUID.randomUUID();
+      if (stripes.add(UnitLocks.stripe(id))) units.add(id);
+    }
+    return units;
+  }
+}
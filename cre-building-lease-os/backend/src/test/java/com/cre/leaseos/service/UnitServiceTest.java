@@ -4,14 +4,22 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.cre.leaseos.common.ApiException;
+import com.cre.leaseos.domain.Floor;
 import com.cre.leaseos.domain.Unit;
+import com.cre.leaseos.domain.UnitLineage;
+import com.cre.leaseos.dto.UnitDtos.UnitBulkRow;
 import com.cre.leaseos.dto.UnitDtos.UnitCreateReq;
 import com.cre.leaseos.dto.UnitDtos.UnitMergeReq;
 import com.cre.leaseos.dto.UnitDtos.UnitSplitReq;
+import com.cre.leaseos.repo.BuildingRepo;
+import com.cre.leaseos.repo.FloorRepo;
+import com.cre.leaseos.repo.LeaseRepo;
+import com.cre.leaseos.repo.UnitLineageRepo;
 import com.cre.leaseos.repo.UnitRepo;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
@@ -22,7 +30,16 @@ class UnitServiceTest {
   void splitUnit_shouldValidateAndSplit() {
     UnitRepo unitRepo = mock(UnitRepo.class);
     BuildingService buildingService = mock(BuildingService.class);
-    UnitService service = new UnitService(unitRepo, buildingService);
+    UnitService service =
+        new UnitService(
+            unitRepo,
+            buildingService,
+            mock(RentRollProjection.class),
+            mock(OutboxService.class),
+            mock(UnitLineageRepo.class),
+            mock(LeaseRepo.class),
+            new AreaRollups(mock(FloorRepo.class), mock(BuildingRepo.class)),
+            mock(BuildingSearchIndex.class));
 
     UUID id = UUID.randomUUID();
     Unit src = new Unit();
@@ -67,7 +84,16 @@ class UnitServiceTest {
   void mergeUnits_shouldCreateMergedAndPreserveHistory() {
     UnitRepo unitRepo = mock(UnitRepo.class);
     BuildingService buildingService = mock(BuildingService.class);
-    UnitService service = new UnitService(unitRepo, buildingService);
+    UnitService service =
+        new UnitService(
+            unitRepo,
+            buildingService,
+            mock(RentRollProjection.class),
+            mock(OutboxService.class),
+            mock(UnitLineageRepo.class),
+            mock(LeaseRepo.class),
+            new AreaRollups(mock(FloorRepo.class), mock(BuildingRepo.class)),
+            mock(BuildingSearchIndex.class));
 
     UUID floorId = UUID.randomUUID();
     UUID buildingId = UUID.randomUUID();
@@ -116,4 +142,88 @@ class UnitServiceTest {
     assertEquals(merged.getId(), u1.getReplacedByUnitId());
     assertEquals(merged.getId(), u2.getReplacedByUnitId());
   }
+
+  @Test
+  void bulkCreateOnFloor_shouldRejectWholeBatchOnDuplicateCode() {
+    UnitRepo unitRepo = mock(UnitRepo.class);
+    BuildingService buildingService = mock(BuildingService.class);
+    UnitService service =
+        new UnitService(
+            unitRepo,
+            buildingService,
+            mock(RentRollProjection.class),
+            mock(OutboxService.class),
+            mock(UnitLineageRepo.class),
+            mock(LeaseRepo.class),
+            new AreaRollups(mock(FloorRepo.class), mock(BuildingRepo.class)),
+            mock(BuildingSearchIndex.class));
+
+    Floor floor = new Floor();
+    floor.setId(UUID.randomUUID());
+    floor.setBuildingId(UUID.randomUUID());
+    floor.setLabel("1F");
+    Unit existing = new Unit();
+    existing.setFloorId(floor.getId());
+    existing.setCode("A1");
+    when(buildingService.getFloor(floor.getId())).thenReturn(floor);
+    when(unitRepo.findByFloorIdAndIsCurrentTrueOrderByCodeAsc(floor.getId()))
+        .thenReturn(List.of(existing));
+
+    List<UnitBulkRow> rows =
+        List.of(
+            new UnitBulkRow(null, "A2", new BigDecimal("10"), null, null),
+            new UnitBulkRow("1F", "A1", new BigDecimal("10"), null, null),
+            new UnitBulkRow("2F", "A3", new BigDecimal("10"), null, null));
+
+    ApiException ex =
+        assertThrows(ApiException.class, () -> service.bulkCreateOnFloor(floor.getId(), rows));
+    assertEquals("INVALID_UNITS", ex.getCode());
+    verify(unitRepo, never()).saveAll(anyList());
+  }
+
+  @Test
+  void getLineage_shouldSkipRowsWhoseUnitIsGone() {
+    UnitRepo unitRepo = mock(UnitRepo.class);
+    UnitLineageRepo unitLineageRepo = mock(UnitLineageRepo.class);
+    UnitService service =
+        new UnitService(
+            unitRepo,
+            mock(BuildingService.class),
+            mock(RentRollProjection.class),
+            mock(OutboxService.class),
+            unitLineageRepo,
+            mock(LeaseRepo.class),
+            new AreaRollups(mock(FloorRepo.class), mock(BuildingRepo.class)),
+            mock(BuildingSearchIndex.class));
+
+    Unit unit = new Unit();
+    unit.setId(UUID.randomUUID());
+    unit.setCode("A1-1");
+    Unit parent = new Unit();
+    parent.setId(UUID.randomUUID());
+    parent.setCode("A1");
+    UUID gone = UUID.randomUUID();
+    when(unitRepo.findById(unit.getId())).thenReturn(Optional.of(unit));
+    when(unitLineageRepo.findByDescendantIdOrderByDepthAsc(unit.getId()))
+        .thenReturn(
+            List.of(
+                lineage(unit.getId(), unit.getId(), 0),
+                lineage(parent.getId(), unit.getId(), 1),
+                lineage(gone, unit.getId(), 2)));
+    when(unitLineageRepo.findByAncestorIdOrderByDepthAsc(unit.getId()))
+        .thenReturn(List.of(lineage(unit.getId(), unit.getId(), 0)));
+    when(unitRepo.findAllById(anyCollection())).thenReturn(List.of(unit, parent));
+
+    List<?> ancestors = (List<?>) service.getLineage(unit.getId()).get("ancestors");
+    assertEquals(1, ancestors.size());
+    assertEquals(parent.getId(), ((Map<?, ?>) ancestors.get(0)).get("unitId"));
+  }
+
+  private static UnitLineage lineage(UUID ancestorId, UUID descendantId, int depth) {
+    UnitLineage l = new UnitLineage();
+    l.setAncestorId(ancestorId);
+    l.setDescendantId(descendantId);
+    l.setDepth(depth);
+    return l;
+  }
 }
@@ -0,0 +1,6 @@
+-- Extensions the Flyway migrations rely on. CREATE EXTENSION needs a superuser (or, for trusted
+-- extensions, a database owner), so run this once per database as such a role before the backend
+-- migrates with its own, unprivileged account. The postgres image runs it on first init.
+
+-- V7: the exclusion constraint on lease_units compares unit_id with = inside a GiST index.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
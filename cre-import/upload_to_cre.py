@@ -79,25 +79,36 @@ def main():
     t_resp = http("GET", f"{BASE}/buildings/{building_id}/tenants")
     t_map = {t["name"]: t["id"] for t in t_resp.get("data", [])}
 
+    # Resolved server-side: spacing, full-width and (股)/股份有限公司 variants match existing
+    # tenants or earlier rows instead of creating near-duplicates. Only --apply creates.
+    rows = []
+    for t in tenants:
+        name = (t.get("name") or "").strip()
+        if not name:
+            continue
+        rows.append({
+            "name": name,
+            "taxId": t.get("taxId") or None,
+            "contactName": t.get("contactName") or None,
+            "contactPhone": t.get("phone") or None,
+            "contactEmail": t.get("email") or None,
+            "notes": t.get("notes") or None,
+        })
     created_tenants = 0
-    if apply:
-        for t in tenants:
-            name = (t.get("name") or "").strip()
-            if not name or name in t_map:
-                continue
-            payload = {
-                "name": name,
-                "taxId": t.get("taxId") or None,
-                "contactName": t.get("contactName") or None,
-                "phone": t.get("phone") or None,
-                "email": t.get("email") or None,
-                "notes": t.get("notes") or None,
-            }
-            r = http("POST", f"{BASE}/buildings/{building_id}/tenants", payload)
-            tid = r.get("data", {}).get("id")
-            if tid:
-                t_map[name] = tid
+    tenant_conflicts = []
+    if rows:
+        resolved = http(
+            "POST",
+            f"{BASE}/buildings/{building_id}/tenants:resolve",
+            {"tenants": rows, "create": apply},
+        ).get("data", [])
+        for row, res in zip(rows, resolved):
+            if res.get("tenantId"):
+                t_map[row["name"]] = res["tenantId"]
+            if res.get("status") == "CREATED":
                 created_tenants += 1
+            elif res.get("status") == "CONFLICT":
+                tenant_conflicts.append({"name": row["name"], "taxId": row["taxId"]})
 
     # 2) floors
     floors = http("GET", f"{BASE}/buildings/{building_id}/floors").get("data", [])
@@ -187,6 +198,7 @@ def main():
         "occupancyRowsRaw": len(occupancies_raw),
         "occupancyRowsExpanded": len(occupancies),
         "createdTenants": created_tenants,
+        "tenantConflicts": tenant_conflicts,
         "createdUnits": created_units,
         "createdDraftOccupancies": created_occ,
         "skippedCount": len(skipped),